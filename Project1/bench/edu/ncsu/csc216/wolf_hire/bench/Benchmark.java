@@ -0,0 +1,67 @@
+package edu.ncsu.csc216.wolf_hire.bench;
+
+/**
+ * A single benchmark run by BenchmarkRunner.
+ *
+ * Each iteration calls setUp(), which is not timed, and then run(), which is timed and returns the number of operations it
+ * performed, so that the runner can report time and allocation per operation. A benchmark is parameterized by the size of
+ * its dataset, which setUp() receives, and is given the same size on every iteration of a run.
+ *
+ * @author hmreese2
+ *
+ */
+public abstract class Benchmark {
+
+	/** Last value consumed, kept so that the JIT cannot drop the work that produced it */
+	private static volatile Object sink;
+	/** Name of the benchmark */
+	private final String name;
+
+	/**
+	 * Constructs a benchmark with a name
+	 * @param name name of the benchmark, i.e. the method it measures
+	 */
+	protected Benchmark(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Gets the name of the benchmark
+	 * @return name of the benchmark
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Prepares the dataset for the next iteration, which is not timed
+	 * @param size size of the dataset
+	 * @throws Exception if the dataset cannot be prepared
+	 */
+	public void setUp(int size) throws Exception {
+		// nothing to prepare by default
+	}
+
+	/**
+	 * Runs one timed iteration of the benchmark
+	 * @return number of operations performed
+	 * @throws Exception if the benchmark fails
+	 */
+	public abstract int run() throws Exception;
+
+	/**
+	 * Cleans up after the last iteration of a run, which is not timed
+	 * @throws Exception if cleaning up fails
+	 */
+	public void tearDown() throws Exception {
+		// nothing to clean up by default
+	}
+
+	/**
+	 * Consumes the result of an operation, so that it is not optimized away
+	 * @param result result of an operation
+	 */
+	protected static void consume(Object result) {
+		sink = result;
+	}
+}
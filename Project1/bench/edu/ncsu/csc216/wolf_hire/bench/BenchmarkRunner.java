@@ -0,0 +1,451 @@
+package edu.ncsu.csc216.wolf_hire.bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs Benchmarks and measures the time, allocation, and garbage collections of each operation.
+ *
+ * A run is a number of warmup iterations, which let the JIT compile the code and are not measured, followed by a number of
+ * measured iterations. Allocation is the number of bytes the benchmark's thread allocated, when the JVM can count them, and
+ * garbage collections are counted over every collector while the iterations are timed, like JMH's GC profiler.
+ *
+ * Like JMH, each benchmark is run with each dataset size in its own JVMs (forks), so that the code the JIT compiled, the
+ * garbage left behind, and any static state of one benchmark cannot change the numbers of the next. A fork runs
+ * BenchmarkRunner.main(), which creates the benchmarks of a suite (a class with a public static createBenchmarks() method),
+ * runs the one it was asked for, and prints its measurements for the parent to read. The iterations of every fork are combined,
+ * and the error is the half-width of their 99.9% confidence interval. With no forks benchmarks run in the current JVM,
+ * which is only meant for debugging a benchmark.
+ *
+ * @author hmreese2
+ *
+ */
+public class BenchmarkRunner {
+
+	/** Prefix of the line a fork prints its measurements on */
+	private static final String RESULT_PREFIX = "RESULT\t";
+	/** Quantiles of Student's t-distribution for a two-sided 99.9% confidence interval, indexed by degrees of freedom */
+	private static final double[] T_999 = {Double.NaN, 636.62, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587,
+			4.437, 4.318, 4.221, 4.140, 4.073, 4.015, 3.965, 3.922, 3.883, 3.850, 3.819, 3.792, 3.768, 3.745, 3.725, 3.707, 3.690,
+			3.674, 3.659, 3.646};
+	/** Quantile of the normal distribution for a two-sided 99.9% confidence interval */
+	private static final double Z_999 = 3.2905;
+
+	/** Number of iterations that are not measured */
+	private final int warmupIterations;
+	/** Number of iterations that are measured */
+	private final int measurementIterations;
+	/** Number of JVMs each benchmark is run in with each size, 0 to run it in this JVM */
+	private final int forks;
+	/** Thread bean that can count allocated bytes, or null if the JVM cannot */
+	private final com.sun.management.ThreadMXBean allocationBean;
+
+	/**
+	 * Constructs a runner that runs benchmarks in this JVM
+	 * @param warmupIterations number of iterations that are not measured
+	 * @param measurementIterations number of iterations that are measured
+	 * @throws IllegalArgumentException if warmupIterations is negative or measurementIterations is not positive
+	 */
+	public BenchmarkRunner(int warmupIterations, int measurementIterations) {
+		this(warmupIterations, measurementIterations, 0);
+	}
+
+	/**
+	 * Constructs a runner
+	 * @param warmupIterations number of iterations that are not measured
+	 * @param measurementIterations number of iterations that are measured
+	 * @param forks number of JVMs each benchmark is run in with each size, 0 to run it in this JVM
+	 * @throws IllegalArgumentException if warmupIterations or forks is negative or measurementIterations is not positive
+	 */
+	public BenchmarkRunner(int warmupIterations, int measurementIterations, int forks) {
+		if (warmupIterations < 0 || measurementIterations <= 0 || forks < 0) {
+			throw new IllegalArgumentException("Invalid iterations.");
+		}
+		this.warmupIterations = warmupIterations;
+		this.measurementIterations = measurementIterations;
+		this.forks = forks;
+
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+			((com.sun.management.ThreadMXBean) bean).setThreadAllocatedMemoryEnabled(true);
+			allocationBean = (com.sun.management.ThreadMXBean) bean;
+		} else {
+			allocationBean = null;
+		}
+	}
+
+	/**
+	 * Runs one benchmark in a fork, as started by runForked():
+	 *
+	 * <pre>
+	 * java edu.ncsu.csc216.wolf_hire.bench.BenchmarkRunner suite benchmark size warmup iterations
+	 * </pre>
+	 *
+	 * @param args name of the suite class, name of the benchmark, size of the dataset, and numbers of warmup and measured iterations
+	 * @throws Exception if the benchmark fails
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length != 5) {
+			throw new IllegalArgumentException("Usage: BenchmarkRunner suite benchmark size warmup iterations");
+		}
+		@SuppressWarnings("unchecked")
+		List<Benchmark> benchmarks = (List<Benchmark>) Class.forName(args[0]).getMethod("createBenchmarks").invoke(null);
+		for (Benchmark b : benchmarks) {
+			if (b.getName().equals(args[1])) {
+				BenchmarkRunner runner = new BenchmarkRunner(Integer.parseInt(args[3]), Integer.parseInt(args[4]));
+				System.out.println(RESULT_PREFIX + runner.run(b, Integer.parseInt(args[2])).encode());
+				return;
+			}
+		}
+		throw new IllegalArgumentException("Unknown benchmark " + args[1]);
+	}
+
+	/**
+	 * Runs a benchmark with a dataset size in this JVM
+	 * @param benchmark benchmark to run
+	 * @param size size of the dataset
+	 * @return measurements of the run
+	 * @throws Exception if the benchmark fails
+	 */
+	public Result run(Benchmark benchmark, int size) throws Exception {
+		try {
+			for (int i = 0; i < warmupIterations; i++) {
+				benchmark.setUp(size);
+				benchmark.run();
+			}
+
+			double[] nanosPerOp = new double[measurementIterations];
+			long operations = 0;
+			long totalNanos = 0;
+			long allocated = 0;
+			long gcCount = 0;
+			long gcMillis = 0;
+			for (int i = 0; i < measurementIterations; i++) {
+				benchmark.setUp(size);
+
+				long gcCountBefore = gcCount();
+				long gcMillisBefore = gcMillis();
+				long allocatedBefore = allocatedBytes();
+				long start = System.nanoTime();
+				int ops = benchmark.run();
+				long nanos = System.nanoTime() - start;
+				allocated += allocatedBytes() - allocatedBefore;
+				gcMillis += gcMillis() - gcMillisBefore;
+				gcCount += gcCount() - gcCountBefore;
+
+				// count an iteration that did nothing as one operation rather than divide by zero
+				ops = Math.max(ops, 1);
+				nanosPerOp[i] = (double) nanos / ops;
+				operations += ops;
+				totalNanos += nanos;
+			}
+
+			return new Result(benchmark.getName(), size, operations, totalNanos, allocationBean == null ? -1 : allocated,
+					gcCount, gcMillis, nanosPerOp);
+		} finally {
+			benchmark.tearDown();
+		}
+	}
+
+	/**
+	 * Runs a benchmark with a dataset size in new JVMs, one after another, combining their measurements
+	 * @param suite class whose public static createBenchmarks() method creates the benchmark
+	 * @param benchmark name of the benchmark
+	 * @param size size of the dataset
+	 * @return combined measurements of every fork
+	 * @throws IOException if a fork cannot be started, fails, or prints no measurements
+	 * @throws InterruptedException if interrupted while waiting for a fork
+	 */
+	public Result runForked(Class<?> suite, String benchmark, int size) throws IOException, InterruptedException {
+		List<String> command = new ArrayList<String>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+			// options such as -Xmx carry over to the forks, a debugger would clash with this JVM's
+			if (!argument.startsWith("-agentlib:jdwp") && !argument.startsWith("-Xrunjdwp")) {
+				command.add(argument);
+			}
+		}
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(BenchmarkRunner.class.getName());
+		command.add(suite.getName());
+		command.add(benchmark);
+		command.add(Integer.toString(size));
+		command.add(Integer.toString(warmupIterations));
+		command.add(Integer.toString(measurementIterations));
+
+		List<Result> results = new ArrayList<Result>();
+		for (int i = 0; i < forks; i++) {
+			Process fork = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+			Result result = null;
+			try (BufferedReader in = new BufferedReader(new InputStreamReader(fork.getInputStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = in.readLine()) != null) {
+					if (line.startsWith(RESULT_PREFIX)) {
+						result = Result.decode(line.substring(RESULT_PREFIX.length()));
+					} else {
+						// anything else the benchmark printed goes where errors go, out of the way of the results
+						System.err.println(line);
+					}
+				}
+			}
+			if (fork.waitFor() != 0 || result == null) {
+				throw new IOException("Fork of " + benchmark + " failed with exit code " + fork.exitValue());
+			}
+			results.add(result);
+		}
+		return Result.combine(results);
+	}
+
+	/**
+	 * Runs every benchmark with every dataset size, printing each result as it finishes. Each benchmark is run in its own
+	 * forks, or in this JVM if the runner has no forks.
+	 * @param suite class whose public static createBenchmarks() method creates the benchmarks, used by the forks
+	 * @param benchmarks benchmarks to run
+	 * @param sizes sizes of the datasets
+	 * @param out stream the results are printed to
+	 * @throws Exception if a benchmark fails
+	 */
+	public void runAll(Class<?> suite, List<Benchmark> benchmarks, int[] sizes, PrintStream out) throws Exception {
+		out.println(Result.HEADER);
+		for (Benchmark b : benchmarks) {
+			for (int size : sizes) {
+				out.println(forks == 0 ? run(b, size) : runForked(suite, b.getName(), size));
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of bytes allocated by the current thread
+	 * @return bytes allocated, or 0 if they cannot be counted
+	 */
+	private long allocatedBytes() {
+		return allocationBean == null ? 0 : allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Gets the number of garbage collections so far
+	 * @return collections by every collector
+	 */
+	private static long gcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(gc.getCollectionCount(), 0);
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the time spent in garbage collections so far
+	 * @return milliseconds in every collector
+	 */
+	private static long gcMillis() {
+		long millis = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			millis += Math.max(gc.getCollectionTime(), 0);
+		}
+		return millis;
+	}
+
+	/**
+	 * Measurements of one benchmark run with one dataset size, in one JVM or combined over several forks.
+	 *
+	 * @author hmreese2
+	 *
+	 */
+	public static class Result {
+
+		/** Header of the columns printed by toString() */
+		public static final String HEADER = String.format(Locale.ROOT, "%-48s %8s %10s %14s %12s %12s %6s %8s",
+				"Benchmark", "Size", "Ops", "ns/op", "Error", "B/op", "GCs", "GC ms");
+
+		/** Name of the benchmark */
+		private final String name;
+		/** Size of the dataset */
+		private final int size;
+		/** Operations over every measured iteration */
+		private final long operations;
+		/** Nanoseconds over every measured iteration */
+		private final long totalNanos;
+		/** Bytes allocated over every measured iteration, or -1 if they cannot be counted */
+		private final long allocated;
+		/** Garbage collections during the measured iterations */
+		private final long gcCount;
+		/** Milliseconds of garbage collection during the measured iterations */
+		private final long gcMillis;
+		/** Nanoseconds per operation of each measured iteration */
+		private final double[] samples;
+
+		/**
+		 * Constructs a result
+		 * @param name name of the benchmark
+		 * @param size size of the dataset
+		 * @param operations operations over every measured iteration
+		 * @param totalNanos nanoseconds over every measured iteration
+		 * @param allocated bytes allocated over every measured iteration, or -1 if they cannot be counted
+		 * @param gcCount garbage collections during the measured iterations
+		 * @param gcMillis milliseconds of garbage collection during the measured iterations
+		 * @param samples nanoseconds per operation of each measured iteration
+		 */
+		Result(String name, int size, long operations, long totalNanos, long allocated, long gcCount, long gcMillis, double[] samples) {
+			this.name = name;
+			this.size = size;
+			this.operations = operations;
+			this.totalNanos = totalNanos;
+			this.allocated = allocated;
+			this.gcCount = gcCount;
+			this.gcMillis = gcMillis;
+			this.samples = samples;
+		}
+
+		/**
+		 * Combines the results of the forks of one benchmark and size, as if their iterations were run one after another
+		 * @param results results of each fork, at least one
+		 * @return combined result
+		 */
+		static Result combine(List<Result> results) {
+			Result first = results.get(0);
+			long operations = 0;
+			long totalNanos = 0;
+			long allocated = 0;
+			long gcCount = 0;
+			long gcMillis = 0;
+			int sampleCount = 0;
+			for (Result r : results) {
+				operations += r.operations;
+				totalNanos += r.totalNanos;
+				allocated = allocated < 0 || r.allocated < 0 ? -1 : allocated + r.allocated;
+				gcCount += r.gcCount;
+				gcMillis += r.gcMillis;
+				sampleCount += r.samples.length;
+			}
+			double[] samples = new double[sampleCount];
+			int next = 0;
+			for (Result r : results) {
+				System.arraycopy(r.samples, 0, samples, next, r.samples.length);
+				next += r.samples.length;
+			}
+			return new Result(first.name, first.size, operations, totalNanos, allocated, gcCount, gcMillis, samples);
+		}
+
+		/**
+		 * Encodes the result as one line of tab separated fields, which a fork prints for its parent
+		 * @return encoded result
+		 */
+		String encode() {
+			StringBuilder line = new StringBuilder();
+			line.append(name).append('\t').append(size).append('\t').append(operations).append('\t').append(totalNanos).append('\t')
+					.append(allocated).append('\t').append(gcCount).append('\t').append(gcMillis);
+			for (double sample : samples) {
+				line.append('\t').append(sample);
+			}
+			return line.toString();
+		}
+
+		/**
+		 * Decodes a result encoded by encode()
+		 * @param line encoded result
+		 * @return decoded result
+		 */
+		static Result decode(String line) {
+			String[] fields = line.split("\t");
+			double[] samples = new double[fields.length - 7];
+			for (int i = 0; i < samples.length; i++) {
+				samples[i] = Double.parseDouble(fields[i + 7]);
+			}
+			return new Result(fields[0], Integer.parseInt(fields[1]), Long.parseLong(fields[2]), Long.parseLong(fields[3]),
+					Long.parseLong(fields[4]), Long.parseLong(fields[5]), Long.parseLong(fields[6]), samples);
+		}
+
+		/**
+		 * Gets the name of the benchmark
+		 * @return name of the benchmark
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Gets the size of the dataset
+		 * @return size of the dataset
+		 */
+		public int getSize() {
+			return size;
+		}
+
+		/**
+		 * Gets the mean nanoseconds per operation
+		 * @return nanoseconds per operation
+		 */
+		public double getNanosPerOp() {
+			return (double) totalNanos / operations;
+		}
+
+		/**
+		 * Gets the half-width of the 99.9% confidence interval of the nanoseconds per operation, from the spread of the
+		 * measured iterations
+		 * @return error of getNanosPerOp(), or NaN if there was only one measured iteration
+		 */
+		public double getError() {
+			int n = samples.length;
+			if (n < 2) {
+				return Double.NaN;
+			}
+			double mean = 0;
+			for (double sample : samples) {
+				mean += sample;
+			}
+			mean /= n;
+			double variance = 0;
+			for (double sample : samples) {
+				variance += (sample - mean) * (sample - mean);
+			}
+			variance /= n - 1;
+			return tQuantile(n - 1) * Math.sqrt(variance / n);
+		}
+
+		/**
+		 * Gets the bytes allocated per operation
+		 * @return bytes per operation, or NaN if they cannot be counted
+		 */
+		public double getBytesPerOp() {
+			return allocated < 0 ? Double.NaN : (double) allocated / operations;
+		}
+
+		/**
+		 * Formats the result as a row under HEADER
+		 * @return row of the result
+		 */
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT, "%-48s %8d %10d %14.1f %12.1f %12.1f %6d %8d",
+					name, size, operations / samples.length, getNanosPerOp(), getError(), getBytesPerOp(), gcCount, gcMillis);
+		}
+
+		/**
+		 * Gets the quantile of Student's t-distribution for a two-sided 99.9% confidence interval. Beyond the table the
+		 * Cornish-Fisher expansion around the normal quantile is used, which is within 0.01 of it there.
+		 * @param degreesOfFreedom degrees of freedom, at least 1
+		 * @return quantile of the distribution
+		 */
+		private static double tQuantile(int degreesOfFreedom) {
+			if (degreesOfFreedom < T_999.length) {
+				return T_999[degreesOfFreedom];
+			}
+			double z = Z_999;
+			double df = degreesOfFreedom;
+			return z + (z * z * z + z) / (4 * df) + (5 * Math.pow(z, 5) + 16 * z * z * z + 3 * z) / (96 * df * df);
+		}
+	}
+}
@@ -0,0 +1,462 @@
+package edu.ncsu.csc216.wolf_hire.bench;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import edu.ncsu.csc216.wolf_hire.model.application.Application;
+import edu.ncsu.csc216.wolf_hire.model.application.Application.StateValue;
+import edu.ncsu.csc216.wolf_hire.model.command.Command;
+import edu.ncsu.csc216.wolf_hire.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_hire.model.io.PositionReader;
+import edu.ncsu.csc216.wolf_hire.model.io.PositionWriter;
+import edu.ncsu.csc216.wolf_hire.model.manager.Position;
+import edu.ncsu.csc216.wolf_hire.model.manager.WolfHire;
+
+/**
+ * Benchmarks of the model layer, run from the command line:
+ *
+ * <pre>
+ * java edu.ncsu.csc216.wolf_hire.bench.ModelBenchmarks [-sizes 1000,10000,100000] [-warmup 5] [-iterations 10] [-forks 1] [-filter text]
+ * </pre>
+ *
+ * Every benchmark runs once per dataset size, which is the number of applications in the position it works on. An operation is
+ * one application read, written, added, looked up, or updated, except for WolfHire.getApplicationsAsArray(), where it is one
+ * call made after a single application in the filter changed, which is what a table refresh costs. -filter only runs the
+ * benchmarks whose name contains the text. Time, allocation, and garbage collections are reported per operation by
+ * BenchmarkRunner, so that numbers can be compared between releases.
+ *
+ * Each benchmark runs with each size in -forks JVMs of its own (-forks 0 runs everything in this JVM, for debugging only),
+ * so benchmarks that share WolfHire's single instance cannot see each other's positions.
+ *
+ * @author hmreese2
+ *
+ */
+public class ModelBenchmarks {
+
+	/** Default sizes of the datasets */
+	private static final int[] DEFAULT_SIZES = {1000, 10000, 100000};
+	/** Default number of iterations that are not measured */
+	private static final int DEFAULT_WARMUP = 5;
+	/** Default number of iterations that are measured */
+	private static final int DEFAULT_ITERATIONS = 10;
+	/** Default number of JVMs each benchmark runs in with each size */
+	private static final int DEFAULT_FORKS = 1;
+	/** Seed of generated files and of the random order applications are looked up in */
+	private static final long SEED = 216;
+	/** Reviewers given to applications that need one */
+	private static final String[] REVIEWERS = {"sesmith5", "jdyoung2", "mjlee5", "kbrown3"};
+
+	/**
+	 * Runs the benchmarks
+	 * @param args command line options
+	 * @throws Exception if a benchmark fails
+	 */
+	public static void main(String[] args) throws Exception {
+		int[] sizes = DEFAULT_SIZES;
+		int warmup = DEFAULT_WARMUP;
+		int iterations = DEFAULT_ITERATIONS;
+		int forks = DEFAULT_FORKS;
+		String filter = "";
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			switch (args[i]) {
+				case "-sizes":
+					String[] values = args[i + 1].split(",");
+					sizes = new int[values.length];
+					for (int j = 0; j < values.length; j++) {
+						sizes[j] = Integer.parseInt(values[j].trim());
+					}
+					break;
+				case "-warmup":
+					warmup = Integer.parseInt(args[i + 1]);
+					break;
+				case "-iterations":
+					iterations = Integer.parseInt(args[i + 1]);
+					break;
+				case "-forks":
+					forks = Integer.parseInt(args[i + 1]);
+					break;
+				case "-filter":
+					filter = args[i + 1];
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		for (Benchmark b : createBenchmarks()) {
+			if (b.getName().contains(filter)) {
+				benchmarks.add(b);
+			}
+		}
+		new BenchmarkRunner(warmup, iterations, forks).runAll(ModelBenchmarks.class, benchmarks, sizes, System.out);
+	}
+
+	/**
+	 * Creates every benchmark of the model layer, also called by the forks BenchmarkRunner runs them in
+	 * @return benchmarks in the order they are run
+	 */
+	public static List<Benchmark> createBenchmarks() {
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		benchmarks.add(new ReadBenchmark());
+		benchmarks.add(new WriteBenchmark());
+		benchmarks.add(new AddApplicationBenchmark());
+		benchmarks.add(new GetApplicationByIdBenchmark());
+		benchmarks.add(new ApplicationsAsArrayBenchmark("All"));
+		for (StateValue state : StateValue.values()) {
+			benchmarks.add(new ApplicationsAsArrayBenchmark(state.getStateName()));
+		}
+		for (CommandValue command : CommandValue.values()) {
+			benchmarks.add(new UpdateBenchmark(command));
+		}
+		return benchmarks;
+	}
+
+	/**
+	 * Creates a position with applications in every state, in turn
+	 * @param positionName name of the position
+	 * @param size number of applications
+	 * @return new position
+	 */
+	static Position createPosition(String positionName, int size) {
+		Position position = new Position(positionName, 20, 15);
+		StateValue[] states = StateValue.values();
+		for (int id = 1; id <= size; id++) {
+			position.addApplication(createApplication(id, states[id % states.length]));
+		}
+		return position;
+	}
+
+	/**
+	 * Creates an application in a state, with the reviewer and note the state needs
+	 * @param id id of the application
+	 * @param state state of the application
+	 * @return new application
+	 */
+	static Application createApplication(int id, StateValue state) {
+		String reviewer = null;
+		String note = null;
+		if (state == StateValue.REJECTED) {
+			note = Application.QUALIFICATIONS_REJECTION;
+		} else if (state != StateValue.SUBMITTED) {
+			reviewer = REVIEWERS[id % REVIEWERS.length];
+		}
+		if (state == StateValue.INACTIVE) {
+			note = Application.COMPLETED_TERMINATION;
+		}
+		return Application.forPosition(id, state.getStateName(), "First" + id, "Last" + id, "unity" + id, reviewer, note);
+	}
+
+	/**
+	 * Reads a position file made by PositionFileGenerator with PositionReader.readPositionFile().
+	 *
+	 * @author hmreese2
+	 *
+	 */
+	private static class ReadBenchmark extends Benchmark {
+
+		/** File being read */
+		private File file;
+		/** Number of applications in the file */
+		private int size;
+
+		/**
+		 * Constructs the benchmark
+		 */
+		ReadBenchmark() {
+			super("PositionReader.readPositionFile");
+		}
+
+		@Override
+		public void setUp(int size) throws Exception {
+			if (file == null || this.size != size) {
+				tearDown();
+				file = File.createTempFile("bench", ".txt");
+				PositionFileGenerator generator = new PositionFileGenerator(SEED);
+				generator.setApplications(size);
+				generator.generate(file.getPath());
+				this.size = size;
+			}
+		}
+
+		@Override
+		public int run() {
+			consume(PositionReader.readPositionFile(file.getPath()));
+			return size;
+		}
+
+		@Override
+		public void tearDown() {
+			if (file != null) {
+				file.delete();
+				file = null;
+			}
+		}
+	}
+
+	/**
+	 * Writes a position file with PositionWriter.writePositionsToFile().
+	 *
+	 * @author hmreese2
+	 *
+	 */
+	private static class WriteBenchmark extends Benchmark {
+
+		/** File being written */
+		private File file;
+		/** Positions being written */
+		private ArrayList<Position> positions;
+		/** Number of applications written */
+		private int size;
+
+		/**
+		 * Constructs the benchmark
+		 */
+		WriteBenchmark() {
+			super("PositionWriter.writePositionsToFile");
+		}
+
+		@Override
+		public void setUp(int size) throws Exception {
+			if (file == null || this.size != size) {
+				tearDown();
+				file = File.createTempFile("bench", ".txt");
+				positions = new ArrayList<Position>();
+				positions.add(createPosition("Bench", size));
+				this.size = size;
+			}
+		}
+
+		@Override
+		public int run() {
+			PositionWriter.writePositionsToFile(file.getPath(), positions);
+			return size;
+		}
+
+		@Override
+		public void tearDown() {
+			if (file != null) {
+				file.delete();
+				file = null;
+			}
+		}
+	}
+
+	/**
+	 * Adds new applications to an empty position with Position.addApplication().
+	 *
+	 * @author hmreese2
+	 *
+	 */
+	private static class AddApplicationBenchmark extends Benchmark {
+
+		/** Position applications are added to */
+		private Position position;
+		/** Number of applications added */
+		private int size;
+
+		/**
+		 * Constructs the benchmark
+		 */
+		AddApplicationBenchmark() {
+			super("Position.addApplication");
+		}
+
+		@Override
+		public void setUp(int size) {
+			position = new Position("Bench", 20, 15);
+			this.size = size;
+		}
+
+		@Override
+		public int run() {
+			for (int i = 0; i < size; i++) {
+				position.addApplication("First", "Last", "unity");
+			}
+			consume(position);
+			return size;
+		}
+	}
+
+	/**
+	 * Looks up every application of a position, in random order, with Position.getApplicationById().
+	 *
+	 * @author hmreese2
+	 *
+	 */
+	private static class GetApplicationByIdBenchmark extends Benchmark {
+
+		/** Position applications are looked up in */
+		private Position position;
+		/** Ids looked up, in order */
+		private int[] ids;
+
+		/**
+		 * Constructs the benchmark
+		 */
+		GetApplicationByIdBenchmark() {
+			super("Position.getApplicationById");
+		}
+
+		@Override
+		public void setUp(int size) {
+			if (ids == null || ids.length != size) {
+				position = createPosition("Bench", size);
+				List<Integer> shuffled = new ArrayList<Integer>();
+				for (int id = 1; id <= size; id++) {
+					shuffled.add(id);
+				}
+				Collections.shuffle(shuffled, new Random(SEED));
+				ids = new int[size];
+				for (int i = 0; i < size; i++) {
+					ids[i] = shuffled.get(i);
+				}
+			}
+		}
+
+		@Override
+		public int run() {
+			for (int id : ids) {
+				consume(position.getApplicationById(id));
+			}
+			return ids.length;
+		}
+	}
+
+	/**
+	 * Lists the applications of a position with WolfHire.getApplicationsAsArray() after one of them changed.
+	 *
+	 * Before each call an application in the filter is deleted and added back, so that the cached rows change and the array is
+	 * copied out of the cache again, as it is when the table is refreshed after a command. Each benchmark adds its own position to WolfHire for each size, so no two benchmarks
+	 * list the same position even when they run in the same JVM.
+	 *
+	 * @author hmreese2
+	 *
+	 */
+	private static class ApplicationsAsArrayBenchmark extends Benchmark {
+
+		/** Filter the applications are listed with */
+		private final String filter;
+		/** Position being listed */
+		private Position position;
+		/** Size of the position being listed */
+		private int size;
+		/** Number of changes made, used to pick the application changed next */
+		private int changes;
+
+		/**
+		 * Constructs the benchmark
+		 * @param filter "All" or the name of a state
+		 */
+		ApplicationsAsArrayBenchmark(String filter) {
+			super("WolfHire.getApplicationsAsArray(" + filter + ")");
+			this.filter = filter;
+		}
+
+		@Override
+		public void setUp(int size) {
+			if (position == null || this.size != size) {
+				position = createPosition("Bench " + filter + " " + size, size);
+				List<Position> list = new ArrayList<Position>();
+				list.add(position);
+				WolfHire.getInstance().addPositions(list);
+				this.size = size;
+				changes = 0;
+			}
+
+			StateValue state = StateValue.fromStateName(filter);
+			position.getLock().writeLock().lock();
+			try {
+				List<Application> applications = state == null ? position.getApplications() : position.getApplicationsByState(state);
+				if (!applications.isEmpty()) {
+					Application changed = applications.get(changes++ % applications.size());
+					position.deleteApplicationById(changed.getId());
+					position.addApplication(changed);
+				}
+			} finally {
+				position.getLock().writeLock().unlock();
+			}
+		}
+
+		@Override
+		public int run() {
+			consume(WolfHire.getInstance().getApplicationsAsArray(position.getPositionName(), filter));
+			return 1;
+		}
+	}
+
+	/**
+	 * Updates applications with Application.update(), with a command applied to applications in a state that accepts it.
+	 *
+	 * @author hmreese2
+	 *
+	 */
+	private static class UpdateBenchmark extends Benchmark {
+
+		/** Application copied for each update, in a state that accepts the command */
+		private final Application template;
+		/** Command applied */
+		private final Command command;
+		/** Applications being updated */
+		private Application[] applications;
+
+		/**
+		 * Constructs the benchmark
+		 * @param command command applied
+		 */
+		UpdateBenchmark(CommandValue command) {
+			super("Application.update(" + command + ")");
+			switch (command) {
+				case ASSIGN:
+					template = createApplication(1, StateValue.SUBMITTED);
+					this.command = new Command(command, REVIEWERS[0]);
+					break;
+				case REJECT:
+					template = createApplication(1, StateValue.SUBMITTED);
+					this.command = new Command(command, Application.QUALIFICATIONS_REJECTION);
+					break;
+				case RESUBMIT:
+					template = createApplication(1, StateValue.REJECTED);
+					this.command = new Command(command, null);
+					break;
+				case RETURN:
+				case SCHEDULE:
+					template = createApplication(1, StateValue.REVIEWING);
+					this.command = new Command(command, null);
+					break;
+				case PROCESS:
+					template = createApplication(1, StateValue.INTERVIEWING);
+					this.command = new Command(command, null);
+					break;
+				case HIRE:
+					template = createApplication(1, StateValue.PROCESSING);
+					this.command = new Command(command, null);
+					break;
+				default:
+					template = createApplication(1, StateValue.HIRED);
+					this.command = new Command(command, Application.COMPLETED_TERMINATION);
+					break;
+			}
+		}
+
+		@Override
+		public void setUp(int size) {
+			applications = new Application[size];
+			for (int i = 0; i < size; i++) {
+				applications[i] = new Application(template);
+			}
+		}
+
+		@Override
+		public int run() {
+			for (Application a : applications) {
+				a.update(command);
+			}
+			consume(applications);
+			return applications.length;
+		}
+	}
+}
@@ -0,0 +1,432 @@
+package edu.ncsu.csc216.wolf_hire.bench;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import edu.ncsu.csc216.wolf_hire.model.application.Application;
+import edu.ncsu.csc216.wolf_hire.model.application.Application.StateValue;
+
+/**
+ * Generates position files in the format read by PositionReader, at any size, for benchmarks and regression tests.
+ *
+ * A file has a number of positions with a number of applications each. The state of each application is picked from a
+ * weighted mix, and reviewers and notes are picked from pools whose skew can be set, from even (0) to a few reviewers or
+ * notes taking most applications. A fraction of the positions and applications can be corrupted, with one of the Corruption
+ * kinds, so that PositionReader has to skip them.
+ *
+ * Output is generated from a seed with java.util.Random, so the same seed and settings always give the same file, and is
+ * written line by line, so files larger than the heap can be generated. Since the generator knows which lines it corrupted, the
+ * Summary it returns says how many positions and applications a reader should load.
+ *
+ * @author hmreese2
+ *
+ */
+public class PositionFileGenerator {
+
+	/** Ways a line of a position file is corrupted */
+	public enum Corruption {
+		/** Position line with hours per week out of range, which makes the whole position invalid */
+		BAD_POSITION,
+		/** Application id that is not a number */
+		BAD_ID,
+		/** Application state that does not exist */
+		BAD_STATE,
+		/** Application line missing the surname and unity id */
+		MISSING_FIELDS,
+		/** Application with a reviewer in a state that cannot have one, or without one in a state that needs one */
+		BAD_REVIEWER,
+		/** Application with a note its state cannot have */
+		BAD_NOTE,
+		/** Application with the same id as a valid application before it */
+		DUPLICATE_ID,
+		/** Application followed by a line of text that is not a position or application */
+		STRAY_TEXT
+	}
+
+	/** Size of the character buffer used when writing files */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/** First names of applicants */
+	private static final String[] FIRST_NAMES = {"Carol", "Kathleen", "Fiona", "Deanna", "Jay", "Harry", "Cailin", "Clinton",
+		"Amir", "Mei", "Priya", "Luis"};
+	/** Surnames of applicants */
+	private static final String[] SURNAMES = {"Schmidt", "Gillespie", "Rosario", "Sanders", "Fox", "Smith", "Roach", "Armstrong",
+		"Haddad", "Chen", "Patel", "Garcia"};
+	/** Rejection reasons, the notes of rejected applications */
+	private static final String[] REJECTIONS = {Application.QUALIFICATIONS_REJECTION, Application.INCOMPLETE_REJECTION,
+		Application.POSITIONS_REJECTION, Application.DUPLICATE_REJECTION};
+	/** Termination reasons, the notes of inactive applications */
+	private static final String[] TERMINATIONS = {Application.COMPLETED_TERMINATION, Application.RESIGNED_TERMINATION,
+		Application.FIRED_TERMINATION};
+
+	/** Seed of the generated output */
+	private final long seed;
+	/** Number of positions */
+	private int positions = 1;
+	/** Number of applications per position */
+	private int applications = 100;
+	/** Weight of each state indexed by StateValue ordinal */
+	private int[] stateWeights = {30, 15, 20, 10, 5, 10, 10};
+	/** Number of reviewers */
+	private int reviewers = 10;
+	/** Skew of the reviewers picked, 0 for even */
+	private double reviewerSkew = 1;
+	/** Skew of the notes picked, 0 for even */
+	private double noteSkew = 1;
+	/** Fraction of positions and applications that are corrupted */
+	private double corruptionRate;
+
+	/**
+	 * Constructs a generator of valid files with one position of 100 applications
+	 * @param seed seed of the generated output
+	 */
+	public PositionFileGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Sets the number of positions
+	 * @param positions number of positions
+	 * @throws IllegalArgumentException with message "Invalid information." if positions is negative
+	 */
+	public void setPositions(int positions) {
+		if (positions < 0) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		this.positions = positions;
+	}
+
+	/**
+	 * Sets the number of applications per position
+	 * @param applications number of applications per position
+	 * @throws IllegalArgumentException with message "Invalid information." if applications is negative
+	 */
+	public void setApplications(int applications) {
+		if (applications < 0) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		this.applications = applications;
+	}
+
+	/**
+	 * Sets the weight of a state in the mix of application states, e.g. a weight of 0 leaves the state out
+	 * @param state state whose weight is set
+	 * @param weight weight of the state
+	 * @throws IllegalArgumentException with message "Invalid information." if state is null, weight is negative,
+	 * or every weight would be 0
+	 */
+	public void setStateWeight(StateValue state, int weight) {
+		if (state == null || weight < 0) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		int total = weight;
+		for (int i = 0; i < stateWeights.length; i++) {
+			total += i == state.ordinal() ? 0 : stateWeights[i];
+		}
+		if (total == 0) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		stateWeights[state.ordinal()] = weight;
+	}
+
+	/**
+	 * Sets the number of reviewers and how unevenly applications are spread over them
+	 * @param reviewers number of reviewers
+	 * @param skew 0 to spread applications evenly, higher to give more of them to the first reviewers
+	 * @throws IllegalArgumentException with message "Invalid information." if reviewers is not positive or skew is negative
+	 */
+	public void setReviewers(int reviewers, double skew) {
+		if (reviewers <= 0 || !(skew >= 0)) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		this.reviewers = reviewers;
+		this.reviewerSkew = skew;
+	}
+
+	/**
+	 * Sets how unevenly rejection and termination reasons are picked
+	 * @param skew 0 to pick reasons evenly, higher to pick the first reasons more often
+	 * @throws IllegalArgumentException with message "Invalid information." if skew is negative
+	 */
+	public void setNoteSkew(double skew) {
+		if (!(skew >= 0)) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		this.noteSkew = skew;
+	}
+
+	/**
+	 * Sets the fraction of positions and applications that are corrupted
+	 * @param corruptionRate fraction from 0 to 1
+	 * @throws IllegalArgumentException with message "Invalid information." if corruptionRate is not from 0 to 1
+	 */
+	public void setCorruptionRate(double corruptionRate) {
+		if (!(corruptionRate >= 0 && corruptionRate <= 1)) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		this.corruptionRate = corruptionRate;
+	}
+
+	/**
+	 * Generates a file
+	 * @param fileName name of the file generated
+	 * @return summary of what was generated
+	 * @throws IllegalArgumentException with message "Unable to save file." if the file cannot be written
+	 */
+	public Summary generate(String fileName) {
+		try (Writer writer = new BufferedWriter(
+				new OutputStreamWriter(new FileOutputStream(fileName), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+			return generate(writer);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Generates the lines of a file, leaving the writer open
+	 * @param writer writer the lines are written to
+	 * @return summary of what was generated
+	 * @throws IOException if the lines cannot be written
+	 */
+	public Summary generate(Writer writer) throws IOException {
+		Random random = new Random(seed);
+		Summary summary = new Summary();
+		Corruption[] kinds = Corruption.values();
+		int totalWeight = 0;
+		for (int weight : stateWeights) {
+			totalWeight += weight;
+		}
+
+		for (int p = 1; p <= positions; p++) {
+			summary.positions++;
+			boolean validPosition = !corrupt(random);
+			if (!validPosition) {
+				summary.corruptLines++;
+			}
+			// # PositionName,hoursPerWeek,payRate
+			writer.write("# Position " + p + "," + (validPosition ? 5 + random.nextInt(16) : 21 + random.nextInt(20))
+					+ "," + (7 + random.nextInt(29)) + "\n");
+
+			int validApplications = 0;
+			int id = 0;
+			// id of the last valid application, which a duplicate id copies
+			int validId = 0;
+			for (int a = 0; a < applications; a++) {
+				summary.applications++;
+				// leave gaps between ids, as deleted applications do
+				id += 1 + (random.nextInt(8) == 0 ? random.nextInt(5) : 0);
+				StateValue state = pickState(random, totalWeight);
+				String reviewer = state == StateValue.SUBMITTED || state == StateValue.REJECTED ? ""
+						: "reviewer" + pick(random, reviewers, reviewerSkew);
+				String note = "";
+				if (state == StateValue.REJECTED) {
+					note = REJECTIONS[pick(random, REJECTIONS.length, noteSkew)];
+				} else if (state == StateValue.INACTIVE) {
+					note = TERMINATIONS[pick(random, TERMINATIONS.length, noteSkew)];
+				}
+				int name = random.nextInt(FIRST_NAMES.length * SURNAMES.length);
+				String firstName = FIRST_NAMES[name % FIRST_NAMES.length];
+				String surname = SURNAMES[name / FIRST_NAMES.length];
+				String unityId = (firstName.charAt(0) + surname).toLowerCase() + id;
+
+				Corruption corruption = null;
+				if (corrupt(random)) {
+					// BAD_POSITION only applies to position lines
+					corruption = kinds[1 + random.nextInt(kinds.length - 1)];
+					if (corruption == Corruption.DUPLICATE_ID && validId == 0) {
+						corruption = Corruption.BAD_ID;
+					}
+					summary.corruptLines++;
+				}
+				String idField = Integer.toString(id);
+				String stateField = state.getStateName();
+				if (corruption == Corruption.BAD_ID) {
+					idField = "x" + id;
+				} else if (corruption == Corruption.DUPLICATE_ID) {
+					idField = Integer.toString(validId);
+				} else if (corruption == Corruption.BAD_STATE) {
+					stateField = "Pending";
+				} else if (corruption == Corruption.BAD_REVIEWER) {
+					reviewer = reviewer.length() == 0 ? "reviewer0" : "";
+				} else if (corruption == Corruption.BAD_NOTE) {
+					note = state == StateValue.REJECTED ? TERMINATIONS[0] : REJECTIONS[0];
+				}
+
+				// * id,state,firstName,surname,unityId,reviewerId,note
+				if (corruption == Corruption.MISSING_FIELDS) {
+					writer.write("* " + idField + "," + stateField + "," + firstName + "\n");
+				} else {
+					writer.write("* " + idField + "," + stateField + "," + firstName + "," + surname + "," + unityId + ","
+							+ reviewer + "," + note + "\n");
+				}
+				if (corruption == Corruption.STRAY_TEXT) {
+					writer.write("see attached " + unityId + "\n");
+				}
+				if (corruption == null) {
+					validApplications++;
+					validId = id;
+				}
+			}
+
+			// a position without any valid applications is not loaded
+			if (validPosition && validApplications > 0) {
+				summary.validPositions++;
+				summary.validApplications += validApplications;
+			}
+		}
+		return summary;
+	}
+
+	/**
+	 * Decides whether the next line is corrupted
+	 * @param random source of the generated output
+	 * @return true if the line is corrupted
+	 */
+	private boolean corrupt(Random random) {
+		return corruptionRate > 0 && random.nextDouble() < corruptionRate;
+	}
+
+	/**
+	 * Picks a state from the mix of states
+	 * @param random source of the generated output
+	 * @param totalWeight sum of the weights of every state
+	 * @return state picked
+	 */
+	private StateValue pickState(Random random, int totalWeight) {
+		int r = random.nextInt(totalWeight);
+		int i = 0;
+		while (r >= stateWeights[i]) {
+			r -= stateWeights[i++];
+		}
+		return StateValue.values()[i];
+	}
+
+	/**
+	 * Picks one of a number of choices, favoring the first ones more as the skew grows
+	 * @param random source of the generated output
+	 * @param choices number of choices
+	 * @param skew 0 to pick evenly, higher to favor the first choices
+	 * @return index of the choice picked
+	 */
+	private static int pick(Random random, int choices, double skew) {
+		// raising a uniform value to a power above 1 crowds it towards 0
+		return Math.min(choices - 1, (int) (choices * Math.pow(random.nextDouble(), 1 + skew)));
+	}
+
+	/**
+	 * Generates a file from the command line:
+	 *
+	 * <pre>
+	 * java edu.ncsu.csc216.wolf_hire.bench.PositionFileGenerator file [-seed 1] [-positions 1] [-applications 100] [-corruption 0]
+	 * </pre>
+	 *
+	 * @param args file name followed by options
+	 */
+	public static void main(String[] args) {
+		if (args.length == 0) {
+			throw new IllegalArgumentException("Missing file name.");
+		}
+		long seed = 1;
+		int positions = 1;
+		int applications = 100;
+		double corruption = 0;
+		for (int i = 1; i + 1 < args.length; i += 2) {
+			switch (args[i]) {
+				case "-seed":
+					seed = Long.parseLong(args[i + 1]);
+					break;
+				case "-positions":
+					positions = Integer.parseInt(args[i + 1]);
+					break;
+				case "-applications":
+					applications = Integer.parseInt(args[i + 1]);
+					break;
+				case "-corruption":
+					corruption = Double.parseDouble(args[i + 1]);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+
+		PositionFileGenerator generator = new PositionFileGenerator(seed);
+		generator.setPositions(positions);
+		generator.setApplications(applications);
+		generator.setCorruptionRate(corruption);
+		System.out.println(generator.generate(args[0]));
+	}
+
+	/**
+	 * Counts of what a generator wrote, and of what a reader should load from it.
+	 *
+	 * @author hmreese2
+	 *
+	 */
+	public static class Summary {
+
+		/** Number of positions written */
+		private int positions;
+		/** Number of positions that are valid and have at least one valid application */
+		private int validPositions;
+		/** Number of applications written */
+		private long applications;
+		/** Number of valid applications in valid positions */
+		private long validApplications;
+		/** Number of corrupted position and application lines */
+		private long corruptLines;
+
+		/**
+		 * Gets the number of positions written
+		 * @return number of positions
+		 */
+		public int getPositions() {
+			return positions;
+		}
+
+		/**
+		 * Gets the number of positions a reader should load
+		 * @return number of valid positions
+		 */
+		public int getValidPositions() {
+			return validPositions;
+		}
+
+		/**
+		 * Gets the number of applications written
+		 * @return number of applications
+		 */
+		public long getApplications() {
+			return applications;
+		}
+
+		/**
+		 * Gets the number of applications a reader should load
+		 * @return number of valid applications in valid positions
+		 */
+		public long getValidApplications() {
+			return validApplications;
+		}
+
+		/**
+		 * Gets the number of corrupted lines
+		 * @return number of corrupted position and application lines
+		 */
+		public long getCorruptLines() {
+			return corruptLines;
+		}
+
+		/**
+		 * Describes the counts
+		 * @return counts of positions and applications
+		 */
+		@Override
+		public String toString() {
+			return positions + " positions (" + validPositions + " valid), " + applications + " applications (" + validApplications
+					+ " valid), " + corruptLines + " corrupt lines";
+		}
+	}
+}
@@ -3,6 +3,8 @@
  */
 package edu.ncsu.csc216.wolf_hire.model.application;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import edu.ncsu.csc216.wolf_hire.model.command.Command;
 import edu.ncsu.csc216.wolf_hire.model.command.Command.CommandValue;
 
@@ -17,11 +19,86 @@ import edu.ncsu.csc216.wolf_hire.model.command.Command.CommandValue;
  * Application class encapsulates the ApplicationState interface and seven concrete *State classes that represent each of the
  * seven possible state transitions in WolfHire's FSM.
  * 
+ * The *State classes hold no data of their own, so a single shared instance of each is used by every Application: an
+ * Application only references its current state, and a transition just points it at another shared state.
+ * Code that checks the state of an Application compares its StateValue; the name of the state is only needed for display and files.
+ * 
  * @author hmreese2
  *
  */
 public class Application {
 
+	/**
+	 * Enumeration of the states an Application can be in, in FSM order. Lets state checks compare values instead of names,
+	 * with the name of a state only needed for display and files.
+	 * @author hmreese2
+	 *
+	 */
+	public enum StateValue {
+		/** Submitted state */
+		SUBMITTED(SUBMITTED_NAME),
+		/** Rejected state */
+		REJECTED(REJECTED_NAME),
+		/** Reviewing state */
+		REVIEWING(REVIEWING_NAME),
+		/** Interviewing state */
+		INTERVIEWING(INTERVIEWING_NAME),
+		/** Processing state */
+		PROCESSING(PROCESSING_NAME),
+		/** Hired state */
+		HIRED(HIRED_NAME),
+		/** Inactive state */
+		INACTIVE(INACTIVE_NAME);
+
+		/** Name of the state */
+		private final String stateName;
+
+		/**
+		 * Constructs a StateValue with the name of the state
+		 * @param stateName name of the state
+		 */
+		StateValue(String stateName) {
+			this.stateName = stateName;
+		}
+
+		/**
+		 * Gets the name of the state
+		 * @return name of the state
+		 */
+		public String getStateName() {
+			return stateName;
+		}
+
+		/**
+		 * Gets the StateValue with the given name
+		 * @param stateName name of a state
+		 * @return StateValue with the name, or null if there is no state with the name
+		 */
+		public static StateValue fromStateName(String stateName) {
+			if (stateName == null) {
+				return null;
+			}
+			switch (stateName) {
+				case SUBMITTED_NAME:
+					return SUBMITTED;
+				case REJECTED_NAME:
+					return REJECTED;
+				case REVIEWING_NAME:
+					return REVIEWING;
+				case INTERVIEWING_NAME:
+					return INTERVIEWING;
+				case PROCESSING_NAME:
+					return PROCESSING;
+				case HIRED_NAME:
+					return HIRED;
+				case INACTIVE_NAME:
+					return INACTIVE;
+				default:
+					return null;
+			}
+		}
+	}
+
 	/** Represents unique id of application. Works closely with counter methods to maintain value, is set to counter value unless passed in id value is greater than counter. */
 	private int applicationId;
 	/** Represents first name of applicant */
@@ -34,8 +111,13 @@ public class Application {
 	private String reviewer;
 	/** Represents additional note included with application review - Contains rejection or termination reason for application (if applicable) */
 	private String note;
-	/** Counter that is incremented through incrementCounter() and set through setCounter() if id is greater than current counter value; used to set and maintain number for applicationId */
-	private static int counter = 1;
+	/** 
+	 * Counter that is incremented through incrementCounter() and set through setCounter() if id is greater than current counter value; used to set and maintain number for applicationId.
+	 * Atomic so that Applications can be constructed on several threads at once.
+	 * Positions number their own applications with an IdAllocator and construct them through forPosition(), which does not
+	 * touch the counter, so it only numbers Applications constructed on their own.
+	 */
+	private static final AtomicInteger counter = new AtomicInteger(1);
 	/** Represents name of Submitted state */
 	public static final String SUBMITTED_NAME = "Submitted";
 	/** Represents name of Rejected state */
@@ -66,48 +148,56 @@ public class Application {
 	public static final String FIRED_TERMINATION = "Fired";
 	/** Represents the current instance of the application's state */
 	private ApplicationState currentState;
-	/** Instance of SubmittedState of FSM */
-	private final ApplicationState submittedState = new SubmittedState();
-	/** Instance of RejectedState of FSM */
-	private final ApplicationState rejectedState = new RejectedState();
-	/** Instance of ReviewingState of FSM */
-	private final ApplicationState reviewingState = new ReviewingState();
-	/** Instance of InterviewingState of FSM */
-	private final ApplicationState interviewingState = new InterviewingState();
-	/** Instance of ProcessingState of FSM */
-	private final ApplicationState processingState = new ProcessingState();
-	/** Instance of HiredState of FSM */
-	private final ApplicationState hiredState = new HiredState();
-	/** Instance of InactiveState of FSM */
-	private final ApplicationState inactiveState = new InactiveState();
+	/** Shared instance of SubmittedState of FSM */
+	private static final ApplicationState SUBMITTED_STATE = new SubmittedState();
+	/** Shared instance of RejectedState of FSM */
+	private static final ApplicationState REJECTED_STATE = new RejectedState();
+	/** Shared instance of ReviewingState of FSM */
+	private static final ApplicationState REVIEWING_STATE = new ReviewingState();
+	/** Shared instance of InterviewingState of FSM */
+	private static final ApplicationState INTERVIEWING_STATE = new InterviewingState();
+	/** Shared instance of ProcessingState of FSM */
+	private static final ApplicationState PROCESSING_STATE = new ProcessingState();
+	/** Shared instance of HiredState of FSM */
+	private static final ApplicationState HIRED_STATE = new HiredState();
+	/** Shared instance of InactiveState of FSM */
+	private static final ApplicationState INACTIVE_STATE = new InactiveState();
 	
 	
 	/**
 	 * Interface for states in the Application State Pattern.  All 
 	 * concrete Application states must implement the ApplicationState interface.
 	 * The ApplicationState interface should be a private interface of the 
-	 * Application class.
+	 * Application class. States are shared by all Applications, so the Application
+	 * being updated is passed in.
 	 * 
 	 * @author Dr. Sarah Heckman (sarah_heckman@ncsu.edu) 
 	 */
 	private interface ApplicationState {
 		
 		/**
-		 * Update the Application from the given Command.
+		 * Update the given Application from the given Command.
 		 * An UnsupportedOperationException is thrown if the Command
 		 * is not a valid action for the given state.  
+		 * @param application Application being updated
 		 * @param command Command describing the action that will update the Application's
 		 * state.
 		 * @throws UnsupportedOperationException if the Command is not a valid action
 		 * for the given state.
 		 */
-		void updateState(Command command);
+		void updateState(Application application, Command command);
 		
 		/**
 		 * Returns the name of the current state as a String.
 		 * @return the name of the current state as a String.
 		 */
 		String getStateName();
+		
+		/**
+		 * Returns the value of the current state.
+		 * @return the value of the current state.
+		 */
+		StateValue getStateValue();
 
 	}
 	
@@ -120,29 +210,30 @@ public class Application {
 	 * @author hmreese2
 	 *
 	 */
-	private class SubmittedState implements ApplicationState {
+	private static class SubmittedState implements ApplicationState {
 
 		/**
 		 * Implements State transition.
 		 * Updates application state to next state from given command.
 		 * SubmittedState has no reviewer, no note
+		 * @param application Application being updated
 		 * @param command Command describing the action that will update the Application's
 		 * state.
 		 * @throws UnsupportedOperationException with message "Invalid command." if transition is invalid (command is not a valid action for given state)
 		 */
 		@Override
-		public void updateState(Command command) {
+		public void updateState(Application application, Command command) {
 			
 			if (command.getCommand() == CommandValue.REJECT) {
 				// transition to REJECTED state
-				currentState = new RejectedState();
+				application.currentState = REJECTED_STATE;
 				// set rejectionReason
-				setNote(command.getCommandInformation());
+				application.setNote(command.getCommandInformation());
 			} else if (command.getCommand() == CommandValue.ASSIGN) {
 				// set reviewer
-				setReviewer(command.getCommandInformation());
+				application.setReviewer(command.getCommandInformation());
 				// transition to REVIEWING state
-				currentState = new ReviewingState();
+				application.currentState = REVIEWING_STATE;
 			} else {
 				throw new UnsupportedOperationException("Invalid command.");
 			}
@@ -157,6 +248,15 @@ public class Application {
 		public String getStateName() {
 			return SUBMITTED_NAME;
 		}
+
+		/**
+		 * Gets state value of SubmittedState
+		 * @return value of state
+		 */
+		@Override
+		public StateValue getStateValue() {
+			return StateValue.SUBMITTED;
+		}
 		
 	}
 	
@@ -169,26 +269,27 @@ public class Application {
 	 * @author hmreese2
 	 *
 	 */
-	private class RejectedState implements ApplicationState {
+	private static class RejectedState implements ApplicationState {
 
 		/**
 		 * Implements State transition.
 		 * Updates application state to next state from given command.
 		 * RejectedState has no reviewer, has note for rejection reason
+		 * @param application Application being updated
 		 * @param command Command describing the action that will update the Application's
 		 * state.
 		 * @throws UnsupportedOperationException with message "Invalid command." if command is an invalid action for given state (attempt to execute invalid transition)
 		 */
 		@Override
-		public void updateState(Command command) {
+		public void updateState(Application application, Command command) {
 			// set reviewer back to null
-			setReviewer(null);
+			application.setReviewer(null);
 			
 			if (command.getCommand() == CommandValue.RESUBMIT) {
 				// transition to SUBMITTED state
-				currentState = new SubmittedState();
+				application.currentState = SUBMITTED_STATE;
 				// update note to null
-				setNote(null);
+				application.setNote(null);
 			} else {
 				throw new UnsupportedOperationException("Invalid command.");
 			}
@@ -202,6 +303,15 @@ public class Application {
 		public String getStateName() {
 			return REJECTED_NAME;
 		}
+
+		/**
+		 * Gets state value of RejectedState
+		 * @return value of state
+		 */
+		@Override
+		public StateValue getStateValue() {
+			return StateValue.REJECTED;
+		}
 		
 	}
 	
@@ -214,33 +324,34 @@ public class Application {
 	 * @author hmreese2
 	 *
 	 */
-	private class ReviewingState implements ApplicationState {
+	private static class ReviewingState implements ApplicationState {
 
 		/**
 		 * Implements State transition.
 		 * Updates application state to next state using given command.
 		 * ReviewingState has reviewer, no note
+		 * @param application Application being updated
 		 * @param command Command describing the action that will update the Application's
 		 * state.
 		 * @throws UnsupportedOperationException with message "Invalid command." if command is an invalid action for given state (attempt to execute invalid transition)
 		 */
 		@Override
-		public void updateState(Command command) {
+		public void updateState(Application application, Command command) {
 			if (command.getCommand() == CommandValue.RETURN) {
 				// transition back to SUBMITTED state
-				currentState = new SubmittedState();
+				application.currentState = SUBMITTED_STATE;
 				// set reviewer back to null
-				setReviewer(null);
+				application.setReviewer(null);
 			} else if (command.getCommand() == CommandValue.REJECT) {
 				// transition to REJECTED state
-				currentState = new RejectedState();
+				application.currentState = REJECTED_STATE;
 				// set rejection reason
-				setNote(command.getCommandInformation());
+				application.setNote(command.getCommandInformation());
 				// update reviewer to null
-				setReviewer(null);
+				application.setReviewer(null);
 			} else if (command.getCommand() == CommandValue.SCHEDULE) {
 				// transition to INTERVIEWING state
-				currentState = new InterviewingState();
+				application.currentState = INTERVIEWING_STATE;
 			} else {
 				throw new UnsupportedOperationException("Invalid command.");
 			}
@@ -254,6 +365,15 @@ public class Application {
 		public String getStateName() {
 			return REVIEWING_NAME;
 		}
+
+		/**
+		 * Gets state value of ReviewingState
+		 * @return value of state
+		 */
+		@Override
+		public StateValue getStateValue() {
+			return StateValue.REVIEWING;
+		}
 		
 	}
 	
@@ -266,36 +386,37 @@ public class Application {
 	 * @author hmreese2
 	 *
 	 */
-	private class InterviewingState implements ApplicationState {
+	private static class InterviewingState implements ApplicationState {
 
 		/**
 		 * Implements State transition.
 		 * Updates application state to next state using given command.
 		 * InterviewingState has reviewer, has no note
+		 * @param application Application being updated
 		 * @param command Command describing the action that will update the Application's
 		 * state.
 		 * @throws UnsupportedOperationException with message "Invalid command." if command is an invalid action for given state (attempt to execute invalid transition)
 		 */
 		@Override
-		public void updateState(Command command) {
+		public void updateState(Application application, Command command) {
 			if (command.getCommand() == CommandValue.REJECT) {
 				// transition to REJECTED state
-				currentState = new RejectedState();
+				application.currentState = REJECTED_STATE;
 				// update note to rejection reason
-				setNote(command.getCommandInformation());
+				application.setNote(command.getCommandInformation());
 				// update reviewer to null 
-				setReviewer(null);
+				application.setReviewer(null);
 			} else if (command.getCommand() == CommandValue.ASSIGN) {
 				// transition back to REVIEWING state
-				currentState = new ReviewingState();
+				application.currentState = REVIEWING_STATE;
 				// update reviewer
-				setReviewer(command.getCommandInformation());
+				application.setReviewer(command.getCommandInformation());
 			} else if (command.getCommand() == CommandValue.SCHEDULE) {
 				// transition to INTERVIEWING state (self-loop)
-				currentState = new InterviewingState();
+				application.currentState = INTERVIEWING_STATE;
 			} else if (command.getCommand() == CommandValue.PROCESS) {
 				// transition to PROCESSING state
-				currentState = new ProcessingState();
+				application.currentState = PROCESSING_STATE;
 			} else {
 				throw new UnsupportedOperationException("Invalid command.");
 			}
@@ -309,6 +430,15 @@ public class Application {
 		public String getStateName() {
 			return INTERVIEWING_NAME;
 		}
+
+		/**
+		 * Gets state value of InterviewingState
+		 * @return value of state
+		 */
+		@Override
+		public StateValue getStateValue() {
+			return StateValue.INTERVIEWING;
+		}
 		
 	}
 	
@@ -321,28 +451,29 @@ public class Application {
 	 * @author hmreese2
 	 *
 	 */
-	private class ProcessingState implements ApplicationState {
+	private static class ProcessingState implements ApplicationState {
 
 		/**
 		 * Implements State transition.
 		 * Updates application state to next state using given command.
 		 * ProcessingState retains reviewer, no note
+		 * @param application Application being updated
 		 * @param command Command describing the action that will update the Application's
 		 * state.
 		 * @throws UnsupportedOperationException with message "Invalid command." if command is an invalid action for given state (attempt to execute invalid transition)
 		 */
 		@Override
-		public void updateState(Command command) {
+		public void updateState(Application application, Command command) {
 			if (command.getCommand() == CommandValue.REJECT) {
 				// transition to REJECTED state
-				currentState = new RejectedState();
+				application.currentState = REJECTED_STATE;
 				// update note to rejection reason
-				setNote(command.getCommandInformation());
+				application.setNote(command.getCommandInformation());
 				// update reviewer to null
-				setReviewer(null);
+				application.setReviewer(null);
 			} else if (command.getCommand() == CommandValue.HIRE) {
 				// transition to HIRED state
-				currentState = new HiredState();
+				application.currentState = HIRED_STATE;
 			} else {
 				throw new UnsupportedOperationException("Invalid command.");
 			}
@@ -357,6 +488,15 @@ public class Application {
 		public String getStateName() {
 			return PROCESSING_NAME;
 		}
+
+		/**
+		 * Gets state value of ProcessingState
+		 * @return value of state
+		 */
+		@Override
+		public StateValue getStateValue() {
+			return StateValue.PROCESSING;
+		}
 		
 	}
 	
@@ -369,23 +509,24 @@ public class Application {
 	 * @author hmreese2
 	 *
 	 */
-	private class HiredState implements ApplicationState {
+	private static class HiredState implements ApplicationState {
 
 		/**
 		 * Implements State transition.
 		 * Updates application state to next state using given command.
 		 * HiredState retains reviewer, no note
+		 * @param application Application being updated
 		 * @param command Command describing the action that will update the Application's
 		 * state.
 		 * @throws UnsupportedOperationException with message "Invalid command." if command is an invalid action for given state (attempt to execute invalid transition)
 		 */
 		@Override
-		public void updateState(Command command) {
+		public void updateState(Application application, Command command) {
 			if (command.getCommand() == CommandValue.TERMINATE) {
 				// transition to INACTIVE state
-				currentState = new InactiveState();
+				application.currentState = INACTIVE_STATE;
 				// update note to termination reason
-				setNote(command.getCommandInformation());
+				application.setNote(command.getCommandInformation());
 			} else {
 				throw new UnsupportedOperationException("Invalid command.");
 			}
@@ -400,6 +541,15 @@ public class Application {
 		public String getStateName() {
 			return HIRED_NAME;
 		}
+
+		/**
+		 * Gets state value of HiredState
+		 * @return value of state
+		 */
+		@Override
+		public StateValue getStateValue() {
+			return StateValue.HIRED;
+		}
 		
 	}
 	
@@ -412,18 +562,19 @@ public class Application {
 	 * @author hmreese2
 	 *
 	 */
-	private class InactiveState implements ApplicationState {
+	private static class InactiveState implements ApplicationState {
 
 		/**
 		 * Implements State transition.
 		 * Updates application state to next state from given command.
 		 * InactiveState retains reviewer, note for termination reason
+		 * @param application Application being updated
 		 * @param command Command describing the action that will update the Application's
 		 * state.
 		 * @throws UnsupportedOperationException with message "Invalid command." if command is an invalid action for given state (attempt to execute invalid transition)
 		 */
 		@Override
-		public void updateState(Command command) {
+		public void updateState(Application application, Command command) {
 			// there are no valid transitions beyond INACTIVE state, so throw exception
 			throw new UnsupportedOperationException("Invalid command.");
 		}
@@ -436,6 +587,15 @@ public class Application {
 		public String getStateName() {
 			return INACTIVE_NAME;
 		}
+
+		/**
+		 * Gets state value of InactiveState
+		 * @return value of state
+		 */
+		@Override
+		public StateValue getStateValue() {
+			return StateValue.INACTIVE;
+		}
 		
 	}
 	
@@ -449,7 +609,7 @@ public class Application {
 	 * @throws IllegalArgumentException with message "Application cannot be created." if any parameters are invalid (i.e. if any are null or empty strings)
 	 */
 	public Application(String firstName, String surname, String unityId) {
-		this(counter, SUBMITTED_NAME, firstName, surname, unityId, null, null);
+		this(counter.get(), SUBMITTED_NAME, firstName, surname, unityId, null, null);
 	}
 	
 	/**
@@ -467,6 +627,22 @@ public class Application {
 	 * @throws IllegalArgumentException with message "Application cannot be created." if any parameters are invalid
 	 */
 	public Application(int id, String state, String firstName, String surname, String unityId, String reviewer, String note) {		
+		this(id, state, firstName, surname, unityId, reviewer, note, true);
+	}
+	
+	/**
+	 * Constructs an application with all of its fields, optionally raising the counter past its id
+	 * @param id if of application
+	 * @param state state of application
+	 * @param firstName first name of applicant
+	 * @param surname surname of applicant
+	 * @param unityId unity id of applicant
+	 * @param reviewer reviewer for application
+	 * @param note note for application
+	 * @param countId true if the counter is raised past id, false if the id was handed out by a Position
+	 * @throws IllegalArgumentException with message "Application cannot be created." if any parameters are invalid
+	 */
+	private Application(int id, String state, String firstName, String surname, String unityId, String reviewer, String note, boolean countId) {
 		// set basic fields (firstName, surname, unityId)
 		setFirstName(firstName);
 		setSurname(surname);
@@ -478,16 +654,105 @@ public class Application {
 		setNote(note);
 		// set id last -> ensures there are no errors before updating counter
 		setId(id);
+		if (countId) {
+			counter.accumulateAndGet(id + 1, Math::max);
+		}
+	}
+	
+	/**
+	 * Constructs an application of a Position, whose id was handed out by the Position's IdAllocator or read from a position
+	 * file. The fields are checked as by the full constructor, but the shared counter is not touched, so constructing the
+	 * applications of many positions (i.e. reading them in parallel) does not contend on it.
+	 * @param id id of application
+	 * @param state state of application
+	 * @param firstName first name of applicant
+	 * @param surname surname of applicant
+	 * @param unityId unity id of applicant
+	 * @param reviewer reviewer for application
+	 * @param note note for application
+	 * @return new application
+	 * @throws IllegalArgumentException with message "Application cannot be created." if any parameters are invalid
+	 */
+	public static Application forPosition(int id, String state, String firstName, String surname, String unityId, String reviewer, String note) {
+		return new Application(id, state, firstName, surname, unityId, reviewer, note, false);
+	}
+	
+	/**
+	 * Constructs a copy of an application with the same id, state, and fields.
+	 * Unlike the other constructors, the counter is not updated since the id already belongs to an application.
+	 * Used to try out commands on an application without changing it.
+	 * @param application application being copied
+	 */
+	public Application(Application application) {
+		this.applicationId = application.applicationId;
+		this.firstName = application.firstName;
+		this.surname = application.surname;
+		this.unityId = application.unityId;
+		this.reviewer = application.reviewer;
+		this.note = application.note;
+		this.currentState = application.currentState;
+	}
+	
+	/**
+	 * Checks the fields of an application by the same rules as the full constructor, without constructing it.
+	 * Used by readers to skip invalid records cheaply, since nothing is thrown.
+	 * @param id id of application
+	 * @param state state of application
+	 * @param firstName first name of applicant
+	 * @param surname surname of applicant
+	 * @param unityId unity id of applicant
+	 * @param reviewer reviewer for application
+	 * @param note note for application
+	 * @return null if an application can be created with the fields, otherwise the reason it cannot
+	 */
+	public static String validate(int id, String state, String firstName, String surname, String unityId, String reviewer, String note) {
+		if (firstName == null || firstName.length() == 0 || surname == null || surname.length() == 0
+				|| unityId == null || unityId.length() == 0) {
+			return "Missing name or unity id.";
+		}
+		if ("".equals(reviewer)) {
+			return "Empty reviewer.";
+		}
 		
+		StateValue stateValue = StateValue.fromStateName(state);
+		if (stateValue == null) {
+			return "Unknown state.";
+		}
+		// submitted and rejected applications are the only ones without a reviewer
+		boolean needsReviewer = stateValue != StateValue.SUBMITTED && stateValue != StateValue.REJECTED;
+		if (needsReviewer != (reviewer != null)) {
+			return needsReviewer ? "Missing reviewer." : "Reviewer not allowed in state.";
+		}
+		
+		if (note == null) {
+			if (stateValue == StateValue.REJECTED || stateValue == StateValue.INACTIVE) {
+				return "Missing note.";
+			}
+		} else if (stateValue == StateValue.REJECTED) {
+			if (!note.equals(QUALIFICATIONS_REJECTION) && !note.equals(INCOMPLETE_REJECTION) && !note.equals(POSITIONS_REJECTION)
+					&& !note.equals(DUPLICATE_REJECTION)) {
+				return "Invalid rejection reason.";
+			}
+		} else if (stateValue == StateValue.INACTIVE) {
+			if (!note.equals(COMPLETED_TERMINATION) && !note.equals(RESIGNED_TERMINATION) && !note.equals(FIRED_TERMINATION)) {
+				return "Invalid termination reason.";
+			}
+		} else {
+			return "Note not allowed in state.";
+		}
+		
+		if (id <= 0) {
+			return "Invalid id.";
+		}
+		return null;
 	}
 	
 	/**
-	 * Error checks and sets the id of an application. Updates counter as necessary:
-	 * If id is greater than current counter, counter is set to id + 1 using setCounter().
-	 * If id is equal to current counter, counter is incremented by 1 using incrementCounter().
-	 * If id is less than current counter, counter does not change.
+	 * Error checks and sets the id of an application. The constructors update the counter afterwards, unless the id was
+	 * handed out by a Position: the counter ends up as the larger of its current value and id + 1, which is updated atomically
+	 * so that the result does not depend on the order Applications are constructed in.
 	 * @param id application id
-	 * @throws IllegalArgumentException with message "Application cannot be created." if id is negative or less than counter.
+	 * @throws IllegalArgumentException with message "Application cannot be created." if id is not positive.
 	 */
 	private void setId(int id) {
 		
@@ -496,11 +761,6 @@ public class Application {
 		} 
 		
 		this.applicationId = id;
-		if (id > counter) { 	
-			setCounter(id);
-		} else if (id == counter) {
-			incrementCounter();
-		}
 	
 	}
 	
@@ -524,14 +784,14 @@ public class Application {
 					throw new IllegalArgumentException("Application cannot be created.");
 				}
 				
-				this.currentState = submittedState;
+				this.currentState = SUBMITTED_STATE;
 				break;
 			
 			case REJECTED_NAME:
 				if (reviewer != null) {
 					throw new IllegalArgumentException("Application cannot be created.");
 				}
-				this.currentState = rejectedState;
+				this.currentState = REJECTED_STATE;
 				break;
 			
 			case REVIEWING_NAME:
@@ -539,7 +799,7 @@ public class Application {
 					throw new IllegalArgumentException("Application cannot be created.");
 				}
 				
-				this.currentState = reviewingState;
+				this.currentState = REVIEWING_STATE;
 				break;
 				
 			case INTERVIEWING_NAME:
@@ -547,7 +807,7 @@ public class Application {
 					throw new IllegalArgumentException("Application cannot be created.");
 				}
 				
-				this.currentState = interviewingState;
+				this.currentState = INTERVIEWING_STATE;
 				break;
 			
 			case PROCESSING_NAME:
@@ -555,7 +815,7 @@ public class Application {
 					throw new IllegalArgumentException("Application cannot be created.");
 				}
 				
-				this.currentState = processingState;
+				this.currentState = PROCESSING_STATE;
 				break;
 				
 			case HIRED_NAME:
@@ -563,7 +823,7 @@ public class Application {
 					throw new IllegalArgumentException("Application cannot be created.");
 				}
 				
-				this.currentState = hiredState;
+				this.currentState = HIRED_STATE;
 				break;
 			
 			case INACTIVE_NAME:
@@ -571,7 +831,7 @@ public class Application {
 					throw new IllegalArgumentException("Application cannot be created.");
 				}
 				
-				this.currentState = inactiveState;
+				this.currentState = INACTIVE_STATE;
 				break;
 			
 			default:
@@ -595,6 +855,14 @@ public class Application {
 		return currentState.getStateName();
 	}
 	
+	/**
+	 * Gets state of application as a StateValue, which is cheaper to compare than the name of the state
+	 * @return value of currentState of application
+	 */
+	public StateValue getStateValue() {
+		return currentState.getStateValue();
+	}
+	
 	/**
 	 * Gets first name of application's applicant
 	 * @return applicant's first name
@@ -706,7 +974,7 @@ public class Application {
 	private void setNote(String note) {
 		if (note == null) {
 			// check that null note is valid for current state
-			if (currentState.getStateName().equals(REJECTED_NAME) || currentState.getStateName().equals(INACTIVE_NAME)) {
+			if (currentState.getStateValue() == StateValue.REJECTED || currentState.getStateValue() == StateValue.INACTIVE) {
 				throw new IllegalArgumentException("Application cannot be created.");
 			}
 			this.note = note;
@@ -715,9 +983,9 @@ public class Application {
 			throw new IllegalArgumentException("Application cannot be created.");
 		} else {
 			// check that appropriate message is set for current state
-			switch(currentState.getStateName()) {
+			switch(currentState.getStateValue()) {
 			
-			case REJECTED_NAME:
+			case REJECTED:
 				if (note.equals(Application.QUALIFICATIONS_REJECTION) || note.equals(Application.INCOMPLETE_REJECTION)
 						|| note.equals(Application.POSITIONS_REJECTION) || note.equals(Application.DUPLICATE_REJECTION)) {
 					this.note = note;
@@ -727,7 +995,7 @@ public class Application {
 				
 				break;
 				
-			case INACTIVE_NAME:
+			case INACTIVE:
 				if (note.equals(Application.COMPLETED_TERMINATION) || note.equals(Application.RESIGNED_TERMINATION)
 						|| note.equals(Application.FIRED_TERMINATION)) {
 					this.note = note;
@@ -748,7 +1016,7 @@ public class Application {
 	 * Used for updating list placement.
 	 */
 	public static void incrementCounter() {
-		counter++;
+		counter.incrementAndGet();
 	}
 	
 	/**
@@ -759,9 +1027,9 @@ public class Application {
 	public static void setCounter(int newCount) {
 		
 		if (newCount == 1) {
-			counter = newCount;
+			counter.set(newCount);
 		} else {
-			counter = newCount + 1;
+			counter.set(newCount + 1);
 		}
 	
 	}
@@ -781,11 +1049,42 @@ public class Application {
 	 * @throws UnsupportedOperationException with message "Invalid command." if transition is invalid with given command
 	 */
 	public void update(Command c) {	
+		update(c, true);
+	}
+	
+	/**
+	 * Command issued to application to update its state placement in the FSM, optionally without recording the transition for
+	 * Flight Recorder. Commands tried out on a copy of an application (i.e. by an all-or-nothing batch) are not recorded, since
+	 * the transition is recorded again when the command is executed on the application itself.
+	 * @param c command given to application
+	 * @param recordTransition whether a successful transition is recorded
+	 * @throws UnsupportedOperationException with message "Invalid command." if transition is invalid with given command
+	 */
+	public void update(Command c, boolean recordTransition) {
+		if (!recordTransition) {
+			transition(c);
+			return;
+		}
+		
+		// record the transition for Flight Recorder, only commands that succeed are recorded
+		StateTransitionEvent event = new StateTransitionEvent();
+		String fromState = getState();
+		event.begin();
+		transition(c);
+		event.finish(this, c.getCommand().name(), fromState);
+	}
+	
+	/**
+	 * Moves the application through the FSM by a command
+	 * @param c command given to application
+	 * @throws UnsupportedOperationException with message "Invalid command." if transition is invalid with given command
+	 */
+	private void transition(Command c) {
 		switch (c.getCommand()) {
 		case REJECT:
 			if (c.getCommandInformation().equals(DUPLICATE_REJECTION) || c.getCommandInformation().equals(QUALIFICATIONS_REJECTION) 
 					|| c.getCommandInformation().equals(INCOMPLETE_REJECTION) || c.getCommandInformation().equals(POSITIONS_REJECTION)) {
-				currentState.updateState(c);
+				currentState.updateState(this, c);
 			} else {
 				throw new UnsupportedOperationException("Invalid command!!");
 			}
@@ -793,16 +1092,13 @@ public class Application {
 		case TERMINATE:
 			if (c.getCommandInformation().equals(FIRED_TERMINATION) || c.getCommandInformation().equals(RESIGNED_TERMINATION) 
 					|| c.getCommandInformation().equals(COMPLETED_TERMINATION)) {
-				currentState.updateState(c);
+				currentState.updateState(this, c);
 			} else {
 				throw new UnsupportedOperationException("Invalid command!!");
 			}
 			break;
 		default:
-			currentState.updateState(c);
+			currentState.updateState(this, c);
 		}
-		
-		
-
 	}
 }
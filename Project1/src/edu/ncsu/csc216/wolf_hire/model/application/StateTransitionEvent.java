@@ -0,0 +1,62 @@
+package edu.ncsu.csc216.wolf_hire.model.application;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for a command that moved an Application through its FSM with Application.update().
+ * Commands that are tried out on copies of applications (i.e. by the trial run of an all-or-nothing batch) are not
+ * recorded, since they are executed with Application.update(Command, false).
+ *
+ * Transitions are frequent, so the event leaves out stack traces, and its fields are only filled in when it is recorded.
+ *
+ * @author hmreese2
+ *
+ */
+@Name(StateTransitionEvent.NAME)
+@Label("Application State Transition")
+@Category({"WolfHire", "Application"})
+@Description("Command executed on an application by Application.update")
+@StackTrace(false)
+class StateTransitionEvent extends Event {
+
+	/** Name of the event in recordings */
+	static final String NAME = "edu.ncsu.csc216.wolf_hire.StateTransition";
+
+	/** Id of the application */
+	@Label("Application Id")
+	int applicationId;
+
+	/** Command executed */
+	@Label("Command")
+	String command;
+
+	/** State the application was in */
+	@Label("From State")
+	String fromState;
+
+	/** State the application is in after the command */
+	@Label("To State")
+	String toState;
+
+	/**
+	 * Ends the event and records it if a recording wants it
+	 * @param application application the command was executed on
+	 * @param command command executed
+	 * @param fromState state the application was in
+	 */
+	void finish(Application application, String command, String fromState) {
+		end();
+		if (shouldCommit()) {
+			this.applicationId = application.getId();
+			this.command = command;
+			this.fromState = fromState;
+			this.toState = application.getState();
+			commit();
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package edu.ncsu.csc216.wolf_hire.model.io;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import edu.ncsu.csc216.wolf_hire.model.io.PositionWriter.Durability;
+
+/**
+ * Temporary file next to a target file that atomically replaces the target once it has been written, used by every atomic
+ * save so that a crash part way through never leaves a half-written file behind.
+ *
+ * The length and CRC32 of the bytes written are tracked as they are written, so a caller that needs the fingerprint of the
+ * new file (i.e. CommandJournal) does not have to read it back.
+ *
+ * Closing the file before it has replaced the target removes the temporary file and leaves the target untouched.
+ *
+ * @author hmreese2
+ *
+ */
+class AtomicFile implements Closeable {
+
+	/** Size of the byte buffer in front of the temporary file */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/** Path of the file being replaced */
+	private final Path target;
+	/** Path of the temporary file, or null once it has replaced the target or been removed */
+	private Path temp;
+	/** Channel the temporary file is written through */
+	private final FileChannel channel;
+	/** Checksum of the bytes written so far */
+	private final CRC32 crc = new CRC32();
+	/** Stream the contents of the file are written to */
+	private final OutputStream stream;
+
+	/**
+	 * Creates a temporary file in the same directory as the target
+	 * @param fileName name of the file being replaced
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	AtomicFile(String fileName) throws IOException {
+		target = Paths.get(fileName).toAbsolutePath();
+		temp = target.resolveSibling("." + target.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+		channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		stream = new CheckedOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), crc);
+	}
+
+	/**
+	 * Gets the stream the contents of the file are written to. The stream must not be closed, finish() does that.
+	 * @return stream of the temporary file
+	 */
+	OutputStream getOutputStream() {
+		return stream;
+	}
+
+	/**
+	 * Finishes writing the temporary file, forcing it to disk unless durability is NONE
+	 * @param durability how durable the file is once it replaces the target
+	 * @return length and CRC32 of the bytes written
+	 * @throws IOException if the file cannot be written
+	 */
+	long[] finish(Durability durability) throws IOException {
+		stream.flush();
+		if (durability != Durability.NONE) {
+			channel.force(true);
+		}
+		long length = channel.position();
+		channel.close();
+		return new long[] { length, crc.getValue() };
+	}
+
+	/**
+	 * Renames the finished temporary file over the target, syncing the directory if durability is FSYNC_DIRECTORY
+	 * @param durability how durable the rename is once this method returns
+	 * @throws IOException if the target cannot be replaced
+	 */
+	void replace(Durability durability) throws IOException {
+		try {
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		temp = null;
+
+		if (durability == Durability.FSYNC_DIRECTORY) {
+			syncDirectory(target.getParent());
+		}
+	}
+
+	/**
+	 * Finishes the temporary file and renames it over the target
+	 * @param durability how durable the new file is once this method returns
+	 * @return length and CRC32 of the bytes written
+	 * @throws IOException if the file cannot be written or the target cannot be replaced
+	 */
+	long[] commit(Durability durability) throws IOException {
+		long[] fingerprint = finish(durability);
+		replace(durability);
+		return fingerprint;
+	}
+
+	/**
+	 * Removes the temporary file if it has not replaced the target
+	 */
+	@Override
+	public void close() {
+		if (temp == null) {
+			return;
+		}
+		try {
+			channel.close();
+			Files.deleteIfExists(temp);
+		} catch (IOException e) {
+			// nothing else can be done with the temporary file
+		}
+		temp = null;
+	}
+
+	/**
+	 * Forces the entries of a directory to disk, so a file renamed into it survives a crash.
+	 * Some platforms (e.g. Windows) cannot open a directory for syncing; there the rename is already durable once it returns.
+	 * @param directory directory being synced
+	 */
+	private static void syncDirectory(Path directory) {
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (IOException e) {
+			// directory cannot be synced on this platform
+		}
+	}
+}
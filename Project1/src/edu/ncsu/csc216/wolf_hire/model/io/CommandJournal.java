@@ -0,0 +1,660 @@
+package edu.ncsu.csc216.wolf_hire.model.io;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import edu.ncsu.csc216.wolf_hire.model.application.Application;
+import edu.ncsu.csc216.wolf_hire.model.command.Command;
+import edu.ncsu.csc216.wolf_hire.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_hire.model.io.PositionWriter.Durability;
+import edu.ncsu.csc216.wolf_hire.model.manager.Position;
+
+/**
+ * Append-only journal of the changes made to positions since they were last saved to a snapshot file by PositionSnapshotWriter.
+ *
+ * Every executed Command is appended as one small record (position name, application id, CommandValue, and command information),
+ * as are new positions, new applications, and deleted applications, so persisting a change costs one append instead of rewriting
+ * every position. On startup the journal is replayed on top of the positions read from the snapshot. Compacting the journal writes
+ * a new binary snapshot and starts an empty journal. The first snapshot can be a text position file, since PositionReader reads
+ * either format.
+ *
+ * Compaction comes in two steps, so that the caller only has to stop changes while the positions are read. beginCompaction()
+ * writes the positions to a temporary snapshot and marks the end of the journal. finishCompaction() forces the snapshot to disk,
+ * writes a journal for it holding the records appended after the mark, and renames both into place while appends carry on.
+ *
+ * The journal starts with a header holding the length and CRC32 of the snapshot it applies to. A journal whose snapshot has since
+ * been replaced (i.e. a crash after a compaction wrote the new snapshot, but before it reset the journal) no longer matches and is
+ * ignored. Each record carries its own length and CRC32, so a record cut short by a crash is dropped along with anything after it.
+ * The journal for a new snapshot is written next to the journal (as [journalFile].next) before the snapshot is renamed into place,
+ * so a crash between the two renames leaves a next journal that matches the snapshot, which is then used in place of the journal.
+ *
+ * Every method holds the journal's monitor while it works on the journal file, so records appended from several threads are
+ * never interleaved.
+ *
+ * @author hmreese2
+ *
+ */
+public class CommandJournal implements Closeable {
+
+	/** Magic number starting every journal file */
+	private static final int MAGIC = 0x57484a31;
+	/** Number of bytes in the journal header */
+	private static final int HEADER_SIZE = 20;
+	/** Record kind of an executed command */
+	private static final byte COMMAND = 1;
+	/** Record kind of an application added to a position */
+	private static final byte ADD_APPLICATION = 2;
+	/** Record kind of an application deleted from a position */
+	private static final byte DELETE_APPLICATION = 3;
+	/** Record kind of a new position */
+	private static final byte ADD_POSITION = 4;
+	/** Largest record that is read back, anything longer is treated as a damaged record */
+	private static final int MAX_RECORD_SIZE = 1 << 20;
+
+	/**
+	 * Compaction that has written the positions to a temporary snapshot, but has not yet replaced the snapshot file.
+	 * Started by beginCompaction() and ended by finishCompaction(); closing an unfinished compaction abandons it.
+	 *
+	 * @author hmreese2
+	 *
+	 */
+	public static class Compaction implements Closeable {
+
+		/** New snapshot, not yet forced to disk or renamed over the snapshot file */
+		private final AtomicFile snapshot;
+		/** Framed ADD_POSITION records of the positions the snapshot does not keep */
+		private final byte[] carriedRecords;
+		/** Number of records in carriedRecords */
+		private final int carriedCount;
+		/** Length of the journal when the positions were written, the records after it are not in the snapshot */
+		private final long mark;
+		/** Number of records in the journal when the positions were written */
+		private final int markSize;
+
+		/**
+		 * Constructs a compaction
+		 * @param snapshot new snapshot
+		 * @param carriedRecords framed ADD_POSITION records of the positions the snapshot does not keep
+		 * @param carriedCount number of records in carriedRecords
+		 * @param mark length of the journal when the positions were written
+		 * @param markSize number of records in the journal when the positions were written
+		 */
+		Compaction(AtomicFile snapshot, byte[] carriedRecords, int carriedCount, long mark, int markSize) {
+			this.snapshot = snapshot;
+			this.carriedRecords = carriedRecords;
+			this.carriedCount = carriedCount;
+			this.mark = mark;
+			this.markSize = markSize;
+		}
+
+		/**
+		 * Removes the temporary snapshot if the compaction did not finish, leaving the journal and its snapshot as they were
+		 */
+		@Override
+		public void close() {
+			snapshot.close();
+		}
+	}
+
+	/** Path of the journal file */
+	private final Path journalFile;
+	/** Path of the snapshot file the journal applies to */
+	private final Path snapshotFile;
+	/** How durable an append or compaction is once it returns */
+	private final Durability durability;
+	/** Channel records are appended through */
+	private FileChannel channel;
+	/** Number of records in the journal */
+	private int size;
+	/** Number of records carried over into the journal by the last compaction, which do not count towards its size */
+	private int carried;
+	/** Buffer a record is built in before it is appended */
+	private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+	/** Stream writing the fields of a record into recordBytes */
+	private final DataOutputStream record = new DataOutputStream(recordBytes);
+
+	/**
+	 * Opens the journal for the given snapshot. If the journal does not exist, or was written for a different snapshot, an empty
+	 * journal is started. A damaged record at the end of the journal (and anything after it) is removed.
+	 * @param journalFile name of the journal file
+	 * @param snapshotFile name of the snapshot file the journal applies to, which does not need to exist yet
+	 * @param durability how durable an append is once it returns; FSYNC and FSYNC_DIRECTORY force every record to disk
+	 * @throws IllegalArgumentException with message "Unable to load file [journalFile]" if the journal cannot be opened
+	 */
+	public CommandJournal(String journalFile, String snapshotFile, Durability durability) {
+		if (journalFile == null || snapshotFile == null || durability == null) {
+			throw new IllegalArgumentException("Unable to load file " + journalFile);
+		}
+		this.journalFile = Paths.get(journalFile).toAbsolutePath();
+		this.snapshotFile = Paths.get(snapshotFile).toAbsolutePath();
+		this.durability = durability;
+
+		try {
+			long[] fingerprint = fingerprint(this.snapshotFile);
+			Path next = nextFile();
+			if (Files.exists(next)) {
+				// a compaction renamed its snapshot into place but not its journal
+				if (scan(next, fingerprint) >= 0) {
+					move(next, this.journalFile);
+				} else {
+					Files.delete(next);
+				}
+			}
+
+			long validLength = -1;
+			if (Files.exists(this.journalFile)) {
+				validLength = scan(this.journalFile, fingerprint);
+			}
+
+			if (validLength < 0) {
+				// journal is missing or belongs to an older snapshot
+				reset(fingerprint);
+			} else {
+				channel = FileChannel.open(this.journalFile, StandardOpenOption.WRITE);
+				channel.truncate(validLength);
+				channel.position(validLength);
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to load file " + journalFile);
+		}
+	}
+
+	/**
+	 * Gets the number of records in the journal, not counting the ones the last compaction carried over
+	 * @return number of records appended since the last compaction
+	 */
+	public synchronized int size() {
+		return size - carried;
+	}
+
+	/**
+	 * Appends an executed command to the journal
+	 * @param positionName name of the position the application is in
+	 * @param id id of the application the command was executed on
+	 * @param command command that was executed
+	 * @throws IllegalArgumentException with message "Unable to save file." if the record cannot be appended
+	 */
+	public synchronized void appendCommand(String positionName, int id, Command command) {
+		try {
+			startRecord(COMMAND);
+			record.writeUTF(positionName);
+			record.writeInt(id);
+			record.writeByte(command.getCommand().ordinal());
+			record.writeBoolean(command.getCommandInformation() != null);
+			if (command.getCommandInformation() != null) {
+				record.writeUTF(command.getCommandInformation());
+			}
+			finishRecord();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Appends a new application to the journal
+	 * @param positionName name of the position the application was added to
+	 * @param application application that was added, in the Submitted state
+	 * @throws IllegalArgumentException with message "Unable to save file." if the record cannot be appended
+	 */
+	public synchronized void appendAddApplication(String positionName, Application application) {
+		try {
+			startRecord(ADD_APPLICATION);
+			record.writeUTF(positionName);
+			record.writeInt(application.getId());
+			record.writeUTF(application.getFirstName());
+			record.writeUTF(application.getSurname());
+			record.writeUTF(application.getUnityId());
+			finishRecord();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Appends a deleted application to the journal
+	 * @param positionName name of the position the application was deleted from
+	 * @param id id of the application that was deleted
+	 * @throws IllegalArgumentException with message "Unable to save file." if the record cannot be appended
+	 */
+	public synchronized void appendDeleteApplication(String positionName, int id) {
+		try {
+			startRecord(DELETE_APPLICATION);
+			record.writeUTF(positionName);
+			record.writeInt(id);
+			finishRecord();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Appends a new position to the journal
+	 * @param position position that was added
+	 * @throws IllegalArgumentException with message "Unable to save file." if the record cannot be appended
+	 */
+	public synchronized void appendAddPosition(Position position) {
+		try {
+			writeAddPosition(position);
+			finishRecord();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Replays the journal on top of the positions read from its snapshot. Records are applied in the order they were appended;
+	 * a record that can no longer be applied (e.g. its position does not exist) is skipped.
+	 * @param positions positions read from the snapshot, which new positions are added to
+	 * @return number of records that were applied
+	 * @throws IllegalArgumentException with message "Unable to load file [journalFile]" if the journal cannot be read
+	 */
+	public synchronized int replay(List<Position> positions) {
+		HashMap<String, Position> byName = new HashMap<String, Position>();
+		for (int i = positions.size() - 1; i >= 0; i--) {
+			byName.put(positions.get(i).getPositionName(), positions.get(i));
+		}
+
+		int applied = 0;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalFile)))) {
+			in.skipBytes(HEADER_SIZE);
+			for (int i = 0; i < size; i++) {
+				if (apply(readRecord(in), positions, byName)) {
+					applied++;
+				}
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to load file " + journalFile);
+		}
+
+		return applied;
+	}
+
+	/**
+	 * Folds the journal into a new snapshot, i.e. beginCompaction() followed by finishCompaction().
+	 * @param positions positions being saved, which must include every change in the journal
+	 * @throws IllegalArgumentException with message "Unable to save file." if the snapshot or journal cannot be written
+	 */
+	public void compact(List<Position> positions) {
+		try (Compaction compaction = beginCompaction(positions)) {
+			finishCompaction(compaction);
+		}
+	}
+
+	/**
+	 * Starts folding the journal into a new snapshot. The positions are written to a temporary binary snapshot by
+	 * PositionSnapshotWriter (which PositionReader loads faster than text), without forcing it to disk, and the end of the journal
+	 * is marked. The snapshot does not keep positions without any applications, so an ADD_POSITION record is built for each of them
+	 * to start the new journal, and they are not lost at the next restart. Only one compaction can be in progress at a time.
+	 * @param positions positions being saved, which must include every change in the journal and must not change until this returns
+	 * @return compaction to pass to finishCompaction()
+	 * @throws IllegalArgumentException with message "Unable to save file." if the snapshot cannot be written
+	 */
+	public synchronized Compaction beginCompaction(List<Position> positions) {
+		AtomicFile snapshot = PositionSnapshotWriter.writeUncommitted(snapshotFile.toString(), positions);
+		try {
+			ByteArrayOutputStream carriedRecords = new ByteArrayOutputStream();
+			List<Position> empty = emptyPositions(positions);
+			for (int i = 0; i < empty.size(); i++) {
+				writeAddPosition(empty.get(i));
+				carriedRecords.write(frameRecord());
+			}
+			return new Compaction(snapshot, carriedRecords.toByteArray(), empty.size(), channel.position(), size);
+		} catch (IOException e) {
+			snapshot.close();
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Finishes folding the journal into the snapshot written by beginCompaction(). The snapshot is forced to disk while records
+	 * can still be appended. Then a journal for the new snapshot, holding the carried ADD_POSITION records and every record
+	 * appended since beginCompaction(), is written next to the journal, and the snapshot and the new journal are renamed into place.
+	 * @param compaction compaction started by beginCompaction() on this journal
+	 * @throws IllegalArgumentException with message "Unable to save file." if the snapshot or journal cannot be written
+	 */
+	public void finishCompaction(Compaction compaction) {
+		try {
+			// the fingerprint is computed while the snapshot is written, so it is not read back
+			long[] fingerprint = compaction.snapshot.finish(durability);
+			synchronized (this) {
+				long end = channel.position();
+				Path next = nextFile();
+				try (FileChannel out = FileChannel.open(next, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+						FileChannel in = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+					writeFully(out, header(fingerprint));
+					writeFully(out, ByteBuffer.wrap(compaction.carriedRecords));
+					long copied = compaction.mark;
+					while (copied < end) {
+						copied += in.transferTo(copied, end - copied, out);
+					}
+					if (durability != Durability.NONE) {
+						out.force(true);
+					}
+				}
+
+				compaction.snapshot.replace(durability);
+				channel.close();
+				move(next, journalFile);
+				channel = FileChannel.open(journalFile, StandardOpenOption.WRITE);
+				channel.position(channel.size());
+				size = compaction.carriedCount + size - compaction.markSize;
+				carried = compaction.carriedCount;
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Closes the journal
+	 * @throws IOException if the journal cannot be closed
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Starts building a record of the given kind
+	 * @param kind kind of record
+	 * @throws IOException if the record cannot be built
+	 */
+	private void startRecord(byte kind) throws IOException {
+		recordBytes.reset();
+		record.writeByte(kind);
+	}
+
+	/**
+	 * Builds an ADD_POSITION record for a position
+	 * @param position position that was added
+	 * @throws IOException if the record cannot be built
+	 */
+	private void writeAddPosition(Position position) throws IOException {
+		startRecord(ADD_POSITION);
+		record.writeUTF(position.getPositionName());
+		record.writeInt(position.getHoursPerWeek());
+		record.writeInt(position.getPayRate());
+	}
+
+	/**
+	 * Appends the record that was built, framed by its length and CRC32, and forces it to disk if required
+	 * @throws IOException if the record cannot be appended
+	 */
+	private void finishRecord() throws IOException {
+		writeRecord(channel);
+		if (durability != Durability.NONE) {
+			channel.force(false);
+		}
+		size++;
+	}
+
+	/**
+	 * Writes the record that was built to a channel, framed by its length and CRC32
+	 * @param out channel the record is written to
+	 * @throws IOException if the record cannot be written
+	 */
+	private void writeRecord(FileChannel out) throws IOException {
+		writeFully(out, ByteBuffer.wrap(frameRecord()));
+	}
+
+	/**
+	 * Frames the record that was built by its length and CRC32
+	 * @return bytes of the framed record
+	 * @throws IOException if the record cannot be built
+	 */
+	private byte[] frameRecord() throws IOException {
+		record.flush();
+		byte[] bytes = recordBytes.toByteArray();
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length);
+
+		ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 8);
+		buffer.putInt(bytes.length);
+		buffer.put(bytes);
+		buffer.putInt((int) crc.getValue());
+		return buffer.array();
+	}
+
+	/**
+	 * Writes every remaining byte of a buffer to a channel
+	 * @param out channel the bytes are written to
+	 * @param buffer bytes being written
+	 * @throws IOException if the bytes cannot be written
+	 */
+	private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			out.write(buffer);
+		}
+	}
+
+	/**
+	 * Reads the next framed record from the journal
+	 * @param in stream positioned at the start of a record
+	 * @return bytes of the record, or null if the record is missing or damaged
+	 * @throws IOException if the journal cannot be read
+	 */
+	private static byte[] readRecord(DataInputStream in) throws IOException {
+		try {
+			int length = in.readInt();
+			if (length <= 0 || length > MAX_RECORD_SIZE) {
+				return null;
+			}
+			byte[] bytes = new byte[length];
+			in.readFully(bytes);
+			int expected = in.readInt();
+
+			CRC32 crc = new CRC32();
+			crc.update(bytes, 0, bytes.length);
+			return (int) crc.getValue() == expected ? bytes : null;
+		} catch (EOFException e) {
+			// record was cut short
+			return null;
+		}
+	}
+
+	/**
+	 * Applies a record to the positions
+	 * @param bytes bytes of the record
+	 * @param positions list new positions are added to
+	 * @param byName positions by name
+	 * @return true if the record was applied
+	 * @throws IOException if the record cannot be decoded
+	 */
+	private static boolean apply(byte[] bytes, List<Position> positions, HashMap<String, Position> byName) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		byte kind = in.readByte();
+
+		try {
+			if (kind == ADD_POSITION) {
+				String name = in.readUTF();
+				if (byName.containsKey(name)) {
+					return false;
+				}
+				Position position = new Position(name, in.readInt(), in.readInt());
+				positions.add(position);
+				byName.put(name, position);
+				return true;
+			}
+
+			Position position = byName.get(in.readUTF());
+			int id = in.readInt();
+			if (position == null) {
+				return false;
+			}
+
+			if (kind == COMMAND) {
+				CommandValue value = CommandValue.values()[in.readByte()];
+				String information = in.readBoolean() ? in.readUTF() : null;
+				if (position.getApplicationById(id) == null) {
+					return false;
+				}
+				position.executeCommand(id, new Command(value, information));
+			} else if (kind == ADD_APPLICATION) {
+				position.addApplication(Application.forPosition(id, Application.SUBMITTED_NAME, in.readUTF(), in.readUTF(), in.readUTF(), null, null));
+			} else if (kind == DELETE_APPLICATION) {
+				position.deleteApplicationById(id);
+			} else {
+				return false;
+			}
+			return true;
+		} catch (IllegalArgumentException | UnsupportedOperationException e) {
+			// record no longer applies to the positions
+			return false;
+		}
+	}
+
+	/**
+	 * Scans a journal, checking that it belongs to the snapshot and counting its undamaged records
+	 * @param file journal file being scanned
+	 * @param fingerprint length and CRC32 of the snapshot
+	 * @return length of the undamaged part of the journal, or -1 if the journal does not belong to the snapshot
+	 * @throws IOException if the journal cannot be read
+	 */
+	private long scan(Path file, long[] fingerprint) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readLong() != fingerprint[0] || in.readLong() != fingerprint[1]) {
+				return -1;
+			}
+
+			long length = HEADER_SIZE;
+			size = 0;
+			byte[] bytes;
+			while ((bytes = readRecord(in)) != null) {
+				length += bytes.length + 8;
+				size++;
+			}
+			return length;
+		} catch (EOFException e) {
+			// header was cut short
+			return -1;
+		}
+	}
+
+	/**
+	 * Gets the positions that a snapshot does not keep because they have no applications
+	 * @param positions positions being saved
+	 * @return positions without any applications, in list order
+	 */
+	private static List<Position> emptyPositions(List<Position> positions) {
+		ArrayList<Position> empty = new ArrayList<Position>();
+		for (int i = 0; i < positions.size(); i++) {
+			if (positions.get(i).getApplications().size() == 0) {
+				empty.add(positions.get(i));
+			}
+		}
+		return empty;
+	}
+
+	/**
+	 * Atomically replaces the journal with an empty journal for the snapshot with the given fingerprint, and opens it for appending
+	 * @param fingerprint length and CRC32 of the snapshot
+	 * @throws IOException if the journal cannot be written
+	 */
+	private void reset(long[] fingerprint) throws IOException {
+		reset(fingerprint, new ArrayList<Position>());
+	}
+
+	/**
+	 * Atomically replaces the journal with a journal for the snapshot with the given fingerprint that adds the given positions,
+	 * and opens it for appending
+	 * @param fingerprint length and CRC32 of the snapshot
+	 * @param added positions the snapshot does not keep, each written as an ADD_POSITION record
+	 * @throws IOException if the journal cannot be written
+	 */
+	private void reset(long[] fingerprint, List<Position> added) throws IOException {
+		Path temp = journalFile.resolveSibling(journalFile.getFileName() + ".tmp");
+		try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			writeFully(out, header(fingerprint));
+			for (int i = 0; i < added.size(); i++) {
+				writeAddPosition(added.get(i));
+				writeRecord(out);
+			}
+			if (durability != Durability.NONE) {
+				out.force(true);
+			}
+		}
+
+		move(temp, journalFile);
+
+		channel = FileChannel.open(journalFile, StandardOpenOption.WRITE);
+		channel.position(channel.size());
+		size = added.size();
+		carried = added.size();
+	}
+
+	/**
+	 * Builds the header of a journal
+	 * @param fingerprint length and CRC32 of the snapshot the journal applies to
+	 * @return buffer holding the header, ready to be written
+	 */
+	private static ByteBuffer header(long[] fingerprint) {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC).putLong(fingerprint[0]).putLong(fingerprint[1]).flip();
+		return header;
+	}
+
+	/**
+	 * Gets the path a compaction writes the journal for its snapshot to before renaming it over the journal
+	 * @return path of the next journal
+	 */
+	private Path nextFile() {
+		return journalFile.resolveSibling(journalFile.getFileName() + ".next");
+	}
+
+	/**
+	 * Atomically renames a file over another, if the platform can
+	 * @param source file being renamed
+	 * @param target file being replaced
+	 * @throws IOException if the file cannot be renamed
+	 */
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Computes the fingerprint of a snapshot file
+	 * @param file snapshot file
+	 * @return length and CRC32 of the file, both 0 if the file does not exist
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long[] fingerprint(Path file) throws IOException {
+		if (!Files.exists(file)) {
+			return new long[] { 0, 0 };
+		}
+
+		CRC32 crc = new CRC32();
+		long length = 0;
+		byte[] buffer = new byte[1 << 16];
+		try (InputStream in = Files.newInputStream(file)) {
+			int read;
+			while ((read = in.read(buffer)) > 0) {
+				crc.update(buffer, 0, read);
+				length += read;
+			}
+		}
+		return new long[] { length, crc.getValue() };
+	}
+}
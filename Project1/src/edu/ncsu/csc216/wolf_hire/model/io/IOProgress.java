@@ -0,0 +1,26 @@
+package edu.ncsu.csc216.wolf_hire.model.io;
+
+/**
+ * Receives the progress of reading or writing a position file, and can cancel it.
+ *
+ * PositionReader reports the number of bytes read out of the file's size, and PositionWriter the number of applications
+ * written out of the number being saved. Updates come from the thread doing the reading or writing. Returning false stops it
+ * with a java.util.concurrent.CancellationException; a cancelled save leaves the file untouched.
+ *
+ * @author hmreese2
+ *
+ */
+@FunctionalInterface
+public interface IOProgress {
+
+	/** Progress that is ignored and never cancels */
+	IOProgress NONE = (done, total) -> true;
+
+	/**
+	 * Reports progress
+	 * @param done amount done so far
+	 * @param total total amount, or 0 if it is not known
+	 * @return true to keep going, false to cancel
+	 */
+	boolean update(long done, long total);
+}
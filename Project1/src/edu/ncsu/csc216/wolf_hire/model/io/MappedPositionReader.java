@@ -0,0 +1,475 @@
+package edu.ncsu.csc216.wolf_hire.model.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+import edu.ncsu.csc216.wolf_hire.model.application.Application;
+import edu.ncsu.csc216.wolf_hire.model.manager.Position;
+
+/**
+ * Tokenizes a position file straight from memory-mapped bytes.
+ *
+ * The file is mapped in windows of at most WINDOW_SIZE bytes, so files larger than 2GB can be read. Lines are never turned into
+ * Strings: field boundaries are found in the mapped bytes, ids and position numbers are parsed from the bytes, and states and notes
+ * are matched against the Application constants. A String is only created for the fields an Application or Position keeps
+ * (position name, first name, surname, unity id, and reviewer).
+ *
+ * Follows the same rules as PositionReader: a line starting with # begins a position, a line starting with * is an application,
+ * stray text makes the application before it invalid, and invalid positions and applications are skipped.
+ *
+ * @author hmreese2
+ *
+ */
+class MappedPositionReader implements Closeable {
+
+	/** Largest number of bytes mapped at once */
+	private static final int WINDOW_SIZE = 1 << 26;
+	/** Largest number of fields looked at on a line, anything after the note is ignored */
+	private static final int MAX_FIELDS = 8;
+	/** Names of the application states, matched against the state field */
+	private static final String[] STATE_NAMES = { Application.SUBMITTED_NAME, Application.REJECTED_NAME, Application.REVIEWING_NAME,
+			Application.INTERVIEWING_NAME, Application.PROCESSING_NAME, Application.HIRED_NAME, Application.INACTIVE_NAME };
+	/** Rejection and termination reasons, matched against the note field */
+	private static final String[] NOTES = { Application.QUALIFICATIONS_REJECTION, Application.INCOMPLETE_REJECTION,
+			Application.POSITIONS_REJECTION, Application.DUPLICATE_REJECTION, Application.COMPLETED_TERMINATION,
+			Application.RESIGNED_TERMINATION, Application.FIRED_TERMINATION };
+	/** Bytes of STATE_NAMES */
+	private static final byte[][] STATE_BYTES = toBytes(STATE_NAMES);
+	/** Bytes of NOTES */
+	private static final byte[][] NOTE_BYTES = toBytes(NOTES);
+
+	/** Channel of the file being read */
+	private FileChannel channel;
+	/** Size of the file in bytes */
+	private long fileSize;
+	/** Currently mapped window of the file */
+	private MappedByteBuffer window;
+	/** File offset of the first byte of the window */
+	private long windowStart;
+	/** Number of bytes in the window */
+	private int windowLength;
+	/** Window-relative start of each field on the current line */
+	private final int[] fieldStart = new int[MAX_FIELDS];
+	/** Window-relative end (exclusive) of each field on the current line */
+	private final int[] fieldEnd = new int[MAX_FIELDS];
+	/** Scratch space fields are copied into before being decoded to a String */
+	private byte[] scratch = new byte[256];
+
+	/**
+	 * Opens the given file for mapped reading.
+	 * @param fileName name of file being read
+	 * @throws IOException if the file cannot be opened
+	 */
+	MappedPositionReader(String fileName) throws IOException {
+		this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+		this.fileSize = channel.size();
+	}
+
+	/**
+	 * Gets the size of the file being read
+	 * @return size of file in bytes
+	 */
+	long size() {
+		return fileSize;
+	}
+
+	/**
+	 * Checks whether the file starts with a position line, which is required for a file to have any positions.
+	 * @return true if the first byte of the file is #
+	 * @throws IOException if the file cannot be read
+	 */
+	boolean startsWithPosition() throws IOException {
+		if (fileSize == 0) {
+			return false;
+		}
+		map(0, WINDOW_SIZE);
+		return window.get(0) == '#';
+	}
+
+	/**
+	 * Finds the first position line that starts at or after the given offset.
+	 * @param from file offset to start searching at
+	 * @return file offset of the first # that begins a line at or after from, or the file size if there is none
+	 * @throws IOException if the file cannot be read
+	 */
+	long nextPositionStart(long from) throws IOException {
+		long pos = from;
+		// move to the start of the next line unless from already starts one
+		if (pos > 0 && pos < fileSize) {
+			map(pos - 1, WINDOW_SIZE);
+			if (window.get(0) != '\n' && window.get(0) != '\r') {
+				pos = lineEndOffset(pos) + 1;
+			}
+		}
+
+		while (pos < fileSize) {
+			long end = lineEndOffset(pos);
+			if (window.get((int) (pos - windowStart)) == '#') {
+				return pos;
+			}
+			pos = end + 1;
+		}
+
+		return fileSize;
+	}
+
+	/**
+	 * Reads every position whose # line starts at a file offset in [start, end), handing each valid Position (with at least
+	 * one application) to the handler in file order. The last position is read to its end even if that is past end.
+	 * @param start file offset of the first position line to read
+	 * @param end file offset that no read position line may start at or after
+	 * @param positionHandler receives each completed Position
+	 * @throws IOException if the file cannot be read
+	 */
+	void readPositions(long start, long end, Consumer<Position> positionHandler) throws IOException {
+		long pos = nextPositionStart(start);
+		Position position = null;
+		boolean inPosition = false;
+		// absolute offsets of an application line waiting to be added, pendingStart is -1 if there is none
+		long pendingStart = -1;
+		long pendingEnd = -1;
+
+		while (pos < fileSize) {
+			long lineEnd = lineEndOffset(pos);
+			byte first = window.get((int) (pos - windowStart));
+
+			if (first == '#') {
+				addPending(position, pendingStart, pendingEnd);
+				pendingStart = -1;
+				if (inPosition) {
+					handOff(position, positionHandler);
+				}
+				if (pos >= end) {
+					return;
+				}
+				inPosition = true;
+				ensureMapped(pos, lineEnd);
+				position = processPositionLine(pos, lineEnd);
+			} else if (first == '*') {
+				addPending(position, pendingStart, pendingEnd);
+				pendingStart = pos;
+				pendingEnd = lineEnd;
+			} else if (!isBlank(pos, lineEnd)) {
+				// stray text belongs to the application before it, which makes that application invalid
+				pendingStart = -1;
+			}
+
+			pos = lineEnd + 1;
+		}
+
+		addPending(position, pendingStart, pendingEnd);
+		if (inPosition) {
+			handOff(position, positionHandler);
+		}
+	}
+
+	/**
+	 * Closes the file being read. Mapped windows are released once they are no longer reachable.
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		window = null;
+		channel.close();
+	}
+
+	/**
+	 * Hands a completed Position off to the handler if it could be constructed and has at least one application.
+	 * @param position completed Position, or null if the position was invalid
+	 * @param positionHandler receives the Position if it is valid
+	 */
+	private static void handOff(Position position, Consumer<Position> positionHandler) {
+		if (position != null && position.getApplications().size() > 0) {
+			positionHandler.accept(position);
+		}
+	}
+
+	/**
+	 * Processes the pending application line and adds the resulting Application to the Position.
+	 * Nothing is added if there is no Position, no pending line, or if the Application cannot be constructed or added.
+	 * @param position Position the application belongs to
+	 * @param start file offset of the application line, or -1 if there is no pending line
+	 * @param end file offset of the end of the application line
+	 * @throws IOException if the file cannot be read
+	 */
+	private void addPending(Position position, long start, long end) throws IOException {
+		if (position == null || start < 0) {
+			return;
+		}
+
+		ensureMapped(start, end);
+		Application application = processApplicationLine((int) (start - windowStart) + 1, (int) (end - windowStart));
+		// skip application if it is a duplicate
+		if (application != null && position.getApplicationById(application.getId()) == null) {
+			position.addApplication(application);
+		}
+	}
+
+	/**
+	 * Processes a mapped position line and creates a Position object.
+	 * @param start file offset of the # starting the line
+	 * @param end file offset of the end of the line
+	 * @return Position constructed from the line, or null if the Position cannot be constructed
+	 */
+	private Position processPositionLine(long start, long end) {
+		int fields = splitFields((int) (start - windowStart) + 1, (int) (end - windowStart));
+
+		// position line must have exactly a name, hours per week, and pay rate
+		if (fields != 3) {
+			return null;
+		}
+
+		int hoursPerWeek = parseInt(1);
+		int payRate = parseInt(2);
+		if (hoursPerWeek == Integer.MIN_VALUE || payRate == Integer.MIN_VALUE) {
+			return null;
+		}
+
+		// skip position if there is an issue making it
+		String name = decode(0);
+		if (Position.validate(name, hoursPerWeek, payRate) != null) {
+			return null;
+		}
+		return new Position(name, hoursPerWeek, payRate);
+	}
+
+	/**
+	 * Processes the mapped bytes of an application line (after the *) and creates an Application object.
+	 * @param start window-relative start of the line after the *
+	 * @param end window-relative end of the line
+	 * @return Application constructed from the line, or null if the Application cannot be constructed
+	 */
+	private Application processApplicationLine(int start, int end) {
+		int fields = splitFields(start, end);
+
+		// id, state, first name, surname, and unity id are required
+		if (fields < 5) {
+			return null;
+		}
+
+		int id = parseInt(0);
+		String state = match(1, STATE_BYTES, STATE_NAMES);
+		if (id == Integer.MIN_VALUE || state == null) {
+			return null;
+		}
+
+		// a note must be one of the rejection or termination reasons
+		String note = null;
+		if (fields > 6) {
+			note = match(6, NOTE_BYTES, NOTES);
+			if (note == null) {
+				return null;
+			}
+		}
+
+		String reviewer = null;
+		if (fields > 5 && fieldEnd[5] > fieldStart[5]) {
+			reviewer = decode(5);
+		}
+
+		// skip application if there is an issue making it
+		String firstName = decode(2);
+		String surname = decode(3);
+		String unityId = decode(4);
+		if (Application.validate(id, state, firstName, surname, unityId, reviewer, note) != null) {
+			return null;
+		}
+		return Application.forPosition(id, state, firstName, surname, unityId, reviewer, note);
+	}
+
+	/**
+	 * Splits the trimmed window bytes in [start, end) into comma separated fields, recording their bounds in fieldStart and fieldEnd.
+	 * Matches the tokens of a Scanner using a comma delimiter: a leading comma and a single trailing comma do not produce a field.
+	 * At most MAX_FIELDS fields are recorded.
+	 * @param start window-relative start of the bytes to split
+	 * @param end window-relative end of the bytes to split
+	 * @return number of fields recorded
+	 */
+	private int splitFields(int start, int end) {
+		// trim whitespace the same way String.trim() does
+		while (start < end && (window.get(start) & 0xff) <= ' ') {
+			start++;
+		}
+		while (end > start && (window.get(end - 1) & 0xff) <= ' ') {
+			end--;
+		}
+
+		int count = 0;
+		int fieldFrom = start;
+		for (int i = start; i <= end && count < MAX_FIELDS; i++) {
+			if (i == end || window.get(i) == ',') {
+				if (!(i == fieldFrom && (fieldFrom == start || i == end))) {
+					fieldStart[count] = fieldFrom;
+					fieldEnd[count] = i;
+					count++;
+				}
+				fieldFrom = i + 1;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Parses a field as an int the way Integer.parseInt() does, without creating a String.
+	 * @param field index of the field
+	 * @return value of the field, or Integer.MIN_VALUE if the field is not a valid int
+	 */
+	private int parseInt(int field) {
+		int i = fieldStart[field];
+		int end = fieldEnd[field];
+		boolean negative = false;
+		if (i < end && (window.get(i) == '-' || window.get(i) == '+')) {
+			negative = window.get(i) == '-';
+			i++;
+		}
+		if (i == end) {
+			return Integer.MIN_VALUE;
+		}
+
+		long value = 0;
+		for (; i < end; i++) {
+			int digit = window.get(i) - '0';
+			if (digit < 0 || digit > 9) {
+				return Integer.MIN_VALUE;
+			}
+			value = value * 10 + digit;
+			if (value > Integer.MAX_VALUE) {
+				return Integer.MIN_VALUE;
+			}
+		}
+
+		return (int) (negative ? -value : value);
+	}
+
+	/**
+	 * Matches a field against a list of known values without creating a String.
+	 * @param field index of the field
+	 * @param candidates bytes of each known value
+	 * @param values known values
+	 * @return the known value equal to the field, or null if there is none
+	 */
+	private String match(int field, byte[][] candidates, String[] values) {
+		int length = fieldEnd[field] - fieldStart[field];
+		for (int c = 0; c < candidates.length; c++) {
+			byte[] candidate = candidates[c];
+			if (candidate.length != length) {
+				continue;
+			}
+			int i = 0;
+			while (i < length && window.get(fieldStart[field] + i) == candidate[i]) {
+				i++;
+			}
+			if (i == length) {
+				return values[c];
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Decodes a field into a String.
+	 * @param field index of the field
+	 * @return the field as a String
+	 */
+	private String decode(int field) {
+		int length = fieldEnd[field] - fieldStart[field];
+		if (scratch.length < length) {
+			scratch = new byte[Math.max(length, scratch.length * 2)];
+		}
+		for (int i = 0; i < length; i++) {
+			scratch[i] = window.get(fieldStart[field] + i);
+		}
+
+		return new String(scratch, 0, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Checks whether the bytes of a line are all whitespace.
+	 * @param start file offset of the line
+	 * @param end file offset of the end of the line, which must be mapped along with start
+	 * @return true if the line is blank
+	 */
+	private boolean isBlank(long start, long end) {
+		for (int i = (int) (start - windowStart); i < (int) (end - windowStart); i++) {
+			if ((window.get(i) & 0xff) > ' ') {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Finds the end of the line starting at the given offset and makes sure the whole line is mapped.
+	 * Like BufferedReader.readLine(), a line ends at either \n or \r (a \r\n pair just leaves an extra blank line).
+	 * @param pos file offset of the start of a line
+	 * @return file offset of the \n or \r ending the line, or the file size if the line is the last one
+	 * @throws IOException if the file cannot be read
+	 */
+	private long lineEndOffset(long pos) throws IOException {
+		if (pos < windowStart || pos >= windowStart + windowLength) {
+			map(pos, WINDOW_SIZE);
+		}
+
+		int i = (int) (pos - windowStart);
+		while (true) {
+			while (i < windowLength && window.get(i) != '\n' && window.get(i) != '\r') {
+				i++;
+			}
+			if (i < windowLength || windowStart + windowLength >= fileSize) {
+				break;
+			}
+			// line runs past the window, so map a window starting at the line instead
+			int scanned = i - (int) (pos - windowStart);
+			map(pos, Math.max(WINDOW_SIZE, scanned * 2));
+			i = scanned;
+		}
+
+		return windowStart + i;
+	}
+
+	/**
+	 * Makes sure the bytes in [start, end) are mapped.
+	 * @param start first file offset that must be mapped
+	 * @param end file offset after the last byte that must be mapped
+	 * @throws IOException if the file cannot be read
+	 */
+	private void ensureMapped(long start, long end) throws IOException {
+		if (start < windowStart || end > windowStart + windowLength) {
+			map(start, (int) Math.max(WINDOW_SIZE, end - start));
+		}
+	}
+
+	/**
+	 * Maps a window of the file.
+	 * @param start file offset of the start of the window
+	 * @param length requested length of the window, cut short at the end of the file
+	 * @throws IOException if the file cannot be mapped
+	 */
+	private void map(long start, int length) throws IOException {
+		this.windowStart = start;
+		this.windowLength = (int) Math.min(Math.min(length, Integer.MAX_VALUE - 8), fileSize - start);
+		this.window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+	}
+
+	/**
+	 * Converts known values to their UTF-8 bytes
+	 * @param values values to convert
+	 * @return bytes of each value
+	 */
+	private static byte[][] toBytes(String[] values) {
+		byte[][] bytes = new byte[values.length][];
+		for (int i = 0; i < values.length; i++) {
+			bytes[i] = values[i].getBytes(StandardCharsets.UTF_8);
+		}
+		return bytes;
+	}
+}
@@ -0,0 +1,96 @@
+package edu.ncsu.csc216.wolf_hire.model.io;
+
+/**
+ * Why a line of a position file was skipped by PositionReader, reported in a PositionReadResult.
+ *
+ * @author hmreese2
+ *
+ */
+public class ParseDiagnostic {
+
+	/** Kinds of problems found in a position file */
+	public enum Kind {
+		/** The file does not start with a position line, so nothing was read */
+		NOT_POSITION_FILE,
+		/** A position line does not have a valid name, hours per week, and pay rate */
+		INVALID_POSITION,
+		/** A position has no valid applications, so it was skipped */
+		EMPTY_POSITION,
+		/** An application line belongs to a position that was skipped */
+		NO_POSITION,
+		/** An application line has fewer than five fields */
+		MISSING_FIELDS,
+		/** An application id is not a number */
+		INVALID_ID,
+		/** An application's fields cannot make an Application */
+		INVALID_APPLICATION,
+		/** An application has the same id as an application before it in the position */
+		DUPLICATE_ID,
+		/** A line of text that is not a position or application, which makes the application before it invalid */
+		STRAY_TEXT
+	}
+
+	/** Number of the line in the file, starting at 1 */
+	private final long lineNumber;
+	/** Kind of problem */
+	private final Kind kind;
+	/** Description of the problem */
+	private final String message;
+	/** Text of the line */
+	private final String line;
+
+	/**
+	 * Constructs a diagnostic
+	 * @param lineNumber number of the line in the file, starting at 1
+	 * @param kind kind of problem
+	 * @param message description of the problem
+	 * @param line text of the line
+	 */
+	public ParseDiagnostic(long lineNumber, Kind kind, String message, String line) {
+		this.lineNumber = lineNumber;
+		this.kind = kind;
+		this.message = message;
+		this.line = line;
+	}
+
+	/**
+	 * Gets the number of the line
+	 * @return line number, starting at 1
+	 */
+	public long getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * Gets the kind of problem
+	 * @return kind of problem
+	 */
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * Gets the description of the problem
+	 * @return description of the problem
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * Gets the text of the line
+	 * @return text of the line
+	 */
+	public String getLine() {
+		return line;
+	}
+
+	/**
+	 * Describes the diagnostic for an operator
+	 * @return line number, kind, and description of the problem
+	 */
+	@Override
+	public String toString() {
+		return "Line " + lineNumber + ": " + kind + " - " + message;
+	}
+}
@@ -0,0 +1,178 @@
+package edu.ncsu.csc216.wolf_hire.model.io;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fingerprints of the position blocks of a text position file, made by PositionReader.readChangedPositions() so that the
+ * next read of the same file only parses the blocks that changed.
+ *
+ * A block is a position line starting with # and every line after it up to the next position line. Each block is
+ * fingerprinted by its offset in the file, its length, and a SHA-256 digest of its bytes. A block is unchanged if the
+ * previous index has a block with the same length and digest, wherever that block was in the file, so inserting or deleting
+ * a block does not make the blocks after it look changed.
+ *
+ * A matching block is not parsed, so a fingerprint collision would silently drop an edit. The digest is therefore a
+ * cryptographic one rather than a checksum: two different blocks of the same length do not share a 256-bit digest in
+ * practice, where a 32-bit checksum collides once a file has tens of thousands of blocks.
+ *
+ * @author hmreese2
+ *
+ */
+public class PositionBlockIndex {
+
+	/**
+	 * Fingerprint of one position block
+	 *
+	 * @author hmreese2
+	 *
+	 */
+	public static class Block {
+
+		/** Offset of the # starting the block */
+		private final long offset;
+		/** Number of bytes in the block, including the line break ending it */
+		private final int length;
+		/** SHA-256 digest of the bytes of the block */
+		private final byte[] digest;
+		/** Name of the valid position read from the block, or null if the block had no valid position */
+		private final String positionName;
+		/** Whether the block was parsed, false if it matched a block of the previous index */
+		private final boolean changed;
+
+		/**
+		 * Constructs a block
+		 * @param offset offset of the # starting the block
+		 * @param length number of bytes in the block
+		 * @param digest SHA-256 digest of the bytes of the block
+		 * @param positionName name of the valid position read from the block, or null if there is none
+		 * @param changed whether the block was parsed
+		 */
+		Block(long offset, int length, byte[] digest, String positionName, boolean changed) {
+			this.offset = offset;
+			this.length = length;
+			this.digest = digest;
+			this.positionName = positionName;
+			this.changed = changed;
+		}
+
+		/**
+		 * Gets the offset of the block
+		 * @return offset of the # starting the block
+		 */
+		public long getOffset() {
+			return offset;
+		}
+
+		/**
+		 * Gets the length of the block
+		 * @return number of bytes in the block
+		 */
+		public int getLength() {
+			return length;
+		}
+
+		/**
+		 * Gets the digest of the block
+		 * @return copy of the SHA-256 digest of the bytes of the block
+		 */
+		public byte[] getDigest() {
+			return digest.clone();
+		}
+
+		/**
+		 * Gets the name of the position read from the block
+		 * @return name of the valid position, or null if the block had no valid position
+		 */
+		public String getPositionName() {
+			return positionName;
+		}
+
+		/**
+		 * Checks whether the block was parsed
+		 * @return true if the block did not match a block of the previous index
+		 */
+		public boolean isChanged() {
+			return changed;
+		}
+	}
+
+	/** Blocks in file order */
+	private final ArrayList<Block> blocks = new ArrayList<Block>();
+	/** Blocks by digest */
+	private final HashMap<ByteBuffer, Block> byDigest = new HashMap<ByteBuffer, Block>();
+	/** Names of the valid positions in the file, in file order */
+	private final LinkedHashSet<String> positionNames = new LinkedHashSet<String>();
+	/** Number of blocks that were parsed */
+	private int changedCount;
+
+	/**
+	 * Constructs an empty index, filled in by PositionReader
+	 */
+	PositionBlockIndex() {
+		// blocks are added as the file is read
+	}
+
+	/**
+	 * Gets the blocks of the file
+	 * @return read-only list of blocks, in file order
+	 */
+	public List<Block> getBlocks() {
+		return Collections.unmodifiableList(blocks);
+	}
+
+	/**
+	 * Gets the names of the valid positions in the file, whether or not their blocks changed
+	 * @return read-only set of names, in file order
+	 */
+	public Set<String> getPositionNames() {
+		return Collections.unmodifiableSet(positionNames);
+	}
+
+	/**
+	 * Gets the number of blocks that were parsed
+	 * @return number of blocks that did not match a block of the previous index
+	 */
+	public int getChangedCount() {
+		return changedCount;
+	}
+
+	/**
+	 * Finds a block of this index with the given fingerprint
+	 * @param length number of bytes in the block
+	 * @param digest SHA-256 digest of the bytes of the block
+	 * @return block with the same length and digest, or null if there is none
+	 */
+	Block find(int length, byte[] digest) {
+		Block block = byDigest.get(ByteBuffer.wrap(digest));
+		return block != null && block.length == length ? block : null;
+	}
+
+	/**
+	 * Adds a block to the end of the index
+	 * @param block block being added
+	 */
+	void add(Block block) {
+		blocks.add(block);
+		byDigest.putIfAbsent(ByteBuffer.wrap(block.digest), block);
+		addPositionName(block.positionName);
+		if (block.changed) {
+			changedCount++;
+		}
+	}
+
+	/**
+	 * Adds the name of a valid position in the file, i.e. one read from a snapshot, which has no blocks
+	 * @param positionName name of the position, or null if the position was not valid
+	 */
+	void addPositionName(String positionName) {
+		if (positionName != null) {
+			positionNames.add(positionName);
+		}
+	}
+}
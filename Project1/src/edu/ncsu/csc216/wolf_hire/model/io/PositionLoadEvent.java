@@ -0,0 +1,75 @@
+package edu.ncsu.csc216.wolf_hire.model.io;
+
+import java.io.File;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event for a position file read by PositionReader.readPositionFile(), from opening the file to handing
+ * off its last position, so that a recording shows which load a GC pause or I/O stall happened during.
+ *
+ * The event's fields are only filled in when it is recorded, so a load costs nothing more when no recording is running.
+ *
+ * @author hmreese2
+ *
+ */
+@Name(PositionLoadEvent.NAME)
+@Label("Position File Load")
+@Category({"WolfHire", "I/O"})
+@Description("Position file read by PositionReader")
+class PositionLoadEvent extends Event {
+
+	/** Name of the event in recordings */
+	static final String NAME = "edu.ncsu.csc216.wolf_hire.PositionLoad";
+
+	/** Name of the file read */
+	@Label("File Name")
+	String fileName;
+
+	/** Size of the file */
+	@Label("Bytes")
+	@DataAmount(DataAmount.BYTES)
+	long bytes;
+
+	/** Whether the file is a binary snapshot rather than text */
+	@Label("Snapshot")
+	boolean snapshot;
+
+	/** Number of positions handed off */
+	@Label("Positions")
+	int positions;
+
+	/** Number of applications in the positions handed off */
+	@Label("Applications")
+	long applications;
+
+	/** Number of positions skipped because they were invalid or had no valid applications */
+	@Label("Skipped Positions")
+	int skippedPositions;
+
+	/** Number of application lines skipped because they were invalid or belonged to a skipped position */
+	@Label("Skipped Applications")
+	long skippedApplications;
+
+	/** Whether the whole file was read, false if reading it failed or was cancelled */
+	@Label("Completed")
+	boolean completed;
+
+	/**
+	 * Ends the event and records it if a recording wants it
+	 * @param fileName name of the file read
+	 */
+	void finish(String fileName) {
+		end();
+		if (shouldCommit()) {
+			this.fileName = fileName;
+			this.bytes = new File(fileName).length();
+			commit();
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package edu.ncsu.csc216.wolf_hire.model.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_hire.model.io.ParseDiagnostic.Kind;
+import edu.ncsu.csc216.wolf_hire.model.manager.Position;
+
+/**
+ * Positions read by PositionReader.readPositionFileWithDiagnostics(), along with why every skipped line was skipped.
+ *
+ * Every problem is counted by kind, but only the first MAX_DIAGNOSTICS are kept as ParseDiagnostics, so reading a file with
+ * millions of bad lines does not keep millions of diagnostics.
+ *
+ * @author hmreese2
+ *
+ */
+public class PositionReadResult {
+
+	/** Largest number of diagnostics kept */
+	public static final int MAX_DIAGNOSTICS = 1000;
+
+	/** Positions read, in file order */
+	private final ArrayList<Position> positions = new ArrayList<Position>();
+	/** First MAX_DIAGNOSTICS diagnostics, in file order */
+	private final ArrayList<ParseDiagnostic> diagnostics = new ArrayList<ParseDiagnostic>();
+	/** Number of problems of each kind indexed by Kind ordinal */
+	private final long[] counts = new long[Kind.values().length];
+
+	/**
+	 * Gets the positions read
+	 * @return positions, in file order
+	 */
+	public ArrayList<Position> getPositions() {
+		return positions;
+	}
+
+	/**
+	 * Gets the diagnostics kept
+	 * @return first MAX_DIAGNOSTICS diagnostics, in file order
+	 */
+	public List<ParseDiagnostic> getDiagnostics() {
+		return Collections.unmodifiableList(diagnostics);
+	}
+
+	/**
+	 * Gets the number of problems of a kind, including the ones whose diagnostics were not kept
+	 * @param kind kind of problem
+	 * @return number of problems
+	 */
+	public long getCount(Kind kind) {
+		return counts[kind.ordinal()];
+	}
+
+	/**
+	 * Gets the number of problems of every kind
+	 * @return number of problems
+	 */
+	public long getTotalCount() {
+		long total = 0;
+		for (long count : counts) {
+			total += count;
+		}
+		return total;
+	}
+
+	/**
+	 * Checks whether there were more problems than diagnostics kept
+	 * @return true if diagnostics were dropped
+	 */
+	public boolean isTruncated() {
+		return getTotalCount() > diagnostics.size();
+	}
+
+	/**
+	 * Reports a problem, keeping its diagnostic if fewer than MAX_DIAGNOSTICS are kept
+	 * @param lineNumber number of the line, starting at 1
+	 * @param kind kind of problem
+	 * @param message description of the problem
+	 * @param line text of the line
+	 */
+	void report(long lineNumber, Kind kind, String message, String line) {
+		counts[kind.ordinal()]++;
+		if (diagnostics.size() < MAX_DIAGNOSTICS) {
+			diagnostics.add(new ParseDiagnostic(lineNumber, kind, message, line));
+		}
+	}
+}
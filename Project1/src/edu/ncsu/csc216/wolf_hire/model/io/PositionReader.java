@@ -1,9 +1,29 @@
 package edu.ncsu.csc216.wolf_hire.model.io;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
 import java.io.FileInputStream;
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
 import edu.ncsu.csc216.wolf_hire.model.application.Application;
 import edu.ncsu.csc216.wolf_hire.model.manager.Position;
@@ -16,11 +36,25 @@ import edu.ncsu.csc216.wolf_hire.model.manager.Position;
  * Works closely with manager.WolfHire loadPositionsFromFile() method to load pre-existing lists of positions and their corresponding lists of applications.
  * Invalid positions or applications are skipped. Positions must have at least one application to be considered valid.
  * 
+ * The file is read exactly once, line by line, through a buffered reader. A line starting with # begins a new position and
+ * a line starting with * is an application of the current position. Each Position is handed off as soon as its block is complete,
+ * so callers that do not need the whole list can process positions while the rest of the file is still being read.
+ * 
+ * Binary snapshot files written by PositionSnapshotWriter are detected by their magic number and read with PositionSnapshotReader,
+ * so every method here loads either format.
+ * 
+ * readChangedPositions() fingerprints each position block, so that reading a file again only parses the blocks that changed.
+ * 
  * @author hmreese2
  *
  */
 public class PositionReader {
 
+	/** Size of the character buffer used when reading position files */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/** Smallest number of bytes of a file that is split off to be read by its own task when reading in parallel */
+	private static final long MIN_SPLIT_SIZE = 1 << 22;
+
 	/**
 	 * Unused constructor for PositionReader; remains empty, used by default.
 	 */
@@ -37,154 +71,784 @@ public class PositionReader {
 	 * @throws IllegalArgumentException with message "Unable to load file [fileName]." if file cannot be loaded because it doesn't exist.
 	 */
 	public static ArrayList<Position> readPositionFile(String fileName) {
-		
 		ArrayList<Position> positions = new ArrayList<Position>();
-		// create String object to read the whole file into the String object, line by line
-		String fileContents = "";		
+		readPositionFile(fileName, positions::add);
+		return positions;
+	}
+	
+	/**
+	 * Streams the file containing Position information, handing each valid Position (with its Applications) to the given
+	 * handler as soon as the position's block has been read. Positions are handed off in file order.
+	 * Any invalid applications or positions are skipped, and positions without any valid applications are never handed off.
+	 * If the file does not start with a position line, no positions are handed off.
+	 * @param fileName name of file being read and processed
+	 * @param positionHandler receives each completed Position in the order it appears in the file
+	 * @throws IllegalArgumentException with message "Unable to load file [fileName]." if file cannot be loaded
+	 */
+	public static void readPositionFile(String fileName, Consumer<Position> positionHandler) {
+		readPositionFile(fileName, positionHandler, IOProgress.NONE);
+	}
+	
+	/**
+	 * Streams the file containing Position information like readPositionFile(String, Consumer), reporting the number of
+	 * bytes read
+	 * @param fileName name of file being read and processed
+	 * @param positionHandler receives each completed Position in the order it appears in the file
+	 * @param progress receives the number of bytes read out of the size of the file, and can cancel the read
+	 * @throws IllegalArgumentException with message "Unable to load file [fileName]." if file cannot be loaded
+	 * @throws CancellationException if progress cancels the read
+	 */
+	public static void readPositionFile(String fileName, Consumer<Position> positionHandler, IOProgress progress) {
+		readPositionFile(fileName, positionHandler, progress, null);
+	}
+	
+	/**
+	 * Reads the file containing Position information like readPositionFile(String), also reporting why each skipped
+	 * position or application line was skipped. Only the first PositionReadResult.MAX_DIAGNOSTICS problems are kept as
+	 * diagnostics, but every problem is counted. Binary snapshots are never invalid, so they have no diagnostics.
+	 * @param fileName name of file being read and processed
+	 * @return positions read and the diagnostics of the lines skipped
+	 * @throws IllegalArgumentException with message "Unable to load file [fileName]." if file cannot be loaded
+	 */
+	public static PositionReadResult readPositionFileWithDiagnostics(String fileName) {
+		PositionReadResult result = new PositionReadResult();
+		readPositionFile(fileName, result.getPositions()::add, IOProgress.NONE, result);
+		return result;
+	}
+	
+	/**
+	 * Streams the file containing Position information, reporting progress and, if a result is given, diagnostics
+	 * @param fileName name of file being read and processed
+	 * @param positionHandler receives each completed Position in the order it appears in the file
+	 * @param progress receives the number of bytes read out of the size of the file, and can cancel the read
+	 * @param result receives diagnostics, or null if they are not collected
+	 * @throws IllegalArgumentException with message "Unable to load file [fileName]." if file cannot be loaded
+	 * @throws CancellationException if progress cancels the read
+	 */
+	private static void readPositionFile(String fileName, Consumer<Position> positionHandler, IOProgress progress,
+			PositionReadResult result) {
+		InputStream file;
 		try {
-			Scanner fileReader = new Scanner(new FileInputStream(fileName));
-			// read in file contents
-			// make sure to add in \n characters at the end of each line since those are used as delimiters 
-			while (fileReader.hasNextLine()) {
-				if (!fileReader.hasNextLine()) {
-					fileContents += fileReader.nextLine();
-					break;
-				}
-				
-				fileContents += fileReader.nextLine() + "\n";
+			file = new FileInputStream(fileName);
+		} catch (FileNotFoundException e) {
+			throw new IllegalArgumentException("Unable to load file " + fileName);
+		}
+		if (progress != IOProgress.NONE) {
+			file = new ProgressInputStream(file, new File(fileName).length(), progress);
+		}
+		
+		PositionLoadEvent event = new PositionLoadEvent();
+		event.begin();
+		try (BufferedInputStream in = new BufferedInputStream(file, BUFFER_SIZE)) {
+			// peek at the start of the file to tell a binary snapshot from a text file
+			byte[] header = new byte[4];
+			in.mark(header.length);
+			int length = in.readNBytes(header, 0, header.length);
+			in.reset();
+			if (PositionSnapshotReader.isSnapshot(header, length)) {
+				event.snapshot = true;
+				PositionSnapshotReader.readSnapshot(in, size -> { }, p -> {
+					event.positions++;
+					event.applications += p.getApplications().size();
+					positionHandler.accept(p);
+				});
+				event.completed = true;
+				return;
 			}
-									
-			fileReader.close();
 			
-			// check that the first character is #, if not the file is invalid and an empty list should be returned
-			if (fileContents.charAt(0) != '#') {
-				return positions;
+			BufferedReader fileReader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+			new LineParser(positionHandler, event, result).parse(fileReader);
+			event.completed = true;
+			
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to load file " + fileName);
+		} finally {
+			event.finish(fileName);
+		}
+	}
+	
+	/**
+	 * Reads the positions of the blocks of a text position file that changed since the file was last read this way, so that
+	 * positions can be re-synced with a large file that is edited a little at a time without parsing all of it.
+	 * 
+	 * The file is read once, fingerprinting each block (a position line and the lines after it up to the next position line)
+	 * as it goes. A block with the same length and SHA-256 digest as a block of the previous index is not parsed, and the
+	 * name of its position is taken from the previous index. Every other block is read again by its offset and parsed the
+	 * way readPositionFile() parses it, handing off its position if it is valid. A block never depends on the lines before
+	 * it, so parsing blocks on their own gives the same positions as parsing the whole file.
+	 * 
+	 * A binary snapshot has no blocks, so every position in it is handed off. If the file does not start with a position
+	 * line, it has no blocks and no positions are handed off.
+	 * @param fileName name of file being read and processed
+	 * @param previous index returned by the last read of the file, or null to parse every block
+	 * @param positionHandler receives the position of each changed block that is valid, in file order
+	 * @return fingerprints of the blocks of the file, to pass in as previous the next time the file is read
+	 * @throws IllegalArgumentException with message "Unable to load file [fileName]." if file cannot be loaded
+	 */
+	public static PositionBlockIndex readChangedPositions(String fileName, PositionBlockIndex previous, Consumer<Position> positionHandler) {
+		FileChannel file;
+		try {
+			file = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+		} catch (IOException | InvalidPathException e) {
+			throw new IllegalArgumentException("Unable to load file " + fileName);
+		}
+		
+		PositionBlockIndex index = new PositionBlockIndex();
+		PositionLoadEvent event = new PositionLoadEvent();
+		event.begin();
+		try (FileChannel channel = file) {
+			ByteBuffer header = ByteBuffer.allocate(4);
+			while (header.hasRemaining() && channel.read(header) != -1) {
+				// a short read is followed by another until the header is full or the file ends
+			}
+			int length = header.position();
+			if (PositionSnapshotReader.isSnapshot(header.array(), length)) {
+				event.snapshot = true;
+				channel.position(0);
+				InputStream in = new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+				PositionSnapshotReader.readSnapshot(in, size -> { }, p -> {
+					event.positions++;
+					event.applications += p.getApplications().size();
+					index.addPositionName(p.getPositionName());
+					positionHandler.accept(p);
+				});
+				event.completed = true;
+				return index;
 			}
 			
-			Scanner contentReader = new Scanner(fileContents);
-			contentReader.useDelimiter("\\r?\\n?[#]");
+			// check that the first character is #, if not the file is invalid and nothing is read
+			if (length > 0 && header.get(0) == '#') {
+				channel.position(0);
+				new BlockScanner(channel, previous, index, positionHandler, event).scan();
+			}
+			event.completed = true;
+			return index;
 			
-			// make position objects
-			while(contentReader.hasNext()) {
-				
-				try {
-				// make position objects with applications (if applicable), and add to list
-				positions.add(processPosition(contentReader.next()));
-				
-				} catch (Exception e) {
-					// skip application/position if there is an issue making or adding them
+		} catch (IOException | NoSuchAlgorithmException e) {
+			throw new IllegalArgumentException("Unable to load file " + fileName);
+		} finally {
+			event.finish(fileName);
+		}
+	}
+	
+	/**
+	 * Splits a text position file into blocks, fingerprinting each one and parsing the ones that changed.
+	 * 
+	 * Blocks are digested straight from the read buffer and are not kept; a changed block is read again from the file by
+	 * its offset to be parsed, so an unchanged block is only ever read once and never copied.
+	 * 
+	 * @author hmreese2
+	 *
+	 */
+	private static class BlockScanner {
+		
+		/** Channel of the file, read in order by scan() and by offset to parse a changed block */
+		private final FileChannel channel;
+		/** Fingerprints of the last read of the file, or null if every block is parsed */
+		private final PositionBlockIndex previous;
+		/** Fingerprints of the blocks scanned */
+		private final PositionBlockIndex index;
+		/** Receives the position of each changed block that is valid */
+		private final Consumer<Position> positionHandler;
+		/** Event of the load */
+		private final PositionLoadEvent event;
+		/** Digest of the block being scanned */
+		private final MessageDigest digest;
+		/** Number of bytes of the block scanned so far */
+		private int length;
+		/** Offset of the block being scanned */
+		private long offset;
+		/** Position parsed from the last changed block, or null if it had no valid position */
+		private Position parsed;
+		
+		/**
+		 * Constructs a scanner
+		 * @param channel channel of the file, positioned at its start
+		 * @param previous fingerprints of the last read of the file, or null if every block is parsed
+		 * @param index receives the fingerprint of each block scanned
+		 * @param positionHandler receives the position of each changed block that is valid
+		 * @param event event of the load
+		 * @throws NoSuchAlgorithmException if SHA-256 is not available, which every Java platform is required to provide
+		 */
+		BlockScanner(FileChannel channel, PositionBlockIndex previous, PositionBlockIndex index, Consumer<Position> positionHandler,
+				PositionLoadEvent event) throws NoSuchAlgorithmException {
+			this.channel = channel;
+			this.previous = previous;
+			this.index = index;
+			this.positionHandler = positionHandler;
+			this.event = event;
+			this.digest = MessageDigest.getInstance("SHA-256");
+		}
+		
+		/**
+		 * Scans every block of a file that starts with a position line
+		 * @throws IOException if the file cannot be read
+		 */
+		void scan() throws IOException {
+			ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			byte[] bytes = buffer.array();
+			// offset of the start of the buffer in the file
+			long position = 0;
+			// a # only starts a block at the start of a line, which readLine() ends at \n, \r, or \r\n
+			boolean lineStart = true;
+			int n;
+			while ((n = channel.read(buffer)) != -1) {
+				int from = 0;
+				for (int i = 0; i < n; i++) {
+					byte b = bytes[i];
+					if (lineStart && b == '#') {
+						append(bytes, from, i - from);
+						finishBlock(position + i);
+						from = i;
+					}
+					lineStart = b == '\n' || b == '\r';
 				}
+				append(bytes, from, n - from);
+				position += n;
+				buffer.clear();
 			}
-							
-			contentReader.close();
-			
-			// check if position has at least one application - position must have at least one application to be in the list!
-			for (int i = 0; i < positions.size(); i++) {
-				if (positions.get(i).getApplications().size() == 0) {
-					// if position has no applications, remove it from list
-					positions.remove(i);
+			finishBlock(position);
+		}
+		
+		/**
+		 * Adds bytes of the read buffer to the digest of the block being scanned
+		 * @param buffer bytes read
+		 * @param from index of the first byte of the block
+		 * @param count number of bytes of the block
+		 */
+		private void append(byte[] buffer, int from, int count) {
+			digest.update(buffer, from, count);
+			length += count;
+		}
+		
+		/**
+		 * Fingerprints the block being scanned, parsing it if it does not match a block of the previous index, and starts
+		 * the next block. Nothing is fingerprinted before the first block starts.
+		 * @param nextOffset offset of the next block
+		 * @throws IOException if a changed block cannot be read again
+		 */
+		private void finishBlock(long nextOffset) throws IOException {
+			if (length > 0) {
+				byte[] fingerprint = digest.digest();
+				PositionBlockIndex.Block match = previous == null ? null : previous.find(length, fingerprint);
+				if (match != null) {
+					index.add(new PositionBlockIndex.Block(offset, length, fingerprint, match.getPositionName(), false));
+				} else {
+					parsed = null;
+					BufferedReader reader = new BufferedReader(
+							new InputStreamReader(new RangeInputStream(channel, offset, length), StandardCharsets.UTF_8));
+					new LineParser(this::handOff, event, null).parse(reader);
+					index.add(new PositionBlockIndex.Block(offset, length, fingerprint, parsed == null ? null : parsed.getPositionName(), true));
 				}
 			}
-						
-		} catch (FileNotFoundException e) {
-			throw new IllegalArgumentException("Unable to load file " + fileName);
+			
+			offset = nextOffset;
+			length = 0;
+			digest.reset();
 		}
 		
-		return positions;
+		/**
+		 * Hands off the position of a changed block
+		 * @param position valid position of the block
+		 */
+		private void handOff(Position position) {
+			parsed = position;
+			positionHandler.accept(position);
+		}
 	}
 	
 	/**
-	 * Processes Position text, breaks apart and uses processPositionLine() to create a Position object.
-	 * Then, uses processApplication() to create Application objects and adds those to Position object (if applicable).
-	 * Returns the newly created Position with Applications (if applicable). Otherwise, an empty Position is returned.
-	 * @param positionText text that contains Position and possible application data
-	 * @return Position object constructed from data of passed in text, with or without applications.
+	 * Stream of a range of bytes of a file, read by offset so that the position of the channel is not moved
 	 */
-	private static Position processPosition(String positionText) {
-		Scanner line = new Scanner(positionText);
+	private static class RangeInputStream extends InputStream {
 		
-		// make position from first line - using nextLine().trim() gets ride of the Position line for us in the scanner and excess whitespace, so that the application line(s) are all that's left.
-		Position p = processPositionLine(line.nextLine().trim());
+		/** Channel of the file */
+		private final FileChannel channel;
+		/** Offset of the next byte to read */
+		private long position;
+		/** Offset just past the last byte of the range */
+		private final long end;
 		
-		// make applications and add them to position
-		line.useDelimiter("\\r?\\n?[*]");
-		if (!line.hasNext()) {
-			line.close();
-			throw new IllegalArgumentException();
-		} else {
-			while (line.hasNext()) {
-				try {
-				p.addApplication(processApplication(line.next().trim()));
-				} catch (Exception e) {
-					// skip application if there is an issue making or adding it
-				}
-			}
-		}	
+		/**
+		 * Constructs a stream of a range of a file
+		 * @param channel channel of the file
+		 * @param offset offset of the first byte of the range
+		 * @param length number of bytes in the range
+		 */
+		RangeInputStream(FileChannel channel, long offset, int length) {
+			this.channel = channel;
+			this.position = offset;
+			this.end = offset + length;
+		}
 		
-		line.close();
-				
-		return p;
+		@Override
+		public int read() throws IOException {
+			byte[] one = new byte[1];
+			return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (position >= end) {
+				return -1;
+			}
+			if (len == 0) {
+				return 0;
+			}
+			int n = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - position)), position);
+			if (n == -1) {
+				return -1;
+			}
+			position += n;
+			return n;
+		}
 	}
 	
 	/**
-	 * Processes a line of Position information and creates a Position object
-	 * @param positionLine line that contains Position information
-	 * @return Position object constructed from processed information
+	 * Stream that reports the number of bytes read from the stream it wraps, checking for cancellation on every read
 	 */
-	private static Position processPositionLine(String positionLine) {
-		Scanner line = new Scanner(positionLine);
+	private static class ProgressInputStream extends FilterInputStream {
 		
-		String positionName = "";
-		int hoursPerWeek = 0;
-		int payRate = 0;
+		/** Size of the file being read */
+		private final long total;
+		/** Receives the number of bytes read */
+		private final IOProgress progress;
+		/** Number of bytes read so far */
+		private long done;
 		
-		// break apart first line using comma delimiter to create new Position (using processPositionLine)
-		line.useDelimiter(",");
+		/**
+		 * Constructs a ProgressInputStream
+		 * @param in stream being read
+		 * @param total size of the file being read
+		 * @param progress receives the number of bytes read
+		 */
+		ProgressInputStream(InputStream in, long total, IOProgress progress) {
+			super(in);
+			this.total = total;
+			this.progress = progress;
+		}
+		
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			report(b < 0 ? 0 : 1);
+			return b;
+		}
 		
-		while (line.hasNext()) {
-			positionName = line.next();
-			hoursPerWeek = line.nextInt();
-			payRate = line.nextInt();
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			report(Math.max(n, 0));
+			return n;
 		}
 		
-		line.close();
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			report(skipped);
+			return skipped;
+		}
 		
-		return new Position(positionName, hoursPerWeek, payRate);
+		/**
+		 * Reports bytes that were read
+		 * @param n number of bytes read
+		 * @throws CancellationException if progress cancels the read
+		 */
+		private void report(long n) {
+			done += n;
+			if (!progress.update(done, total)) {
+				throw new CancellationException();
+			}
+		}
 	}
 	
 	/**
-	 * Processes line of Application information and creates a subsequent Application object.
-	 * @param applicationLine line of Application information
-	 * @return application object constructed from processed application information
+	 * Reads the file containing Position information by memory-mapping it and tokenizing the mapped bytes directly.
+	 * No String is created for a line; only the fields kept by a Position or Application become Strings, which keeps heap use
+	 * close to the size of the loaded positions even for files larger than 2GB.
+	 * Produces the same positions as readPositionFile(String).
+	 * @param fileName name of file being read and processed
+	 * @return ArrayList of Positions and their respective Application objects, derived from given file.
+	 * @throws IllegalArgumentException with message "Unable to load file [fileName]." if file cannot be loaded
 	 */
-	private static Application processApplication(String applicationLine) {
-		Scanner line = new Scanner(applicationLine);
-		line.useDelimiter(",");
+	public static ArrayList<Position> readMappedPositionFile(String fileName) {
+		ArrayList<Position> positions = new ArrayList<Position>();
+
+		try (MappedPositionReader reader = new MappedPositionReader(fileName)) {
+			// check that the first character is #, if not the file is invalid and an empty list should be returned
+			if (reader.startsWithPosition()) {
+				reader.readPositions(0, reader.size(), positions::add);
+			} else if (isSnapshotFile(fileName)) {
+				return PositionSnapshotReader.readSnapshot(fileName);
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to load file " + fileName);
+		}
+
+		return positions;
+	}
+
+	/**
+	 * Reads the file containing Position information in parallel using the common ForkJoinPool.
+	 * @param fileName name of file being read and processed
+	 * @return ArrayList of Positions and their respective Application objects, derived from given file, in file order.
+	 * @throws IllegalArgumentException with message "Unable to load file [fileName]." if file cannot be loaded
+	 */
+	public static ArrayList<Position> readParallelPositionFile(String fileName) {
+		return readParallelPositionFile(fileName, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Reads the file containing Position information in parallel. Every position block is independent, so the file is split
+	 * into byte ranges at position lines and each range is tokenized from mapped bytes by its own task on the given pool.
+	 * The positions of each range are merged back in file order, giving the same result as readPositionFile(String).
+	 * @param fileName name of file being read and processed
+	 * @param pool pool the ranges of the file are read on
+	 * @return ArrayList of Positions and their respective Application objects, derived from given file, in file order.
+	 * @throws IllegalArgumentException with message "Unable to load file [fileName]." if file cannot be loaded
+	 */
+	public static ArrayList<Position> readParallelPositionFile(String fileName, ForkJoinPool pool) {
+		long size;
+		try (MappedPositionReader reader = new MappedPositionReader(fileName)) {
+			// check that the first character is #, if not the file is invalid and an empty list should be returned
+			if (!reader.startsWithPosition()) {
+				return isSnapshotFile(fileName) ? PositionSnapshotReader.readSnapshot(fileName) : new ArrayList<Position>();
+			}
+			size = reader.size();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to load file " + fileName);
+		}
+		
+		// split the file into about four ranges per thread so that uneven positions still keep every thread busy
+		long splitSize = Math.max(MIN_SPLIT_SIZE, size / (pool.getParallelism() * 4L));
+		try {
+			return pool.invoke(new PositionRangeTask(fileName, 0, size, splitSize));
+		} catch (UncheckedIOException e) {
+			throw new IllegalArgumentException("Unable to load file " + fileName);
+		}
+	}
+	
+	/**
+	 * Reads the positions of a byte range of a position file. Ranges larger than the split size are split in half, read by
+	 * two subtasks, and their positions joined in order.
+	 * 
+	 * @author hmreese2
+	 *
+	 */
+	private static class PositionRangeTask extends RecursiveTask<ArrayList<Position>> {
+		
+		/** Serial version of the task */
+		private static final long serialVersionUID = 1L;
+		/** Name of file being read */
+		private final String fileName;
+		/** File offset of the start of the range, positions whose line starts at or after this offset are read */
+		private final long start;
+		/** File offset of the end of the range, positions whose line starts at or after this offset are not read */
+		private final long end;
+		/** Largest range that is read without being split */
+		private final long splitSize;
+		
+		/**
+		 * Constructs a task reading the positions of a range of a file
+		 * @param fileName name of file being read
+		 * @param start file offset of the start of the range
+		 * @param end file offset of the end of the range
+		 * @param splitSize largest range that is read without being split
+		 */
+		PositionRangeTask(String fileName, long start, long end, long splitSize) {
+			this.fileName = fileName;
+			this.start = start;
+			this.end = end;
+			this.splitSize = splitSize;
+		}
+
+		/**
+		 * Reads the positions of the range, splitting it if it is too large
+		 * @return positions whose line starts in the range, in file order
+		 * @throws UncheckedIOException if the file cannot be read
+		 */
+		@Override
+		protected ArrayList<Position> compute() {
+			if (end - start > splitSize) {
+				long middle = start + (end - start) / 2;
+				PositionRangeTask second = new PositionRangeTask(fileName, middle, end, splitSize);
+				second.fork();
+				ArrayList<Position> positions = new PositionRangeTask(fileName, start, middle, splitSize).compute();
+				positions.addAll(second.join());
+				return positions;
+			}
 			
-		// set fields
-		int id = line.nextInt();
-		String state = line.next();
-		String firstName = line.next();
-		String surname = line.next();
-		String unityId = line.next();
-		String reviewer = null;
-		String note = null;
-		// check for reviewer and note values
-		if (line.hasNext() ) {
-			reviewer = line.next();
-			if (line.hasNext()) {
-				note = line.next();
-			}
-		}
-		
-		// make sure that reviewer and note aren't returned as empty strings
-		if ("".equals(reviewer)) {
-			reviewer = null;
-		}
-		
-		line.close();
-						
-		return new Application(id, state, firstName, surname, unityId, reviewer, note);		
-				
+			ArrayList<Position> positions = new ArrayList<Position>();
+			try (MappedPositionReader reader = new MappedPositionReader(fileName)) {
+				reader.readPositions(start, end, positions::add);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return positions;
+		}
+	}
+	
+	/**
+	 * Checks whether a file is a binary snapshot written by PositionSnapshotWriter
+	 * @param fileName name of file being checked
+	 * @return true if the file starts with the magic number of a snapshot
+	 * @throws IOException if the file cannot be read
+	 */
+	private static boolean isSnapshotFile(String fileName) throws IOException {
+		try (FileInputStream in = new FileInputStream(fileName)) {
+			byte[] header = new byte[4];
+			return PositionSnapshotReader.isSnapshot(header, in.readNBytes(header, 0, header.length));
+		}
+	}
+	
+	/**
+	 * Parses the lines of a text position file, handing off each valid position as its block ends.
+	 * 
+	 * Every field is checked before a Position or Application is constructed, so an invalid record is skipped without an
+	 * exception being thrown and caught. Each skipped record is counted in the load event and, if diagnostics are being
+	 * collected, reported to the result with its line number and the reason.
+	 * 
+	 * @author hmreese2
+	 *
+	 */
+	private static class LineParser {
+		
+		/** Receives each valid Position */
+		private final Consumer<Position> positionHandler;
+		/** Event of the load, which counts what was read and skipped */
+		private final PositionLoadEvent event;
+		/** Receives diagnostics, or null if they are not collected */
+		private final PositionReadResult result;
+		/** Number of the last line read */
+		private long lineNumber;
+		/** Position currently being built, or null if its position line was invalid */
+		private Position position;
+		/** Position line of the current position */
+		private String positionLine;
+		/** Number of the position line of the current position */
+		private long positionLineNumber;
+		/** Application line waiting to be added to the current position, or null if there is none */
+		private String applicationLine;
+		/** Number of the waiting application line */
+		private long applicationLineNumber;
+		
+		/**
+		 * Constructs a parser
+		 * @param positionHandler receives each valid Position
+		 * @param event event of the load
+		 * @param result receives diagnostics, or null if they are not collected
+		 */
+		LineParser(Consumer<Position> positionHandler, PositionLoadEvent event, PositionReadResult result) {
+			this.positionHandler = positionHandler;
+			this.event = event;
+			this.result = result;
+		}
+		
+		/**
+		 * Parses every line of a file
+		 * @param reader reader of the file
+		 * @throws IOException if the file cannot be read
+		 */
+		void parse(BufferedReader reader) throws IOException {
+			String line = reader.readLine();
+			lineNumber = 1;
+			// check that the first character is #, if not the file is invalid and nothing is read
+			if (line == null || line.length() == 0 || line.charAt(0) != '#') {
+				if (line != null) {
+					report(1, ParseDiagnostic.Kind.NOT_POSITION_FILE, "File does not start with a position line.", line);
+				}
+				return;
+			}
+			startPosition(line);
+			
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (line.length() > 0 && line.charAt(0) == '#') {
+					// new position - finish up the previous one
+					addApplication();
+					handOff();
+					startPosition(line);
+				} else if (line.length() > 0 && line.charAt(0) == '*') {
+					addApplication();
+					applicationLine = line;
+					applicationLineNumber = lineNumber;
+				} else if (line.trim().length() > 0) {
+					// stray text belongs to the application before it, which makes that application invalid
+					if (applicationLine != null) {
+						event.skippedApplications++;
+						report(lineNumber, ParseDiagnostic.Kind.STRAY_TEXT, "Text after an application makes it invalid.", line);
+					}
+					applicationLine = null;
+				}
+			}
+			
+			addApplication();
+			handOff();
+		}
+		
+		/**
+		 * Starts a position from its position line
+		 * @param line line starting with # that contains Position information
+		 */
+		private void startPosition(String line) {
+			positionLine = line;
+			positionLineNumber = lineNumber;
+			position = null;
+			
+			String[] fields = splitFields(line.substring(1).trim());
+			// position line must have exactly a name, hours per week, and pay rate
+			if (fields.length != 3) {
+				report(lineNumber, ParseDiagnostic.Kind.INVALID_POSITION, "Position needs a name, hours per week, and pay rate.", line);
+				return;
+			}
+			int hoursPerWeek = parseInt(fields[1]);
+			int payRate = parseInt(fields[2]);
+			String reason = hoursPerWeek == Integer.MIN_VALUE || payRate == Integer.MIN_VALUE ? "Hours per week and pay rate must be numbers."
+					: Position.validate(fields[0], hoursPerWeek, payRate);
+			if (reason != null) {
+				report(lineNumber, ParseDiagnostic.Kind.INVALID_POSITION, reason, line);
+				return;
+			}
+			
+			position = new Position(fields[0], hoursPerWeek, payRate);
+		}
+		
+		/**
+		 * Processes the waiting application line and adds the resulting Application to the current position.
+		 * Nothing is added if there is no position, no line, or if the Application cannot be constructed or added.
+		 */
+		private void addApplication() {
+			String line = applicationLine;
+			applicationLine = null;
+			if (line == null) {
+				return;
+			}
+			if (position == null) {
+				skipApplication(ParseDiagnostic.Kind.NO_POSITION, "Application belongs to an invalid position.", line);
+				return;
+			}
+			
+			String[] fields = splitFields(line.substring(1).trim());
+			// id, state, first name, surname, and unity id are required
+			if (fields.length < 5) {
+				skipApplication(ParseDiagnostic.Kind.MISSING_FIELDS, "Application needs an id, state, first name, surname, and unity id.", line);
+				return;
+			}
+			int id = parseInt(fields[0]);
+			if (id == Integer.MIN_VALUE) {
+				skipApplication(ParseDiagnostic.Kind.INVALID_ID, "Application id must be a number.", line);
+				return;
+			}
+			// check for reviewer and note values, anything after the note is ignored
+			// and make sure that reviewer isn't returned as an empty string
+			String reviewer = fields.length > 5 && fields[5].length() > 0 ? fields[5] : null;
+			String note = fields.length > 6 ? fields[6] : null;
+			String reason = Application.validate(id, fields[1], fields[2], fields[3], fields[4], reviewer, note);
+			if (reason != null) {
+				skipApplication(ParseDiagnostic.Kind.INVALID_APPLICATION, reason, line);
+				return;
+			}
+			if (position.getApplicationById(id) != null) {
+				skipApplication(ParseDiagnostic.Kind.DUPLICATE_ID, "Application id is already in the position.", line);
+				return;
+			}
+			
+			position.addApplication(Application.forPosition(id, fields[1], fields[2], fields[3], fields[4], reviewer, note));
+		}
+		
+		/**
+		 * Skips the waiting application line
+		 * @param kind kind of problem
+		 * @param message description of the problem
+		 * @param line text of the line
+		 */
+		private void skipApplication(ParseDiagnostic.Kind kind, String message, String line) {
+			event.skippedApplications++;
+			report(applicationLineNumber, kind, message, line);
+		}
+		
+		/**
+		 * Hands the current position off to the handler if it is valid, i.e. if it could be constructed and has at least
+		 * one application. The position is counted in the load event as handed off or skipped.
+		 */
+		private void handOff() {
+			if (position != null && position.getApplications().size() > 0) {
+				event.positions++;
+				event.applications += position.getApplications().size();
+				positionHandler.accept(position);
+			} else {
+				event.skippedPositions++;
+				if (position != null) {
+					report(positionLineNumber, ParseDiagnostic.Kind.EMPTY_POSITION, "Position has no valid applications.", positionLine);
+				}
+			}
+		}
+		
+		/**
+		 * Reports a problem to the result, if diagnostics are being collected
+		 * @param number number of the line
+		 * @param kind kind of problem
+		 * @param message description of the problem
+		 * @param line text of the line
+		 */
+		private void report(long number, ParseDiagnostic.Kind kind, String message, String line) {
+			if (result != null) {
+				result.report(number, kind, message, line);
+			}
+		}
+	}
+	
+	/**
+	 * Parses a field as an int the way Integer.parseInt() does, without throwing if it is not one.
+	 * @param field field being parsed
+	 * @return value of the field, or Integer.MIN_VALUE if the field is not a valid int
+	 */
+	private static int parseInt(String field) {
+		int i = 0;
+		int end = field.length();
+		boolean negative = false;
+		if (i < end && (field.charAt(i) == '-' || field.charAt(i) == '+')) {
+			negative = field.charAt(i) == '-';
+			i++;
+		}
+		if (i == end) {
+			return Integer.MIN_VALUE;
+		}
+		
+		long value = 0;
+		for (; i < end; i++) {
+			int digit = field.charAt(i) - '0';
+			if (digit < 0 || digit > 9) {
+				return Integer.MIN_VALUE;
+			}
+			value = value * 10 + digit;
+			if (value > Integer.MAX_VALUE) {
+				return Integer.MIN_VALUE;
+			}
+		}
+		
+		return (int) (negative ? -value : value);
+	}
+	
+	/**
+	 * Splits a comma separated line into its fields. Matches the tokens of a Scanner using a comma delimiter:
+	 * empty fields between two commas are kept, but a leading comma and a single trailing comma do not produce a field.
+	 * @param line comma separated line
+	 * @return fields of the line
+	 */
+	private static String[] splitFields(String line) {
+		ArrayList<String> fields = new ArrayList<String>(8);
+		int start = 0;
+		for (int i = 0; i <= line.length(); i++) {
+			if (i == line.length() || line.charAt(i) == ',') {
+				// a leading comma and a trailing comma do not start or end a field
+				if (!(i == start && (start == 0 || i == line.length()))) {
+					fields.add(line.substring(start, i));
+				}
+				start = i + 1;
+			}
+		}
+		
+		return fields.toArray(new String[fields.size()]);
 	}
 }
@@ -0,0 +1,89 @@
+package edu.ncsu.csc216.wolf_hire.model.io;
+
+import java.io.File;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_hire.model.manager.Position;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event for a position file written by PositionWriter, from opening the file until it is closed (and,
+ * for atomic saves, forced to disk and renamed), so that a recording shows which save a GC pause or I/O stall happened during.
+ *
+ * The event's fields are only filled in when it is recorded, so a save costs nothing more when no recording is running.
+ *
+ * @author hmreese2
+ *
+ */
+@Name(PositionSaveEvent.NAME)
+@Label("Position File Save")
+@Category({"WolfHire", "I/O"})
+@Description("Position file written by PositionWriter")
+class PositionSaveEvent extends Event {
+
+	/** Name of the event in recordings */
+	static final String NAME = "edu.ncsu.csc216.wolf_hire.PositionSave";
+
+	/** Name of the file written */
+	@Label("File Name")
+	String fileName;
+
+	/** Size of the file once written */
+	@Label("Bytes")
+	@DataAmount(DataAmount.BYTES)
+	long bytes;
+
+	/** How durable the save is, or null if the file was not written atomically */
+	@Label("Durability")
+	String durability;
+
+	/** Number of positions written */
+	@Label("Positions")
+	int positions;
+
+	/** Number of applications written */
+	@Label("Applications")
+	long applications;
+
+	/** Number of positions skipped because they had no applications */
+	@Label("Skipped Positions")
+	int skippedPositions;
+
+	/** Whether the file was saved, false if saving it failed or was cancelled */
+	@Label("Completed")
+	boolean completed;
+
+	/**
+	 * Ends the event and records it if a recording wants it
+	 * @param fileName name of the file written
+	 * @param list positions being written
+	 * @param durability how durable the save is, or null if the file was not written atomically
+	 */
+	void finish(String fileName, List<Position> list, PositionWriter.Durability durability) {
+		end();
+		if (shouldCommit()) {
+			this.fileName = fileName;
+			this.durability = durability == null ? null : durability.name();
+			if (completed) {
+				this.bytes = new File(fileName).length();
+			}
+			if (list != null) {
+				for (int i = 0; i < list.size(); i++) {
+					int size = list.get(i).getApplications().size();
+					if (size == 0) {
+						skippedPositions++;
+					} else {
+						positions++;
+						applications += size;
+					}
+				}
+			}
+			commit();
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package edu.ncsu.csc216.wolf_hire.model.io;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+import edu.ncsu.csc216.wolf_hire.model.application.Application;
+import edu.ncsu.csc216.wolf_hire.model.application.Application.StateValue;
+import edu.ncsu.csc216.wolf_hire.model.manager.Position;
+
+/**
+ * Reads a binary snapshot file written by PositionSnapshotWriter. See PositionSnapshotWriter for the format.
+ *
+ * Each String is decoded once from the dictionary and shared by every Application that uses it, and the counts in the header
+ * are used to presize the lists, so loading does no tokenizing and little copying. As with the text format, invalid applications
+ * are skipped and positions without any valid applications are not returned.
+ *
+ * PositionReader detects snapshot files automatically, so they can be loaded anywhere a text position file can.
+ *
+ * @author hmreese2
+ *
+ */
+public class PositionSnapshotReader {
+
+	/** Size of the byte buffer used when reading snapshot files */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/** Application states by the ordinal written to a snapshot */
+	private static final StateValue[] STATES = StateValue.values();
+
+	/**
+	 * Unused constructor for PositionSnapshotReader; remains empty, used by default.
+	 */
+	public PositionSnapshotReader() {
+		// empty constructor
+	}
+
+	/**
+	 * Reads a binary snapshot file
+	 * @param fileName name of file being read
+	 * @return ArrayList of Positions and their respective Application objects, in the order they were written
+	 * @throws IllegalArgumentException with message "Unable to load file [fileName]" if file cannot be loaded or is not a snapshot
+	 */
+	public static ArrayList<Position> readSnapshot(String fileName) {
+		ArrayList<Position> positions = new ArrayList<Position>();
+		try (InputStream in = new BufferedInputStream(new FileInputStream(fileName), BUFFER_SIZE)) {
+			readSnapshot(in, positions::ensureCapacity, positions::add);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to load file " + fileName);
+		}
+		return positions;
+	}
+
+	/**
+	 * Checks whether the given bytes start a snapshot file
+	 * @param header first bytes of a file
+	 * @param length number of bytes in header that were read
+	 * @return true if the bytes are the magic number of a snapshot
+	 */
+	static boolean isSnapshot(byte[] header, int length) {
+		return length >= 4 && ((header[0] & 0xff) << 24 | (header[1] & 0xff) << 16 | (header[2] & 0xff) << 8 | (header[3] & 0xff))
+				== PositionSnapshotWriter.MAGIC;
+	}
+
+	/**
+	 * Reads a snapshot from a stream, handing each valid Position to the handler in the order it was written
+	 * @param stream stream positioned at the start of the snapshot
+	 * @param sizeHandler receives the number of positions in the snapshot before any position is handed off
+	 * @param positionHandler receives each valid Position
+	 * @throws IOException if the stream cannot be read or does not hold a snapshot of a known version
+	 */
+	static void readSnapshot(InputStream stream, Consumer<Integer> sizeHandler, Consumer<Position> positionHandler) throws IOException {
+		DataInputStream in = new DataInputStream(stream);
+		if (in.readInt() != PositionSnapshotWriter.MAGIC || in.readShort() != PositionSnapshotWriter.VERSION) {
+			throw new IOException("Not a snapshot");
+		}
+		int positionCount = in.readInt();
+		int applicationCount = in.readInt();
+		int dictionarySize = in.readInt();
+		if (positionCount < 0 || applicationCount < 0 || dictionarySize < 0) {
+			throw new IOException("Invalid header");
+		}
+
+		String[] dictionary = new String[dictionarySize];
+		for (int i = 0; i < dictionarySize; i++) {
+			dictionary[i] = in.readUTF();
+		}
+		sizeHandler.accept(positionCount);
+
+		for (int i = 0; i < positionCount; i++) {
+			String name = lookup(dictionary, in.readInt());
+			int hoursPerWeek = in.readInt();
+			int payRate = in.readInt();
+			int count = in.readInt();
+			if (count < 0 || count > applicationCount) {
+				throw new IOException("Invalid position");
+			}
+
+			Position position = null;
+			try {
+				position = new Position(name, hoursPerWeek, payRate);
+				position.ensureApplicationCapacity(count);
+			} catch (IllegalArgumentException e) {
+				// skip position if there is an issue making it, its applications still have to be read
+			}
+
+			for (int j = 0; j < count; j++) {
+				int id = in.readInt();
+				int state = in.readByte();
+				String firstName = lookup(dictionary, in.readInt());
+				String surname = lookup(dictionary, in.readInt());
+				String unityId = lookup(dictionary, in.readInt());
+				String reviewer = lookup(dictionary, in.readInt());
+				String note = lookup(dictionary, in.readInt());
+				if (position == null || state < 0 || state >= STATES.length) {
+					continue;
+				}
+
+				try {
+					position.addApplication(Application.forPosition(id, STATES[state].getStateName(), firstName, surname, unityId,
+							"".equals(reviewer) ? null : reviewer, "".equals(note) ? null : note));
+				} catch (IllegalArgumentException e) {
+					// skip application if there is an issue making or adding it
+				}
+			}
+
+			if (position != null && position.getApplications().size() > 0) {
+				positionHandler.accept(position);
+			}
+		}
+	}
+
+	/**
+	 * Looks up a String in the dictionary
+	 * @param dictionary Strings of the snapshot
+	 * @param index index of the String, or -1 for null
+	 * @return String at the index
+	 * @throws IOException if the index is outside the dictionary
+	 */
+	private static String lookup(String[] dictionary, int index) throws IOException {
+		if (index == -1) {
+			return null;
+		}
+		if (index < 0 || index >= dictionary.length) {
+			throw new IOException("Invalid string index");
+		}
+		return dictionary[index];
+	}
+}
@@ -0,0 +1,198 @@
+package edu.ncsu.csc216.wolf_hire.model.io;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_hire.model.application.Application;
+import edu.ncsu.csc216.wolf_hire.model.io.PositionWriter.Durability;
+import edu.ncsu.csc216.wolf_hire.model.manager.Position;
+
+/**
+ * Writes Position object(s) and their Application(s) to a binary snapshot file, which PositionReader loads much faster than the
+ * text format. As with PositionWriter, positions without any applications are skipped.
+ *
+ * Snapshot format (all numbers big-endian):
+ * <pre>
+ * header:     magic (int), version (short), position count (int), application count (int), dictionary size (int)
+ * dictionary: every distinct String, each written with DataOutput.writeUTF()
+ * position:   name (int), hoursPerWeek (int), payRate (int), application count (int), then its applications
+ * application: id (int), state (byte), firstName (int), surname (int), unityId (int), reviewer (int), note (int)
+ * </pre>
+ * Strings are written as their index in the dictionary, or -1 for null, and states as their StateValue ordinal.
+ * The counts in the header let the reader presize its lists.
+ *
+ * Snapshots are always written atomically through a temporary file. CommandJournal writes its compaction snapshots in this
+ * format, so recovering at startup reads a snapshot rather than parsing text.
+ *
+ * @author hmreese2
+ *
+ */
+public class PositionSnapshotWriter {
+
+	/** Magic number starting every snapshot file, which can never start a text position file */
+	static final int MAGIC = 0x57485331;
+	/** Version of the snapshot format written */
+	static final short VERSION = 1;
+
+	/**
+	 * Unused constructor for PositionSnapshotWriter; remains empty, used by default.
+	 */
+	public PositionSnapshotWriter() {
+		// empty constructor
+	}
+
+	/**
+	 * Writes Position information to a binary snapshot file atomically, forcing it to disk before it replaces the file
+	 * @param fileName name of file to write information to
+	 * @param positions positions that are being written to a file
+	 * @throws IllegalArgumentException with message "Unable to save file." if there are any errors trying to save file
+	 */
+	public static void writeSnapshot(String fileName, List<Position> positions) {
+		writeSnapshotAtomically(fileName, positions, Durability.FSYNC);
+	}
+
+	/**
+	 * Writes Position information to a binary snapshot file atomically, the same way PositionWriter.writePositionsToFileAtomically()
+	 * writes a text file: the snapshot is written to a temporary file in the same directory, which is forced to disk as requested
+	 * and then renamed over the file. If anything goes wrong the file is left untouched.
+	 * @param fileName name of file to write information to
+	 * @param positions positions that are being written to a file
+	 * @param durability how durable the save is once this method returns
+	 * @throws IllegalArgumentException with message "Unable to save file." if there are any errors trying to save file
+	 */
+	public static void writeSnapshotAtomically(String fileName, List<Position> positions, Durability durability) {
+		if (durability == null) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+
+		PositionSaveEvent event = new PositionSaveEvent();
+		event.begin();
+		try (AtomicFile file = writeUncommitted(fileName, positions)) {
+			file.commit(durability);
+			event.completed = true;
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		} finally {
+			event.finish(fileName, positions, durability);
+		}
+	}
+
+	/**
+	 * Writes Position information to a temporary binary snapshot file next to the file, without forcing it to disk or renaming it
+	 * over the file. The caller commits it, e.g. CommandJournal once it no longer holds up changes to the positions, or closes it
+	 * to leave the file untouched. The fingerprint of the snapshot is computed as it is written.
+	 * @param fileName name of file the snapshot replaces
+	 * @param positions positions that are being written to a file
+	 * @return temporary snapshot file
+	 * @throws IllegalArgumentException with message "Unable to save file." if there are any errors trying to save file
+	 */
+	static AtomicFile writeUncommitted(String fileName, List<Position> positions) {
+		if (fileName == null || fileName.length() == 0 || positions == null) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+
+		AtomicFile file = null;
+		try {
+			file = new AtomicFile(fileName);
+			writeTo(file.getOutputStream(), positions);
+			return file;
+		} catch (IOException e) {
+			if (file != null) {
+				file.close();
+			}
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Writes a binary snapshot of Position information to a stream
+	 * @param stream stream the snapshot is written to, which is flushed but not closed
+	 * @param positions positions that are being written
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	static void writeTo(OutputStream stream, List<Position> positions) throws IOException {
+		// build the dictionary and count what is written
+		HashMap<String, Integer> indexes = new HashMap<String, Integer>();
+		ArrayList<String> dictionary = new ArrayList<String>();
+		int positionCount = 0;
+		int applicationCount = 0;
+		for (int i = 0; i < positions.size(); i++) {
+			List<Application> applications = positions.get(i).getApplications();
+			if (applications.size() == 0) {
+				continue;
+			}
+			positionCount++;
+			applicationCount += applications.size();
+			addString(positions.get(i).getPositionName(), indexes, dictionary);
+			for (int j = 0; j < applications.size(); j++) {
+				Application a = applications.get(j);
+				addString(a.getFirstName(), indexes, dictionary);
+				addString(a.getSurname(), indexes, dictionary);
+				addString(a.getUnityId(), indexes, dictionary);
+				addString(a.getReviewer(), indexes, dictionary);
+				addString(a.getNote(), indexes, dictionary);
+			}
+		}
+
+		DataOutputStream out = new DataOutputStream(stream);
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+		out.writeInt(positionCount);
+		out.writeInt(applicationCount);
+		out.writeInt(dictionary.size());
+		for (int i = 0; i < dictionary.size(); i++) {
+			out.writeUTF(dictionary.get(i));
+		}
+
+		for (int i = 0; i < positions.size(); i++) {
+			Position position = positions.get(i);
+			List<Application> applications = position.getApplications();
+			if (applications.size() == 0) {
+				continue;
+			}
+
+			out.writeInt(indexes.get(position.getPositionName()));
+			out.writeInt(position.getHoursPerWeek());
+			out.writeInt(position.getPayRate());
+			out.writeInt(applications.size());
+			for (int j = 0; j < applications.size(); j++) {
+				Application a = applications.get(j);
+				out.writeInt(a.getId());
+				out.writeByte(a.getStateValue().ordinal());
+				out.writeInt(indexOf(a.getFirstName(), indexes));
+				out.writeInt(indexOf(a.getSurname(), indexes));
+				out.writeInt(indexOf(a.getUnityId(), indexes));
+				out.writeInt(indexOf(a.getReviewer(), indexes));
+				out.writeInt(indexOf(a.getNote(), indexes));
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * Adds a String to the dictionary if it is not already in it
+	 * @param value String being added, nothing is added for null
+	 * @param indexes index of each String in the dictionary
+	 * @param dictionary Strings in the order they are written
+	 */
+	private static void addString(String value, HashMap<String, Integer> indexes, ArrayList<String> dictionary) {
+		if (value != null && !indexes.containsKey(value)) {
+			indexes.put(value, dictionary.size());
+			dictionary.add(value);
+		}
+	}
+
+	/**
+	 * Gets the dictionary index of a String
+	 * @param value String being looked up
+	 * @param indexes index of each String in the dictionary
+	 * @return index of the String, or -1 if it is null
+	 */
+	private static int indexOf(String value, HashMap<String, Integer> indexes) {
+		return value == null ? -1 : indexes.get(value);
+	}
+}
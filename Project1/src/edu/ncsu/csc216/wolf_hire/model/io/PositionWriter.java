@@ -3,10 +3,17 @@
  */
 package edu.ncsu.csc216.wolf_hire.model.io;
 
-import java.io.File;
-import java.io.PrintStream;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
 
+import edu.ncsu.csc216.wolf_hire.model.application.Application;
 import edu.ncsu.csc216.wolf_hire.model.manager.Position;
 
 /**
@@ -15,11 +22,37 @@ import edu.ncsu.csc216.wolf_hire.model.manager.Position;
  * 
  * Works closely with the manager.WolfHire class to "save" positions and applications in WolfHire's savePositionstoFile() method.
  * 
+ * Each Position line and Application record is written field by field straight to a buffered writer, so no String is built for
+ * a whole Position (or Application) and memory use while saving does not grow with the number of applications.
+ * 
+ * Positions can also be saved atomically: they are written to a temporary file next to the target, which is then renamed over
+ * the target, so a crash part way through a save never leaves a half-written file behind. How hard the save works to make sure
+ * the new file survives a crash of the machine is chosen with a Durability value.
+ * 
  * @author hmreese2
  *
  */
 public class PositionWriter {
 
+	/**
+	 * Enumeration of how durable an atomic save is once it returns
+	 * @author hmreese2
+	 *
+	 */
+	public enum Durability {
+		/** The new file is left to the operating system to write to disk, fastest but may be lost if the machine crashes */
+		NONE,
+		/** The contents of the new file are forced to disk before it replaces the old file */
+		FSYNC,
+		/** Like FSYNC, and the rename is also forced to disk by syncing the directory containing the file */
+		FSYNC_DIRECTORY
+	}
+
+	/** Size of the character buffer used when writing position files */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/** Number of applications written between progress updates */
+	private static final int PROGRESS_INTERVAL = 4096;
+
 	/**
 	 * Unused constructor for PositionWriter()
 	 * Remains empty; is defaulted by system.
@@ -34,18 +67,148 @@ public class PositionWriter {
 	 * @throws IllegalArgumentException with message "Unable to save file." if there are any errors trying to save file
 	 */
 	public static void writePositionsToFile(String fileName, ArrayList<Position> positions) {
-		
-		try {
-			PrintStream p = new PrintStream(new File(fileName));
-			
-			for (int i = 0; i < positions.size(); i++) {
-				p.print(positions.get(i).toString());
-			}
-			
-			p.close();
+		if (fileName == null || positions == null) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+
+		PositionSaveEvent event = new PositionSaveEvent();
+		event.begin();
+		try (Writer writer = new BufferedWriter(
+				new OutputStreamWriter(new FileOutputStream(fileName), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+			writePositions(writer, positions);
+			event.completed = true;
 		} catch (Exception e) {
 			// catch any errors that occur and throw IAE
 			throw new IllegalArgumentException("Unable to save file.");
+		} finally {
+			event.finish(fileName, positions, null);
+		}
+	}
+
+	/**
+	 * Writes Position information to a file provided by user atomically. The positions are written to a temporary file in the same
+	 * directory, which is forced to disk as requested and then renamed over the file. If anything goes wrong the file is left
+	 * untouched and the temporary file is removed.
+	 * @param fileName name of file provided by user to write information to
+	 * @param positions positions that are being written to a file
+	 * @param durability how durable the save is once this method returns
+	 * @throws IllegalArgumentException with message "Unable to save file." if there are any errors trying to save file
+	 */
+	public static void writePositionsToFileAtomically(String fileName, List<Position> positions, Durability durability) {
+		writePositionsToFileAtomically(fileName, positions, durability, IOProgress.NONE);
+	}
+
+	/**
+	 * Writes Position information to a file atomically like writePositionsToFileAtomically(String, List, Durability),
+	 * reporting the number of applications written
+	 * @param fileName name of file provided by user to write information to
+	 * @param positions positions that are being written to a file
+	 * @param durability how durable the save is once this method returns
+	 * @param progress receives the number of applications written out of the number being saved, and can cancel the save
+	 * @throws IllegalArgumentException with message "Unable to save file." if there are any errors trying to save file
+	 * @throws CancellationException if progress cancels the save, in which case the file is left untouched
+	 */
+	public static void writePositionsToFileAtomically(String fileName, List<Position> positions, Durability durability, IOProgress progress) {
+		if (fileName == null || fileName.length() == 0 || positions == null || durability == null) {
+			throw new IllegalArgumentException("Unable to save file.");
 		}
+
+		PositionSaveEvent event = new PositionSaveEvent();
+		event.begin();
+		try (AtomicFile file = new AtomicFile(fileName)) {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(file.getOutputStream(), StandardCharsets.UTF_8), BUFFER_SIZE);
+			writePositions(writer, positions, progress);
+			writer.flush();
+			file.commit(durability);
+			event.completed = true;
+		} catch (CancellationException e) {
+			throw e;
+		} catch (Exception e) {
+			// catch any errors that occur and throw IAE
+			throw new IllegalArgumentException("Unable to save file.");
+		} finally {
+			event.finish(fileName, positions, durability);
+		}
+	}
+
+	/**
+	 * Writes Positions and their Applications to the given writer in the same format as Position.toString().
+	 * Positions without any applications are skipped.
+	 * @param writer writer the positions are written to
+	 * @param positions positions that are being written
+	 * @throws IOException if the positions cannot be written
+	 */
+	static void writePositions(Writer writer, List<Position> positions) throws IOException {
+		writePositions(writer, positions, IOProgress.NONE);
+	}
+
+	/**
+	 * Writes Positions and their Applications to the given writer, reporting the number of applications written
+	 * @param writer writer the positions are written to
+	 * @param positions positions that are being written
+	 * @param progress receives the number of applications written out of the number being saved
+	 * @throws IOException if the positions cannot be written
+	 * @throws CancellationException if progress cancels the save
+	 */
+	static void writePositions(Writer writer, List<Position> positions, IOProgress progress) throws IOException {
+		long total = 0;
+		if (progress != IOProgress.NONE) {
+			for (int i = 0; i < positions.size(); i++) {
+				total += positions.get(i).getApplications().size();
+			}
+		}
+		long done = 0;
+
+		for (int i = 0; i < positions.size(); i++) {
+			Position position = positions.get(i);
+			List<Application> applications = position.getApplications();
+			if (applications.size() == 0) {
+				continue;
+			}
+
+			// # PositionName,hoursPerWeek,payRate
+			writer.write("# ");
+			writer.write(position.getPositionName());
+			writer.write(',');
+			writer.write(Integer.toString(position.getHoursPerWeek()));
+			writer.write(',');
+			writer.write(Integer.toString(position.getPayRate()));
+			writer.write('\n');
+
+			for (int j = 0; j < applications.size(); j++) {
+				writeApplication(writer, applications.get(j));
+				if (++done % PROGRESS_INTERVAL == 0 && !progress.update(done, total)) {
+					throw new CancellationException();
+				}
+			}
+		}
+		if (!progress.update(done, total)) {
+			throw new CancellationException();
+		}
+	}
+
+	/**
+	 * Writes an Application record to the given writer in the same format as Application.toString().
+	 * @param writer writer the application is written to
+	 * @param application application that is being written
+	 * @throws IOException if the application cannot be written
+	 */
+	private static void writeApplication(Writer writer, Application application) throws IOException {
+		// * id,state,firstName,surname,unityId,reviewerId,note
+		writer.write("* ");
+		writer.write(Integer.toString(application.getId()));
+		writer.write(',');
+		writer.write(application.getState());
+		writer.write(',');
+		writer.write(application.getFirstName());
+		writer.write(',');
+		writer.write(application.getSurname());
+		writer.write(',');
+		writer.write(application.getUnityId());
+		writer.write(',');
+		writer.write(application.getReviewer());
+		writer.write(',');
+		writer.write(application.getNote());
+		writer.write('\n');
 	}
 }
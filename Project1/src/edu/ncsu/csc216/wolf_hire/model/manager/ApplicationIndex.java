@@ -0,0 +1,149 @@
+package edu.ncsu.csc216.wolf_hire.model.manager;
+
+import edu.ncsu.csc216.wolf_hire.model.application.Application;
+
+/**
+ * Map from application id to Application used by Position to find applications in constant time.
+ *
+ * Ids are kept in a primitive int array using open addressing with linear probing, so no Integer or map entry is allocated
+ * per application. Application ids are always positive, which leaves 0 free to mark an empty slot. Removing an entry shifts the
+ * entries that follow it back instead of leaving a tombstone, so lookups never slow down after many deletes.
+ *
+ * @author hmreese2
+ *
+ */
+class ApplicationIndex {
+
+	/** Number of slots in a new index */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** Application id in each slot, 0 if the slot is empty */
+	private int[] ids;
+	/** Application in each slot */
+	private Application[] applications;
+	/** Number of applications in the index */
+	private int size;
+
+	/**
+	 * Constructs an empty index
+	 */
+	ApplicationIndex() {
+		ids = new int[INITIAL_CAPACITY];
+		applications = new Application[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Gets the number of applications in the index
+	 * @return number of applications
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the application with the given id
+	 * @param id application id
+	 * @return application with the id, or null if there is none
+	 */
+	Application get(int id) {
+		if (id <= 0) {
+			return null;
+		}
+		int mask = ids.length - 1;
+		for (int slot = hash(id) & mask; ids[slot] != 0; slot = (slot + 1) & mask) {
+			if (ids[slot] == id) {
+				return applications[slot];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Adds an application to the index, replacing any application with the same id
+	 * @param application application being added
+	 */
+	void put(Application application) {
+		if (size * 2 >= ids.length) {
+			resize(ids.length * 2);
+		}
+
+		int id = application.getId();
+		int mask = ids.length - 1;
+		int slot = hash(id) & mask;
+		while (ids[slot] != 0 && ids[slot] != id) {
+			slot = (slot + 1) & mask;
+		}
+		if (ids[slot] == 0) {
+			size++;
+		}
+		ids[slot] = id;
+		applications[slot] = application;
+	}
+
+	/**
+	 * Removes the application with the given id from the index
+	 * @param id application id
+	 * @return application that was removed, or null if there was none
+	 */
+	Application remove(int id) {
+		if (id <= 0) {
+			return null;
+		}
+		int mask = ids.length - 1;
+		int slot = hash(id) & mask;
+		while (ids[slot] != id) {
+			if (ids[slot] == 0) {
+				return null;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		Application removed = applications[slot];
+		// shift back any following entries whose probe sequence passes through the emptied slot
+		int empty = slot;
+		for (int next = (slot + 1) & mask; ids[next] != 0; next = (next + 1) & mask) {
+			int home = hash(ids[next]) & mask;
+			if (((next - home) & mask) >= ((next - empty) & mask)) {
+				ids[empty] = ids[next];
+				applications[empty] = applications[next];
+				empty = next;
+			}
+		}
+		ids[empty] = 0;
+		applications[empty] = null;
+		size--;
+		return removed;
+	}
+
+	/**
+	 * Moves every application into a table with the given number of slots
+	 * @param capacity number of slots, a power of two
+	 */
+	private void resize(int capacity) {
+		int[] oldIds = ids;
+		Application[] oldApplications = applications;
+		ids = new int[capacity];
+		applications = new Application[capacity];
+		int mask = capacity - 1;
+		for (int i = 0; i < oldIds.length; i++) {
+			if (oldIds[i] != 0) {
+				int slot = hash(oldIds[i]) & mask;
+				while (ids[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				ids[slot] = oldIds[i];
+				applications[slot] = oldApplications[i];
+			}
+		}
+	}
+
+	/**
+	 * Spreads the bits of an id so that consecutive ids do not cluster in neighbouring slots
+	 * @param id application id
+	 * @return hash of the id
+	 */
+	private static int hash(int id) {
+		int h = id * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,318 @@
+package edu.ncsu.csc216.wolf_hire.model.manager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_hire.model.application.Application;
+import edu.ncsu.csc216.wolf_hire.model.application.Application.StateValue;
+
+/**
+ * Cache of the table rows of a Position's applications, as listed by WolfHire.getApplicationsAsArray().
+ *
+ * The rows of every application, and of the applications in each state, are kept in growable arrays in the same order as
+ * the Position's lists once they are first listed. Position passes every change on along with the indexes it made it at,
+ * so each change is made to the arrays in place, the way ArrayList makes it: a command that leaves an application in its
+ * state replaces its row, and adding, deleting, or moving an application to another state shifts the rows after it in
+ * the arrays it is in (as the Position's own lists are shifted). Only the changed row is formatted again, no row is looked
+ * up by id, and no array is copied by a change.
+ *
+ * The arrays kept are never handed out. getRows() hands out a copy of the rows of a list, which it keeps until the list
+ * next changes, so listing the same applications again costs nothing and a caller can keep using an array while the
+ * position changes. Rows are replaced rather than changed, so a copy shares every row with the arrays kept.
+ *
+ * The indexes of the last LOG_SIZE changes are also logged by modification count, so that a view reading rows one at a
+ * time (i.e. WolfHireGUI's table) can be told exactly which of its rows were inserted, deleted, or updated since it last
+ * read them, rather than searching its rows for the change.
+ *
+ * Methods are synchronized since readers holding the position's read lock fill the cache at the same time.
+ *
+ * @author hmreese2
+ *
+ */
+class ApplicationRows {
+
+	/** Number of columns in a row */
+	private static final int COLUMNS = 4;
+	/** Number of changes kept in the log */
+	private static final int LOG_SIZE = 1 << 10;
+	/** Slot of the rows of every application, the slots before it are indexed by StateValue ordinal */
+	private static final int ALL = StateValue.values().length;
+
+	/**
+	 * Rows of the applications in each state by StateValue ordinal, then of every application, followed by unused capacity;
+	 * an entry is null until listed
+	 */
+	private final String[][][] lists = new String[ALL + 1][][];
+	/** Number of rows in each array of lists */
+	private final int[] sizes = new int[ALL + 1];
+	/** Copy of the rows of each array of lists handed out by getRows(), or null if it changed since it was last handed out */
+	private final String[][][] handedOut = new String[ALL + 1][][];
+	/** Number of changes made to the applications */
+	private long modificationCount;
+	/**
+	 * Indexes of the last changes, oldest first, the last one made by modificationCount. Each change is
+	 * {index in every application, old slot, old index, new slot, new index}, where the old slot is -1 for an added
+	 * application and the new slot is -1 for a deleted one.
+	 */
+	private final ArrayDeque<int[]> log = new ArrayDeque<int[]>();
+
+	/**
+	 * Gets the rows of the given applications, from the cache if they have been listed before
+	 * @param applications applications of the position, or of one state
+	 * @param state state of the applications, or null if they are every application of the position
+	 * @return one row per application, in the same order, which is shared until the applications change and must not be
+	 * modified
+	 */
+	synchronized String[][] getRows(List<Application> applications, StateValue state) {
+		int slot = slot(state);
+		if (lists[slot] == null) {
+			String[][] list = new String[applications.size()][];
+			for (int i = 0; i < list.length; i++) {
+				list[i] = formatRow(applications.get(i));
+			}
+			lists[slot] = list;
+			sizes[slot] = list.length;
+		}
+		if (handedOut[slot] == null) {
+			handedOut[slot] = Arrays.copyOf(lists[slot], sizes[slot]);
+		}
+		return handedOut[slot];
+	}
+
+	/**
+	 * Adds the row of an application that was added to the position
+	 * @param application application that was added
+	 * @param index index of the application in the list of every application
+	 * @param stateIndex index of the application in the list of its state
+	 */
+	synchronized void added(Application application, int index, int stateIndex) {
+		log(index, -1, -1, slot(application.getStateValue()), stateIndex);
+		String[] row = formatRow(application);
+		insert(ALL, index, row);
+		insert(slot(application.getStateValue()), stateIndex, row);
+	}
+
+	/**
+	 * Replaces the row of an application a command was executed on, moving it to the rows of its new state if it changed state
+	 * @param application application that changed
+	 * @param index index of the application in the list of every application
+	 * @param oldState state the application was in before the change
+	 * @param oldIndex index of the application in the list of oldState before the change
+	 * @param newIndex index of the application in the list of its current state
+	 */
+	synchronized void changed(Application application, int index, StateValue oldState, int oldIndex, int newIndex) {
+		log(index, slot(oldState), oldIndex, slot(application.getStateValue()), newIndex);
+		String[] row = formatRow(application);
+		set(ALL, index, row);
+		if (oldState == application.getStateValue()) {
+			set(slot(oldState), oldIndex, row);
+		} else {
+			remove(slot(oldState), oldIndex);
+			insert(slot(application.getStateValue()), newIndex, row);
+		}
+	}
+
+	/**
+	 * Removes the row of an application that was deleted from the position
+	 * @param state state the application was in
+	 * @param index index the application had in the list of every application
+	 * @param stateIndex index the application had in the list of its state
+	 */
+	synchronized void removed(StateValue state, int index, int stateIndex) {
+		log(index, slot(state), stateIndex, -1, -1);
+		remove(ALL, index);
+		remove(slot(state), stateIndex);
+	}
+
+	/**
+	 * Rebuilds the rows after every application of the position was replaced at once (i.e. by Position.mergeFrom()).
+	 * The rows of every application are rebuilt at once, keeping the rows of the applications that are in both lists;
+	 * the rows of each state are listed again when they are next asked for. The log is cleared, since the change
+	 * cannot be told row by row.
+	 * @param previous applications before the change, in id order
+	 * @param current applications after the change, in id order
+	 */
+	synchronized void replaced(List<Application> previous, List<Application> current) {
+		modificationCount++;
+		log.clear();
+		String[][] old = lists[ALL];
+		Arrays.fill(lists, null);
+		Arrays.fill(sizes, 0);
+		Arrays.fill(handedOut, null);
+		if (old == null) {
+			return;
+		}
+
+		// both lists are in id order, so a kept application is found by walking them together
+		String[][] rebuilt = new String[current.size()][];
+		int j = 0;
+		for (int i = 0; i < rebuilt.length; i++) {
+			Application application = current.get(i);
+			while (j < previous.size() && previous.get(j).getId() < application.getId()) {
+				j++;
+			}
+			rebuilt[i] = j < previous.size() && previous.get(j) == application ? old[j] : formatRow(application);
+		}
+		lists[ALL] = rebuilt;
+		sizes[ALL] = rebuilt.length;
+	}
+
+	/**
+	 * Gets the number of changes made to the applications, which changes whenever a row may have changed
+	 * @return number of changes
+	 */
+	synchronized long getModificationCount() {
+		return modificationCount;
+	}
+
+	/**
+	 * Gets the rows inserted, deleted, and updated by the changes after since, up to and including until, in the order
+	 * they were made. A change that does not touch the listed rows has no row change.
+	 * @param state state of the applications listed, or null for every application
+	 * @param since modification count the rows were last read at
+	 * @param until modification count the rows are brought up to, at most getModificationCount()
+	 * @return row changes, or null if the changes are no longer logged
+	 */
+	synchronized RowChange[] getChanges(StateValue state, long since, long until) {
+		if (since < 0 || since > until || until > modificationCount || modificationCount - since > log.size()) {
+			return null;
+		}
+		int viewSlot = slot(state);
+		ArrayList<RowChange> rowChanges = new ArrayList<RowChange>();
+		// the log ends at modificationCount, so the changes after since are its last modificationCount - since entries
+		Iterator<int[]> changes = log.iterator();
+		for (long skipped = log.size() - (modificationCount - since); skipped > 0; skipped--) {
+			changes.next();
+		}
+		for (long count = since; count < until; count++) {
+			int[] change = changes.next();
+			int oldSlot = change[1];
+			int newSlot = change[3];
+			if (viewSlot == ALL) {
+				RowChange.Type type = oldSlot == -1 ? RowChange.Type.INSERTED : newSlot == -1 ? RowChange.Type.DELETED : RowChange.Type.UPDATED;
+				rowChanges.add(new RowChange(type, change[0]));
+			} else if (oldSlot == viewSlot && newSlot == viewSlot) {
+				rowChanges.add(new RowChange(RowChange.Type.UPDATED, change[2]));
+			} else if (oldSlot == viewSlot) {
+				rowChanges.add(new RowChange(RowChange.Type.DELETED, change[2]));
+			} else if (newSlot == viewSlot) {
+				rowChanges.add(new RowChange(RowChange.Type.INSERTED, change[4]));
+			}
+		}
+		return rowChanges.toArray(new RowChange[rowChanges.size()]);
+	}
+
+	/**
+	 * Gets the row of a single application without listing the rows it is in, so that reading rows one at a time
+	 * (i.e. as a table scrolls) does not keep a row for every application
+	 * @param state state of the applications listed, or null for every application
+	 * @param index index of the application in the list of state
+	 * @param allIndex index of the application in the list of every application
+	 * @param application application of the row
+	 * @return cached row of the application, or a new one if it is not cached
+	 */
+	synchronized String[] peekRow(StateValue state, int index, int allIndex, Application application) {
+		String[][] cached = lists[slot(state)];
+		if (cached != null) {
+			return cached[index];
+		}
+		return lists[ALL] != null ? lists[ALL][allIndex] : formatRow(application);
+	}
+
+	/**
+	 * Gets the slot of the rows of a state in lists
+	 * @param state state of the applications, or null for every application
+	 * @return index into lists
+	 */
+	private static int slot(StateValue state) {
+		return state == null ? ALL : state.ordinal();
+	}
+
+	/**
+	 * Counts a change and logs its indexes, dropping the oldest change once LOG_SIZE are logged
+	 * @param index index of the application in the list of every application
+	 * @param oldSlot slot the application was listed in before the change, or -1 if it was added
+	 * @param oldIndex index of the application in the list of oldSlot before the change
+	 * @param newSlot slot the application is listed in after the change, or -1 if it was deleted
+	 * @param newIndex index of the application in the list of newSlot after the change
+	 */
+	private void log(int index, int oldSlot, int oldIndex, int newSlot, int newIndex) {
+		modificationCount++;
+		if (log.size() == LOG_SIZE) {
+			log.removeFirst();
+		}
+		log.addLast(new int[] { index, oldSlot, oldIndex, newSlot, newIndex });
+	}
+
+	/**
+	 * Replaces a row of a listed array in place
+	 * @param slot slot of the array
+	 * @param index index of the row
+	 * @param row new row
+	 */
+	private void set(int slot, int index, String[] row) {
+		String[][] list = lists[slot];
+		if (list == null) {
+			return;
+		}
+		list[index] = row;
+		handedOut[slot] = null;
+	}
+
+	/**
+	 * Inserts a row into a listed array, shifting the rows after it and growing the array if it is full
+	 * @param slot slot of the array
+	 * @param index index the row is inserted at
+	 * @param row row being inserted
+	 */
+	private void insert(int slot, int index, String[] row) {
+		String[][] list = lists[slot];
+		if (list == null) {
+			return;
+		}
+		int size = sizes[slot];
+		if (size == list.length) {
+			list = Arrays.copyOf(list, Math.max(size + (size >> 1), size + 1));
+			lists[slot] = list;
+		}
+		System.arraycopy(list, index, list, index + 1, size - index);
+		list[index] = row;
+		sizes[slot] = size + 1;
+		handedOut[slot] = null;
+	}
+
+	/**
+	 * Removes a row from a listed array, shifting the rows after it
+	 * @param slot slot of the array
+	 * @param index index of the row being removed
+	 */
+	private void remove(int slot, int index) {
+		String[][] list = lists[slot];
+		if (list == null) {
+			return;
+		}
+		int size = sizes[slot] - 1;
+		System.arraycopy(list, index + 1, list, index, size - index);
+		// clear the unused slot so the removed row can be collected
+		list[size] = null;
+		sizes[slot] = size;
+		handedOut[slot] = null;
+	}
+
+	/**
+	 * Formats the row of an application
+	 * @param application application of the row
+	 * @return new row of id, state, unityId, and reviewer
+	 */
+	private static String[] formatRow(Application application) {
+		String[] row = new String[COLUMNS];
+		row[0] = Integer.toString(application.getId());
+		row[1] = application.getState();
+		row[2] = application.getUnityId();
+		row[3] = application.getReviewer();
+		return row;
+	}
+}
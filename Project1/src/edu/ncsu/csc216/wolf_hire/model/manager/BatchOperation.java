@@ -0,0 +1,78 @@
+package edu.ncsu.csc216.wolf_hire.model.manager;
+
+import edu.ncsu.csc216.wolf_hire.model.command.Command;
+
+/**
+ * One operation of a batch executed by WolfHire.executeCommands(): a Command issued to the application with the given id
+ * in the position with the given name.
+ *
+ * @author hmreese2
+ *
+ */
+public class BatchOperation {
+
+	/**
+	 * Enumeration of the outcome of each operation of a batch
+	 * @author hmreese2
+	 *
+	 */
+	public enum Result {
+		/** The command was executed */
+		EXECUTED,
+		/** There is no position with the operation's position name */
+		NO_POSITION,
+		/** There is no application with the operation's id in the position */
+		NO_APPLICATION,
+		/** The command is not a valid transition for the application's state */
+		INVALID_COMMAND,
+		/** The command was not executed because another operation of an all-or-nothing batch failed */
+		NOT_EXECUTED
+	}
+
+	/** Name of the position the application is in */
+	private String positionName;
+	/** Id of the application the command is issued to */
+	private int id;
+	/** Command being issued */
+	private Command command;
+
+	/**
+	 * Constructs a BatchOperation
+	 * @param positionName name of the position the application is in
+	 * @param id id of the application the command is issued to
+	 * @param command command being issued
+	 * @throws IllegalArgumentException with message "Invalid information." if positionName or command is null
+	 */
+	public BatchOperation(String positionName, int id, Command command) {
+		if (positionName == null || command == null) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		this.positionName = positionName;
+		this.id = id;
+		this.command = command;
+	}
+
+	/**
+	 * Gets the name of the position the application is in
+	 * @return name of position
+	 */
+	public String getPositionName() {
+		return positionName;
+	}
+
+	/**
+	 * Gets the id of the application the command is issued to
+	 * @return id of application
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Gets the command being issued
+	 * @return command
+	 */
+	public Command getCommand() {
+		return command;
+	}
+}
@@ -0,0 +1,54 @@
+package edu.ncsu.csc216.wolf_hire.model.manager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out the ids of new applications in a Position.
+ *
+ * The next free id is kept in an AtomicInteger: allocating takes it with a single increment, and ids of applications added
+ * with an id of their own raise it with a compare-and-set loop that keeps the larger value. Ids are therefore never handed
+ * out twice, even to threads adding applications at the same time, and are not reused after the application is deleted.
+ *
+ * @author hmreese2
+ *
+ */
+class IdAllocator {
+
+	/** Next id that is handed out */
+	private final AtomicInteger next = new AtomicInteger(1);
+
+	/**
+	 * Takes the next free id
+	 * @return id for a new application
+	 */
+	int allocate() {
+		return next.getAndIncrement();
+	}
+
+	/**
+	 * Gives back an id that was allocated but not used, if no id has been allocated since
+	 * @param id id returned by allocate()
+	 */
+	void release(int id) {
+		next.compareAndSet(id + 1, id);
+	}
+
+	/**
+	 * Records an id that is in use, so that it is never allocated
+	 * @param id id of an application
+	 */
+	void observe(int id) {
+		int current = next.get();
+		while (current <= id && !next.compareAndSet(current, id + 1)) {
+			current = next.get();
+		}
+	}
+
+	/**
+	 * Gets the next id that would be allocated
+	 * @return next free id
+	 */
+	int peek() {
+		return next.get();
+	}
+}
@@ -1,9 +1,12 @@
 package edu.ncsu.csc216.wolf_hire.model.manager;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import edu.ncsu.csc216.wolf_hire.model.application.Application;
+import edu.ncsu.csc216.wolf_hire.model.application.Application.StateValue;
 import edu.ncsu.csc216.wolf_hire.model.command.Command;
 
 /**
@@ -12,6 +15,25 @@ import edu.ncsu.csc216.wolf_hire.model.command.Command;
  * 
  * A Position object knows its name, hours per work, and pay rate, as well as its list of applications.
  * 
+ * Alongside the list ordered by id, applications are indexed by id so that finding, updating, or deleting an application
+ * does not scan the list. The list is only changed through Position, which keeps the two in step.
+ * 
+ * New applications are inserted at the spot found by a binary search on id, so adding an application never re-sorts the list,
+ * and applications read in id order (as they are saved) are simply appended.
+ * 
+ * Applications are also grouped by state, each group in the same order as the list, so listing or counting the applications
+ * in one state does not scan the whole list. Commands must be executed through executeCommand() to keep the groups up to date.
+ * 
+ * The rows listed by WolfHire.getApplicationsAsArray() are cached by ApplicationRows, which every change goes through
+ * Position to patch, along with the indexes the change was made at.
+ * 
+ * Each position numbers its own new applications with an IdAllocator, so adding an application never depends on a counter
+ * shared with other positions, and switching positions does not need to look for the highest id.
+ * 
+ * Position does no locking itself. When a position is shared between threads, as WolfHire does, every change must be made
+ * while holding the write lock from getLock(), and the lists handed out by getApplications() and getApplicationsByState()
+ * must only be read while holding its read lock.
+ * 
  * @author hmreese2
  *
  */
@@ -19,12 +41,26 @@ public class Position {
 
 	/** List of applications that correspond to a Position */
 	private ArrayList<Application> applications;
+	/** Read-only view of applications handed out by getApplications() */
+	private List<Application> applicationsView;
+	/** Applications of the position by id */
+	private ApplicationIndex index;
+	/** Hands out the ids of new applications, always above the id of any application ever added */
+	private final IdAllocator allocator = new IdAllocator();
+	/** Applications in each state, in list order, indexed by StateValue ordinal */
+	private ArrayList<ArrayList<Application>> byState;
+	/** Read-only views of byState handed out by getApplicationsByState() */
+	private ArrayList<List<Application>> byStateViews;
+	/** Cached table rows of the applications */
+	private final ApplicationRows rows = new ApplicationRows();
 	/** Name of Position */
 	private String positionName;
 	/** Hours per week that a position will require */
 	private int hoursPerWeek;
 	/** Pay rate that a position has */
 	private int payRate;
+	/** Lock guarding the applications of the position when it is shared between threads */
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 	
 	/**
 	 * Constructs a Position object using position name, hours per week worked, and pay rate
@@ -44,23 +80,47 @@ public class Position {
 		
 		// create new empty List (can use either ArrayList or LinkedList)
 		applications = new ArrayList<Application>();
+		applicationsView = Collections.unmodifiableList(applications);
+		index = new ApplicationIndex();
+		int states = StateValue.values().length;
+		byState = new ArrayList<ArrayList<Application>>(states);
+		byStateViews = new ArrayList<List<Application>>(states);
+		for (int i = 0; i < states; i++) {
+			byState.add(new ArrayList<Application>());
+			byStateViews.add(Collections.unmodifiableList(byState.get(i)));
+		}
 	}
 	
 	/**
-	 * Sets the counter for the Application instances to the value of 
-	 * the maximum id in the list of Applications for the position + 1 using Application.setCounter().
+	 * Checks the fields of a position by the same rules as the constructor, without constructing it.
+	 * Used by readers to skip invalid records cheaply, since nothing is thrown.
+	 * @param positionName name of position
+	 * @param hoursPerWeek hours a position works per week
+	 * @param payRate rate of pay for position
+	 * @return null if a position can be created with the fields, otherwise the reason it cannot
 	 */
-	public void setApplicationId() {
-		
-		int maxId = 0;
-		// find maxId in list of applications
-		for (int i = 0; i < applications.size(); i++) {
-			if (maxId < applications.get(i).getId()) {
-				maxId = applications.get(i).getId();
-			}
+	public static String validate(String positionName, int hoursPerWeek, int payRate) {
+		if (positionName == null || positionName.length() == 0) {
+			return "Missing position name.";
 		}
-		
-		Application.setCounter(maxId);
+		if (hoursPerWeek < 5 || hoursPerWeek > 20) {
+			return "Hours per week must be from 5 to 20.";
+		}
+		if (payRate < 7 || payRate > 35) {
+			return "Pay rate must be from 7 to 35.";
+		}
+		return null;
+	}
+	
+	/**
+	 * Formerly set the counter for the Application instances to the maximum id of the position + 1.
+	 * Each position now numbers its own applications with an IdAllocator, the only source of their ids, so the shared counter
+	 * is no longer set: setting it for one position would change the ids other code gets from it.
+	 * @deprecated positions number their own applications, use addApplication(String, String, String)
+	 */
+	@Deprecated
+	public void setApplicationId() {
+		// ids come from the position's IdAllocator
 	}
 	
 	/**
@@ -132,6 +192,14 @@ public class Position {
 		return payRate;
 	}
 	
+	/**
+	 * Gets the lock guarding the applications of the position. Readers holding the read lock do not block each other.
+	 * @return read-write lock of the position
+	 */
+	public ReentrantReadWriteLock getLock() {
+		return lock;
+	}
+	
 	/**
 	 * Creates a new application using given fields in the submitted state, 
 	 * adds new application to the list in sorted order, returns new application's id.
@@ -141,10 +209,19 @@ public class Position {
 	 * @return application id of new application added to list
 	 */
 	public int addApplication(String firstName, String surname, String unityId) {
-		// create new application
-		Application a = new Application(firstName, surname, unityId);
-		// add application
+		// create new application with the next id of the position, giving the id back if the application cannot be created
+		int id = allocator.allocate();
+		Application a;
+		try {
+			a = Application.forPosition(id, Application.SUBMITTED_NAME, firstName, surname, unityId, null, null);
+		} catch (IllegalArgumentException e) {
+			allocator.release(id);
+			throw e;
+		}
+		// add application, the new id is always the highest so it goes at the end of the list
 		applications.add(a);
+		index.put(a);
+		rows.added(a, applications.size() - 1, addToState(a));
 		
 		return a.getId();
 	}
@@ -158,34 +235,87 @@ public class Position {
 	 */
 	public int addApplication(Application application) {
 		// check for duplicates - if return value is not null then application already exists in list
-		if (getApplicationById(application.getId()) != null) {
+		if (index.get(application.getId()) != null) {
 			throw new IllegalArgumentException("Application cannot be created.");
 		} 
 		
-		// add applications
-		applications.add(application);
+		// add application in sorted order, appending when it has the highest id
+		int id = application.getId();
+		int position = applications.size();
+		if (position > 0 && applications.get(position - 1).getId() > id) {
+			position = -(search(id) + 1);
+		}
+		applications.add(position, application);
+		index.put(application);
+		allocator.observe(id);
+		rows.added(application, position, addToState(application));
 		
-		// sort added applications by id
-		for (int i = 0; i < applications.size(); i++) {
-			
-			for (int j = applications.size() - 1; j > i; j--) {
-				if (applications.get(i).getId() > applications.get(j).getId()) {
-					Application temp = applications.get(j);
-					applications.remove(j);
-					applications.add(i, temp);
-				}
+		return id;
+	}
+	
+	/**
+	 * Merges a position with the same name, read again from a file, into this one. The hours per week and pay rate are
+	 * taken from source, and so are the applications: applications that are not in source are deleted, ones that are new or
+	 * differ (by their toString()) are taken from source, and ones that are the same are kept, along with their cached rows.
+	 * The lists are rebuilt in one pass, so merging a large position costs the same however many applications changed.
+	 * Used by WolfHire.reloadPositionsFromFile() while holding the write lock.
+	 * @param source position read from the file, which must not be used afterwards
+	 */
+	void mergeFrom(Position source) {
+		setHoursPerWeek(source.hoursPerWeek);
+		setPayRate(source.payRate);
+		
+		ArrayList<Application> merged = new ArrayList<Application>(source.applications.size());
+		boolean changed = source.applications.size() != applications.size();
+		for (int i = 0; i < source.applications.size(); i++) {
+			Application application = source.applications.get(i);
+			Application existing = index.get(application.getId());
+			if (existing != null && existing.toString().equals(application.toString())) {
+				merged.add(existing);
+			} else {
+				merged.add(application);
+				changed = true;
 			}
 		}
+		if (!changed) {
+			return;
+		}
+		
+		// rows of applications that were kept are kept too
+		rows.replaced(applications, merged);
+		ApplicationIndex mergedIndex = new ApplicationIndex();
+		for (int i = 0; i < merged.size(); i++) {
+			mergedIndex.put(merged.get(i));
+		}
 		
-		return application.getId();
+		// source is in id order, so the merged list and each group of a state are too
+		applications.clear();
+		applications.addAll(merged);
+		index = mergedIndex;
+		for (int i = 0; i < byState.size(); i++) {
+			byState.get(i).clear();
+		}
+		for (int i = 0; i < merged.size(); i++) {
+			allocator.observe(merged.get(i).getId());
+			byState.get(merged.get(i).getStateValue().ordinal()).add(merged.get(i));
+		}
 	}
 	
+	/**
+	 * Makes sure the list of applications can hold the given number of applications without growing,
+	 * used when the number of applications being added is known ahead of time (e.g. when reading a snapshot).
+	 * @param capacity number of applications the list should be able to hold
+	 */
+	public void ensureApplicationCapacity(int capacity) {
+		applications.ensureCapacity(capacity);
+	}
+
 	/**
 	 * Gets the list of applications corresponding to the position 
-	 * @return list of applications
+	 * @return read-only list of applications, use addApplication() and deleteApplicationById() to change it
 	 */
 	public List<Application> getApplications() {
-		return applications;
+		return applicationsView;
 	}
 	
 	/**
@@ -194,16 +324,8 @@ public class Position {
 	 * @return application from position list using given id. If there is no application with given id, return null.
 	 */
 	public Application getApplicationById(int id) {
-		// find application matching given id in list
-		for (int i = 0; i < applications.size(); i++) {
-			if (applications.get(i).getId() == id) {
-				// match found!
-				return applications.get(i);
-			}
-		}
-		
-		// if no application can be found, return null
-		return null;
+		// look up application matching given id in index, null if there is none
+		return index.get(id);
 	}
 	
 	/**
@@ -214,7 +336,52 @@ public class Position {
 	 * @throws UnsupportedOperationException with message "Invalid command.", THROWN ORIGINALLY in Application FSM, if command initiates invalid transition.
 	 */
 	public void executeCommand(int id, Command c) {
-		getApplicationById(id).update(c);
+		Application application = index.get(id);
+		StateValue state = application.getStateValue();
+		application.update(c);
+		
+		// move the application to the group of its new state
+		int oldIndex;
+		int newIndex;
+		if (state != application.getStateValue()) {
+			oldIndex = removeFromState(application, state);
+			newIndex = addToState(application);
+		} else {
+			oldIndex = search(byState.get(state.ordinal()), id);
+			newIndex = oldIndex;
+		}
+		rows.changed(application, search(id), state, oldIndex, newIndex);
+	}
+	
+	/**
+	 * Gets the applications in the given state, in the same order as getApplications()
+	 * @param state name of the state
+	 * @return read-only list of applications in the state, empty if state is not the name of a state
+	 */
+	public List<Application> getApplicationsByState(String state) {
+		StateValue stateValue = StateValue.fromStateName(state);
+		if (stateValue == null) {
+			return Collections.emptyList();
+		}
+		return getApplicationsByState(stateValue);
+	}
+	
+	/**
+	 * Gets the applications in the given state, in the same order as getApplications()
+	 * @param state value of the state
+	 * @return read-only list of applications in the state
+	 */
+	public List<Application> getApplicationsByState(StateValue state) {
+		return byStateViews.get(state.ordinal());
+	}
+	
+	/**
+	 * Gets the number of applications in the given state
+	 * @param state name of the state
+	 * @return number of applications in the state, 0 if state is not the name of a state
+	 */
+	public int getApplicationCount(String state) {
+		return getApplicationsByState(state).size();
 	}
 	
 	/**
@@ -222,12 +389,138 @@ public class Position {
 	 * @param id id of application that is being deleted
 	 */
 	public void deleteApplicationById(int id) {
-		// check if id exists in list -> id exists if return value is not null
-		if (getApplicationById(id) == null) {
+		// check if id exists in list -> id exists if removed value is not null
+		Application removed = index.remove(id);
+		if (removed == null) {
 			return; // application DNE so no changes -> exit method
-		} else {
-			applications.remove(getApplicationById(id));
 		}
+		
+		int stateIndex = removeFromState(removed, removed.getStateValue());
+		int position = search(id);
+		applications.remove(position);
+		rows.removed(removed.getStateValue(), position, stateIndex);
+	}
+	
+	/**
+	 * Gets applications as table rows of id, state, unityId, and reviewer. The rows are cached and changed in place as
+	 * applications change, so listing the same applications again costs nothing, and after a change only the changed row
+	 * is formatted and the listed array is copied out of the cache once.
+	 * @param state state of the applications listed, or null to list every application
+	 * @return one row per application, in the same order as getApplications() or getApplicationsByState(),
+	 * which is shared and must not be modified
+	 */
+	public String[][] getApplicationRows(StateValue state) {
+		return rows.getRows(state == null ? applicationsView : getApplicationsByState(state), state);
+	}
+	
+	/**
+	 * Gets one application as a table row of id, state, unityId, and reviewer, for reading rows one at a time
+	 * @param state state of the applications listed, or null to list every application
+	 * @param index index of the row, in the same order as getApplicationRows()
+	 * @return row of the application, which must not be modified, or null if there is no row at the index
+	 */
+	public String[] getApplicationRow(StateValue state, int index) {
+		List<Application> list = state == null ? applicationsView : getApplicationsByState(state);
+		if (index < 0 || index >= list.size()) {
+			return null;
+		}
+		Application application = list.get(index);
+		return rows.peekRow(state, index, state == null ? index : search(application.getId()), application);
+	}
+	
+	/**
+	 * Finds the row of an application
+	 * @param state state of the applications listed, or null to list every application
+	 * @param id id of the application
+	 * @return index of the application's row, in the same order as getApplicationRows(), or -1 if it is not listed
+	 */
+	public int getApplicationRowIndex(StateValue state, int id) {
+		int i = search(state == null ? applicationsView : getApplicationsByState(state), id);
+		return i < 0 ? -1 : i;
+	}
+	
+	/**
+	 * Gets the number of changes made to the applications of the position, so that a view of them can tell whether it
+	 * is out of date
+	 * @return number of applications added, changed, or deleted so far
+	 */
+	public long getModificationCount() {
+		return rows.getModificationCount();
+	}
+	
+	/**
+	 * Gets the rows inserted, deleted, and updated by the changes made after a view last read its rows, so that it can
+	 * update exactly those rows. Only the most recent changes are kept, and a change that replaces every application
+	 * (i.e. mergeFrom()) cannot be told row by row, so a view that is too far behind reads all of its rows again.
+	 * @param state state of the applications listed, or null to list every application
+	 * @param since getModificationCount() when the view last read its rows
+	 * @param until getModificationCount() the view is brought up to
+	 * @return rows inserted, deleted, and updated, in the order the changes were made, or null if the changes are no
+	 * longer known
+	 */
+	public RowChange[] getApplicationRowChanges(StateValue state, long since, long until) {
+		return rows.getChanges(state, since, until);
+	}
+	
+	/**
+	 * Adds an application to the group of its state, keeping the group in list order
+	 * @param application application being added
+	 * @return index the application was added at
+	 */
+	private int addToState(Application application) {
+		ArrayList<Application> group = byState.get(application.getStateValue().ordinal());
+		int id = application.getId();
+		int position = group.size();
+		if (position > 0 && group.get(position - 1).getId() > id) {
+			position = -(search(group, id) + 1);
+		}
+		group.add(position, application);
+		return position;
+	}
+	
+	/**
+	 * Removes an application from the group of a state
+	 * @param application application being removed
+	 * @param state state the application was in
+	 * @return index the application was removed from
+	 */
+	private int removeFromState(Application application, StateValue state) {
+		ArrayList<Application> group = byState.get(state.ordinal());
+		int position = search(group, application.getId());
+		group.remove(position);
+		return position;
+	}
+	
+	/**
+	 * Binary searches the sorted list of applications for an id
+	 * @param id application id being searched for
+	 * @return index of the application with the id, or (-(insertion point) - 1) if there is none
+	 */
+	private int search(int id) {
+		return search(applications, id);
+	}
+	
+	/**
+	 * Binary searches a list of applications sorted by id for an id
+	 * @param list list being searched
+	 * @param id application id being searched for
+	 * @return index of the application with the id, or (-(insertion point) - 1) if there is none
+	 */
+	private static int search(List<Application> list, int id) {
+		int low = 0;
+		int high = list.size() - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int midId = list.get(mid).getId();
+			if (midId < id) {
+				low = mid + 1;
+			} else if (midId > id) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
 	}
 	
 	/**
@@ -240,16 +533,15 @@ public class Position {
 		// * id,state,fistName,surname,unityId,reviewerId,note
 		// * ...
 		
-		String position = "# " + positionName + "," + hoursPerWeek + "," + payRate;
-		String application = "";
-		for (int i = 0; i < applications.size(); i++) {
-			application = application + applications.get(i).toString() + "\n";
+		if (applications.size() == 0) {
+			return "";
 		}
 		
-		if ("".equals(application)) {
-			return "";
-		} else {
-			return position + "\n" + application;
+		StringBuilder position = new StringBuilder("# ").append(positionName).append(",").append(hoursPerWeek).append(",").append(payRate).append("\n");
+		for (int i = 0; i < applications.size(); i++) {
+			position.append(applications.get(i).toString()).append("\n");
 		}
+		
+		return position.toString();
 	}
 }
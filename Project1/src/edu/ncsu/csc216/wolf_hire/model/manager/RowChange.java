@@ -0,0 +1,56 @@
+package edu.ncsu.csc216.wolf_hire.model.manager;
+
+/**
+ * A row of the listed applications of a position that was inserted, updated, or deleted by one change to the applications,
+ * as given by WolfHire.getApplicationRowChanges() so that a view reading rows one at a time can update exactly that row.
+ *
+ * @author hmreese2
+ *
+ */
+public class RowChange {
+
+	/**
+	 * Enumeration of what a change did to a row
+	 * @author hmreese2
+	 *
+	 */
+	public enum Type {
+		/** A row was inserted at the index, moving the rows from the index on down by one */
+		INSERTED,
+		/** The row at the index was replaced */
+		UPDATED,
+		/** The row at the index was deleted, moving the rows after it up by one */
+		DELETED
+	}
+
+	/** What the change did to the row */
+	private final Type type;
+	/** Index of the row just after the change, or just before it for a deleted row */
+	private final int index;
+
+	/**
+	 * Constructs a RowChange
+	 * @param type what the change did to the row
+	 * @param index index of the row just after the change, or just before it for a deleted row
+	 */
+	RowChange(Type type, int index) {
+		this.type = type;
+		this.index = index;
+	}
+
+	/**
+	 * Gets what the change did to the row
+	 * @return type of the change
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the index of the row
+	 * @return index of the row just after the change, or just before it for a deleted row
+	 */
+	public int getIndex() {
+		return index;
+	}
+}
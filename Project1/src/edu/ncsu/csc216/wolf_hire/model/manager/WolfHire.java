@@ -1,11 +1,30 @@
 package edu.ncsu.csc216.wolf_hire.model.manager;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import edu.ncsu.csc216.wolf_hire.model.application.Application;
+import edu.ncsu.csc216.wolf_hire.model.application.Application.StateValue;
 import edu.ncsu.csc216.wolf_hire.model.command.Command;
+import edu.ncsu.csc216.wolf_hire.model.io.CommandJournal;
+import edu.ncsu.csc216.wolf_hire.model.io.IOProgress;
+import edu.ncsu.csc216.wolf_hire.model.io.PositionBlockIndex;
 import edu.ncsu.csc216.wolf_hire.model.io.PositionReader;
 import edu.ncsu.csc216.wolf_hire.model.io.PositionWriter;
+import edu.ncsu.csc216.wolf_hire.model.io.PositionWriter.Durability;
 
 /**
  * Concrete class that maintains a list of Positions and their associated application lists, the active position, and handles
@@ -15,24 +34,58 @@ import edu.ncsu.csc216.wolf_hire.model.io.PositionWriter;
  * Singleton Design Pattern means that only one instance of, in this case WolfHire, can ever be created. It ensures that all parts of WolgHireGUI are interacting
  * with the same WolfHire instance at all times.
  * 
+ * WolfHire can be shared between threads. Besides the methods working on the activePosition, which the GUI uses, every operation
+ * can address a position by name. Each Position has its own read-write lock: reading applications takes the read lock, so readers
+ * never block each other, and changing them takes the write lock, so writers on different positions run in parallel. The list of
+ * positions is copied on write and can be read without locking.
+ * Positions are also indexed by name, and their names kept as an array, so finding a position or listing the names does not
+ * go through the list. Saving and compacting the journal read-lock every position,
+ * always in list order, as do batches of commands with write locks, so no two threads can wait on each other in a cycle.
+ * A compaction only holds the read locks while the positions are written out; forcing the snapshot to disk and replacing the
+ * journal happen after they are released. Compactions started by a full journal run on a background thread, one at a time.
+ * 
  * @author hmreese2
  *
  */
 public class WolfHire {
 	
-	/** ArrayList of Position type that holds the list of positions */
-	private ArrayList<Position> positions;
+	/** List of positions, copied on write so that it can be read without locking */
+	private volatile CopyOnWriteArrayList<Position> positions;
+	/** Positions by name, the first position in the list with each name if several have it */
+	private volatile ConcurrentHashMap<String, Position> positionsByName;
+	/** Names of positions in list order, copied by getPositionList() */
+	private volatile String[] positionNames;
 	/** Represents the active position in the WolfHire system */
-	private Position activePosition;
+	private volatile Position activePosition;
 	/** Single instance of WolfHire that represents Singleton design pattern */
 	private static WolfHire singleton;
+	/** How durable a save is once savePositionsToFile() returns */
+	private Durability saveDurability = Durability.FSYNC;
+	/** Default number of journal records after which the journal is compacted into its snapshot */
+	public static final int DEFAULT_COMPACTION_THRESHOLD = 10000;
+	/** Journal every change is appended to, or null if changes are not journaled */
+	private volatile CommandJournal journal;
+	/** Number of journal records after which the journal is compacted into its snapshot */
+	private volatile int compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+	/** Lock held while positions are added or replaced (along with their index and names), or the journal is replaced or compacted */
+	private final Object structureLock = new Object();
+	/** Runs the compactions started by compactIfNeeded() one at a time, so the change that fills the journal does not wait for them */
+	private final ThreadPoolExecutor compactor = newCompactor();
+	/** Whether a compaction has been handed to compactor and has not started yet */
+	private final AtomicBoolean compactionQueued = new AtomicBoolean();
+	/** Counts and times of hot-path operations, disabled until enabled through getMetrics() */
+	private final WolfHireMetrics metrics = new WolfHireMetrics();
+	/** Name of the file last reloaded by reloadPositionsFromFile(), or null if none has been */
+	private String reloadFileName;
+	/** Fingerprints of the blocks of reloadFileName when it was last reloaded, guarded by structureLock */
+	private PositionBlockIndex reloadIndex;
 
 	/**
 	 * Private constructor for WolfHire, utilizes Singleton Design Pattern for construction.
 	 * Is called when singleton is null, return singleton instance
 	 */
 	private WolfHire() {
-		this.positions = new ArrayList<Position>();
+		setPositions(new ArrayList<Position>());
 		this.activePosition = getActivePosition();
 	}
 	
@@ -42,7 +95,7 @@ public class WolfHire {
 	 * getInstance() checks if the singleton is null. If it is, getInstance() calls private WolfHire() constructor to create single instance.
 	 * @return a single instance of WolfHire using the singleton design pattern
 	 */
-	public static WolfHire getInstance() {
+	public static synchronized WolfHire getInstance() {
 		if (singleton == null) {
 			singleton = new WolfHire();
 		}
@@ -55,49 +108,392 @@ public class WolfHire {
 	 * The first position in the list returned from PositionReader is made the activePosition.
 	 * 
 	 * Works closely with PositionReader io class to correctly load in file and file contents.
+	 * Positions are added even if positions with the same names are already in the system; reloadPositionsFromFile()
+	 * merges them by name instead.
 	 * 
 	 * @param fileName name of file that is being loaded
 	 */
 	public void loadPositionsFromFile(String fileName) {
 		try {
-			// if list is currently empty, add loaded list read from file
-			if (positions == null) {
-				this.positions = PositionReader.readPositionFile(fileName);
-				this.activePosition = positions.get(0);
-			} else {
-				// if list is not currently empty, add loaded list to rest of positions list
-				ArrayList<Position> list = PositionReader.readPositionFile(fileName);
-				for (int i = 0; i < list.size(); i++) {
-					this.positions.add(list.get(i));
+			addPositions(readPositionsFromFile(fileName, IOProgress.NONE));
+		} catch (Exception e) {
+			// exception throw in PositionReader class
+		}
+	}
+	
+	/**
+	 * Reads positions from a file without adding them to the system, so that a large file can be read on another thread
+	 * (i.e. off the GUI's event dispatch thread) and then added all at once with addPositions().
+	 * @param fileName name of file that is being loaded
+	 * @param progress receives the number of bytes read out of the size of the file, and can cancel the read
+	 * @return positions read from the file
+	 * @throws IllegalArgumentException with message "Unable to load file [fileName]" if the file cannot be loaded
+	 * @throws java.util.concurrent.CancellationException if progress cancels the read
+	 */
+	public List<Position> readPositionsFromFile(String fileName, IOProgress progress) {
+		long start = metrics.start();
+		try {
+			ArrayList<Position> list = new ArrayList<Position>();
+			PositionReader.readPositionFile(fileName, list::add, progress);
+			return list;
+		} finally {
+			WolfHireMetrics.stop(metrics.load, start);
+		}
+	}
+	
+	/**
+	 * Adds positions to the end of the positions list and makes the first of them the activePosition, as
+	 * loadPositionsFromFile() does. The list is swapped for one with the new positions in a single step, so other threads
+	 * see either none or all of them. Nothing happens if there are no positions to add.
+	 * @param list positions being added
+	 */
+	public void addPositions(List<Position> list) {
+		if (list == null || list.size() == 0) {
+			return;
+		}
+		synchronized (structureLock) {
+			// add loaded list to rest of positions list, copying the list once
+			this.positions.addAll(list);
+			positionsAdded(list);
+			this.activePosition = list.get(0);
+			
+			// loaded positions cannot be journaled record by record, so fold them straight into the snapshot
+			CommandJournal current = journal;
+			if (current != null) {
+				compact(current);
+			}
+		}
+	}
+	
+	/**
+	 * Re-syncs positions with a file, parsing only the position blocks that changed since the file was last reloaded.
+	 * 
+	 * Each position block (a position line and its applications) is fingerprinted by PositionReader.readChangedPositions().
+	 * The positions of changed blocks are merged into the positions with the same names, or added to the end of the list if
+	 * there is no position with the name, and positions whose blocks were reloaded last time but are no longer in the file
+	 * are removed. Positions of unchanged blocks are left as they are, along with any changes made to them since the last
+	 * reload. The first reload of a file, or of a different file than last time, parses every block and removes nothing.
+	 * 
+	 * The activePosition stays the same unless it was removed, in which case the first position in the file is made active.
+	 * Structural changes (i.e. adding positions) wait for the reload, and commands wait on the positions being merged.
+	 * As with addPositions(), the merged positions are folded straight into the journal's snapshot.
+	 * 
+	 * @param fileName name of file that is being reloaded
+	 * @return fingerprints of the blocks of the file, which tell how many were parsed
+	 * @throws IllegalArgumentException with message "Unable to load file [fileName]" if the file cannot be loaded
+	 */
+	public PositionBlockIndex reloadPositionsFromFile(String fileName) {
+		long start = metrics.start();
+		try {
+			synchronized (structureLock) {
+				PositionBlockIndex previous = fileName.equals(reloadFileName) ? reloadIndex : null;
+				ArrayList<Position> changed = new ArrayList<Position>();
+				PositionBlockIndex index = PositionReader.readChangedPositions(fileName, previous, changed::add);
+				
+				// merge changed positions by name, a name that is in several blocks is taken from the first of them
+				ArrayList<Position> added = new ArrayList<Position>();
+				HashSet<String> merged = new HashSet<String>();
+				for (int i = 0; i < changed.size(); i++) {
+					Position source = changed.get(i);
+					if (!merged.add(source.getPositionName())) {
+						continue;
+					}
+					Position position = findPosition(source.getPositionName());
+					if (position == null) {
+						added.add(source);
+						continue;
+					}
+					position.getLock().writeLock().lock();
+					try {
+						position.mergeFrom(source);
+					} finally {
+						position.getLock().writeLock().unlock();
+					}
+				}
+				
+				// remove positions whose blocks are gone, then add new positions to the end
+				HashSet<String> removed = new HashSet<String>();
+				if (previous != null) {
+					removed.addAll(previous.getPositionNames());
+					removed.removeAll(index.getPositionNames());
+				}
+				if (removed.size() > 0) {
+					ArrayList<Position> list = new ArrayList<Position>(positions);
+					list.removeIf(p -> removed.contains(p.getPositionName()));
+					list.addAll(added);
+					setPositions(list);
+				} else if (added.size() > 0) {
+					this.positions.addAll(added);
+					positionsAdded(added);
 				}
 				
-				this.activePosition = list.get(0);
+				Position active = activePosition;
+				if (active == null || removed.contains(active.getPositionName())) {
+					Iterator<String> names = index.getPositionNames().iterator();
+					this.activePosition = names.hasNext() ? findPosition(names.next()) : null;
+				}
+				this.reloadFileName = fileName;
+				this.reloadIndex = index;
+				
+				// reloaded positions cannot be journaled record by record, so fold them straight into the snapshot
+				CommandJournal current = journal;
+				if (current != null && (changed.size() > 0 || removed.size() > 0)) {
+					compact(current);
+				}
+				return index;
 			}
-		} catch (Exception e) {
-			// exception throw in PositionReader class
+		} finally {
+			WolfHireMetrics.stop(metrics.load, start);
+		}
+	}
+	
+	/**
+	 * Recovers positions from a snapshot file and the journal of changes made since the snapshot was written, replacing
+	 * any positions currently in the system. The first position is made the activePosition.
+	 * 
+	 * From then on every change (new positions, new and deleted applications, and executed commands) is appended to the journal,
+	 * and once the journal holds compactionThreshold records it is compacted: the positions are saved to the snapshot file and
+	 * the journal is emptied. As with savePositionsToFile(), positions without any applications are not kept in the snapshot; compaction
+	 * carries them over into the new journal instead, so they survive a restart.
+	 * 
+	 * @param snapshotFile name of the snapshot file, which does not need to exist yet
+	 * @param journalFile name of the journal file, which does not need to exist yet
+	 * @throws IllegalArgumentException with message "Unable to load file [fileName]" if the snapshot or journal cannot be read
+	 */
+	public void recoverPositions(String snapshotFile, String journalFile) {
+		ArrayList<Position> recovered = new ArrayList<Position>();
+		if (snapshotFile != null && new File(snapshotFile).exists()) {
+			recovered = PositionReader.readPositionFile(snapshotFile);
+		}
+		
+		CommandJournal recoveredJournal = new CommandJournal(journalFile, snapshotFile, saveDurability);
+		recoveredJournal.replay(recovered);
+		
+		synchronized (structureLock) {
+			// a compaction still queued for the old journal finds it replaced and does nothing
+			replaceJournal(recoveredJournal);
+			setPositions(recovered);
+			// recovered positions did not come from the reloaded file
+			this.reloadFileName = null;
+			this.reloadIndex = null;
+			this.activePosition = recovered.size() == 0 ? null : recovered.get(0);
+		}
+	}
+	
+	/**
+	 * Compacts the journal now: the positions are saved to the snapshot file and the journal is emptied.
+	 * Nothing happens if changes are not being journaled.
+	 * @throws IllegalArgumentException with message "Unable to save file." if the snapshot or journal cannot be written
+	 */
+	public void compactJournal() {
+		synchronized (structureLock) {
+			CommandJournal current = journal;
+			if (current != null) {
+				compact(current);
+			}
+		}
+	}
+	
+	/**
+	 * Stops journaling changes and closes the journal, once any compaction already started has finished.
+	 * Nothing happens if changes are not being journaled. Must not be called while holding the lock of any position.
+	 */
+	public void closeJournal() {
+		awaitCompaction();
+		synchronized (structureLock) {
+			replaceJournal(null);
+		}
+	}
+	
+	/**
+	 * Waits until the compactions handed to the compactor so far have run
+	 */
+	private void awaitCompaction() {
+		try {
+			compactor.submit(() -> { }).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			// the empty task cannot fail
+		}
+	}
+	
+	/**
+	 * Closes the journal and journals changes to another one from now on. Must be called while holding structureLock.
+	 * @param replacement journal changes are appended to, or null if changes are no longer journaled
+	 */
+	private void replaceJournal(CommandJournal replacement) {
+		CommandJournal current = journal;
+		journal = replacement;
+		if (current != null) {
+			try {
+				current.close();
+			} catch (IOException e) {
+				// every record has already been written
+			}
+		}
+	}
+	
+	/**
+	 * Sets the number of journal records after which the journal is compacted into its snapshot
+	 * @param compactionThreshold number of records, at least 1
+	 * @throws IllegalArgumentException with message "Invalid information." if compactionThreshold is less than 1
+	 */
+	public void setCompactionThreshold(int compactionThreshold) {
+		if (compactionThreshold < 1) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		this.compactionThreshold = compactionThreshold;
+	}
+	
+	/**
+	 * Hands a compaction to the compactor once the journal holds compactionThreshold records, unless one is already queued.
+	 * The change that filled the journal is already appended, so it does not wait for the compaction.
+	 */
+	private void compactIfNeeded() {
+		CommandJournal current = journal;
+		if (current == null || current.size() < compactionThreshold || !compactionQueued.compareAndSet(false, true)) {
+			return;
+		}
+		compactor.execute(() -> {
+			compactionQueued.set(false);
+			synchronized (structureLock) {
+				// the journal may have been compacted or replaced since the compaction was queued
+				if (current == journal && current.size() >= compactionThreshold) {
+					try {
+						compact(current);
+					} catch (IllegalArgumentException e) {
+						// the journal still holds every change, so the compaction is retried once the journal grows
+					}
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Compacts the journal. The positions are written out while holding the read lock of every position, so that no change is
+	 * made between saving the positions and marking the end of the journal; changes made after that are carried over into the
+	 * new journal, so the snapshot is forced to disk and renamed into place without the locks. Must be called while holding
+	 * structureLock.
+	 * @param current journal being compacted
+	 */
+	private void compact(CommandJournal current) {
+		List<Position> list = positions;
+		CommandJournal.Compaction compaction;
+		lockAll(list);
+		try {
+			compaction = current.beginCompaction(list);
+		} finally {
+			unlockAll(list);
+		}
+		try (CommandJournal.Compaction started = compaction) {
+			current.finishCompaction(started);
+		}
+	}
+	
+	/**
+	 * Creates the single-thread executor compactions run on. Its thread is a daemon, since the journal holds every change a
+	 * compaction that never ran would have saved, and it ends once idle, so discarded WolfHire instances do not keep threads.
+	 * @return new executor
+	 */
+	private static ThreadPoolExecutor newCompactor() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), r -> {
+			Thread thread = new Thread(r, "WolfHire journal compaction");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+	
+	/**
+	 * Takes the read lock of every position in the list, in list order
+	 * @param list positions being locked
+	 */
+	private static void lockAll(List<Position> list) {
+		for (int i = 0; i < list.size(); i++) {
+			list.get(i).getLock().readLock().lock();
+		}
+	}
+	
+	/**
+	 * Releases the read lock of every position in the list
+	 * @param list positions being unlocked
+	 */
+	private static void unlockAll(List<Position> list) {
+		for (int i = list.size() - 1; i >= 0; i--) {
+			list.get(i).getLock().readLock().unlock();
 		}
 	}
 	
 	/**
 	 * Saves positions to a file.
-	 * Works closely with PositionWriter io class to correctly write list of positions contents to file
+	 * Works closely with PositionWriter io class to correctly write list of positions contents to file.
+	 * The file is replaced atomically, so it either keeps its old contents or has all of the new ones, even if the save is interrupted.
 	 * @param fileName name of file being written to
 	 * @throws IllegalArgumentException with message "Unable to save file." if activePosition is null, or issue in saving file (thrown in PositionWriter).
 	 */
 	public void savePositionsToFile(String fileName) {
+		savePositionsToFile(fileName, IOProgress.NONE);
+	}
+	
+	/**
+	 * Saves positions to a file like savePositionsToFile(String), reporting the number of applications written.
+	 * Positions can be read by other threads during the save, but changes to them wait until it is done.
+	 * @param fileName name of file being written to
+	 * @param progress receives the number of applications written out of the number being saved, and can cancel the save
+	 * @throws IllegalArgumentException with message "Unable to save file." if activePosition is null, or issue in saving file
+	 * @throws java.util.concurrent.CancellationException if progress cancels the save, in which case the file is left untouched
+	 */
+	public void savePositionsToFile(String fileName, IOProgress progress) {
 		// check for null activePosition
 		if (activePosition == null) {
 			throw new IllegalArgumentException("Unable to save file.");
 		}
 		
-		// save positions to file
+		// save positions to file - IAE is thrown in PositionWriter if the file cannot be saved
+		long start = metrics.start();
+		// positions can be added during the save, so the same snapshot of the list is locked, written, and unlocked
+		List<Position> list = new ArrayList<Position>(positions);
+		lockAll(list);
 		try {
-			PositionWriter.writePositionsToFile(fileName, positions);
-		} catch (Exception e) {
-			// thrown in PositionWriter
+			PositionWriter.writePositionsToFileAtomically(fileName, list, saveDurability, progress);
+		} finally {
+			unlockAll(list);
+			WolfHireMetrics.stop(metrics.save, start);
 		}
 	}
 	
+	/**
+	 * Gets the metrics of the hot-path operations: loading and saving files, adding applications, executing commands (other
+	 * than batches), and listing applications. They are disabled until WolfHireMetrics.setEnabled(true) is called.
+	 * @return metrics of this WolfHire
+	 */
+	public WolfHireMetrics getMetrics() {
+		return metrics;
+	}
+	
+	/**
+	 * Sets how durable a save is once savePositionsToFile() returns, trading save latency against the chance of losing
+	 * the save if the machine crashes. Saves are forced to disk (FSYNC) by default.
+	 * @param saveDurability durability of future saves
+	 * @throws IllegalArgumentException with message "Invalid information." if saveDurability is null
+	 */
+	public void setSaveDurability(Durability saveDurability) {
+		if (saveDurability == null) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		this.saveDurability = saveDurability;
+	}
+	
+	/**
+	 * Gets how durable a save is once savePositionsToFile() returns
+	 * @return durability of saves
+	 */
+	public Durability getSaveDurability() {
+		return saveDurability;
+	}
+	
 	/**
 	 * Creates a new position with the given info and adds it to the end of the WolfHire Positions list.
 	 * Position is then loaded as the "activePosition" by calling the loadPosition(String positionName) method.
@@ -112,48 +508,111 @@ public class WolfHire {
 			throw new IllegalArgumentException("Position cannot be created.");
 		}
 		
-		// error check for duplicate values
-		for (int i = 0; i < getPositionList().length; i++) {
-			if (positionName.equals(getPositionList()[i])) {
-				throw new IllegalArgumentException("Position cannot be created.");
-			}
-		}
-		
 		// create new position with parameter values
 		Position p = new Position(positionName, hoursPerWeek, payRate);
 		
-		// add to end of position list
-		positions.add(p);
+		synchronized (structureLock) {
+			// error check for duplicate values
+			if (findPosition(positionName) != null) {
+				throw new IllegalArgumentException("Position cannot be created.");
+			}
+			
+			// add to end of position list
+			positions.add(p);
+			positionsAdded(List.of(p));
+			CommandJournal current = journal;
+			if (current != null) {
+				current.appendAddPosition(p);
+			}
+		}
+		compactIfNeeded();
 		
 		// load new position as activePosition
 		loadPosition(positionName);
 	}
 	
 	/**
-	 * Finds Position with the given name in the list, makes it active or activePosition,
-	 * and sets the application id for that position so that any new Applications added to position are 
-	 * created with the next correct id.
+	 * Finds Position with the given name in the list and makes it active or activePosition.
+	 * Each position numbers its own new applications, so nothing has to be reset when switching positions.
 	 * @param positionName name of position being loaded
 	 * @throws IllegalArgumentException with message "Position not available." if there is not position with the given name.
 	 */
 	public void loadPosition(String positionName) {
-		// check if there is position name that matches positionName parameter
-		boolean match = false;
-		for (int i = 0; i < getPositionList().length; i++) {
-			if (positionName.equals(getPositionList()[i])) {
-				match = true;
-				// make position the activePosition
-				this.activePosition = positions.get(i);
-				
-				// set application id for position so that future applications are correctly numbered
-				activePosition.setApplicationId();
-			}
-		}
+		// check if there is position name that matches positionName parameter, if not throw IAE
+		Position position = getPosition(positionName);
 		
-		// if no position name matches, throw IAE
-		if (!match) {
+		// make position the activePosition
+		this.activePosition = position;
+	}
+	
+	/**
+	 * Finds the position with the given name
+	 * @param positionName name of position
+	 * @return position with the name, or null if there is none
+	 */
+	private Position findPosition(String positionName) {
+		return positionName == null ? null : positionsByName.get(positionName);
+	}
+	
+	/**
+	 * Replaces every position, along with the index and names of positions. Must be called while holding structureLock,
+	 * except by the constructor. The new index is filled before it is published, so a lookup that does not hold
+	 * structureLock finds every position in either the old index or the new one, never in an index being filled.
+	 * @param list new positions
+	 */
+	private void setPositions(List<Position> list) {
+		ConcurrentHashMap<String, Position> byName = new ConcurrentHashMap<String, Position>();
+		index(byName, list);
+		this.positions = new CopyOnWriteArrayList<Position>(list);
+		this.positionsByName = byName;
+		listNames();
+	}
+	
+	/**
+	 * Adds positions that were added to the end of the list to the index and names of positions.
+	 * Must be called while holding structureLock, except by the constructor.
+	 * @param added positions that were added
+	 */
+	private void positionsAdded(List<Position> added) {
+		index(positionsByName, added);
+		listNames();
+	}
+	
+	/**
+	 * Adds positions to an index of positions by name, keeping the first position with each name
+	 * @param byName index of positions by name
+	 * @param added positions being indexed
+	 */
+	private static void index(ConcurrentHashMap<String, Position> byName, List<Position> added) {
+		for (int i = 0; i < added.size(); i++) {
+			byName.putIfAbsent(added.get(i).getPositionName(), added.get(i));
+		}
+	}
+	
+	/**
+	 * Lists the names of the positions in list order for getPositionList()
+	 */
+	private void listNames() {
+		List<Position> list = positions;
+		String[] names = new String[list.size()];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = list.get(i).getPositionName();
+		}
+		this.positionNames = names;
+	}
+	
+	/**
+	 * Gets the position with the given name
+	 * @param positionName name of position
+	 * @return position with the name
+	 * @throws IllegalArgumentException with message "Position not available." if there is no position with the given name.
+	 */
+	private Position getPosition(String positionName) {
+		Position position = findPosition(positionName);
+		if (position == null) {
 			throw new IllegalArgumentException("Position not available.");
-		} 
+		}
+		return position;
 	}
 	
 	/**
@@ -161,9 +620,6 @@ public class WolfHire {
 	 * @return activePosition, or null if there is no activePosition.
 	 */
 	public Position getActivePosition() {
-		if (activePosition == null) {
-			return null;
-		}
 		return activePosition;
 	}
 	
@@ -173,30 +629,21 @@ public class WolfHire {
 	 */
 	public String getActivePositionName() {
 		// do null check - if activePosition is null, return null for name
-		if (activePosition == null) {
+		Position position = activePosition;
+		if (position == null) {
 			return null;
 		}
 		
-		return activePosition.getPositionName();
+		return position.getPositionName();
 	}
 	
 	/**
 	 * Gets the list of Positions by name in order they appear as a 1D String array list.
-	 * @return 1D String array list of position names in the order they are listed in positions list. If no positions, return empty list.
+	 * @return new 1D String array list of position names in the order they are listed in positions list. If no positions, return empty list.
 	 */
 	public String[] getPositionList() {
-		// check if list is empty - if so, return empty String[] list
-		if (positions.size() == 0) {
-			return new String[0];
-		}
-		
-		// populate list
-		String[] list = new String[positions.size()];
-		for (int i = 0; i < positions.size(); i++) {
-			list[i] = positions.get(i).getPositionName();
-		}
-		
-		return list;
+		// names are listed whenever positions are added or replaced, and each caller gets its own copy of them
+		return positionNames.clone();
 	}
 	
 	/**
@@ -208,17 +655,59 @@ public class WolfHire {
 	 */
 	public void addApplicationToPosition(String firstName, String surname, String unityId) {
 		// check if activePosition is null
-		if (activePosition == null) {
+		Position position = activePosition;
+		if (position == null) {
 			return;
 		}
 		
 		try {
-			activePosition.addApplication(firstName, surname, unityId);
+			addApplication(position, firstName, surname, unityId);
 		} catch (IllegalArgumentException e) {
 			// thrown in Application class
 		}
 	}
 	
+	/**
+	 * Adds an application to the position with the given name
+	 * @param positionName name of position
+	 * @param firstName first name of applicant that is being added to position
+	 * @param surname last name of applicant
+	 * @param unityId applicant's unityId
+	 * @return id of the new application
+	 * @throws IllegalArgumentException with message "Position not available." if there is no position with the given name, or
+	 * with message "Application cannot be created." in Application class if there is issue constructing application
+	 */
+	public int addApplicationToPosition(String positionName, String firstName, String surname, String unityId) {
+		return addApplication(getPosition(positionName), firstName, surname, unityId);
+	}
+	
+	/**
+	 * Adds an application to a position, numbering it after the applications already in the position
+	 * @param position position the application is added to
+	 * @param firstName first name of applicant
+	 * @param surname last name of applicant
+	 * @param unityId applicant's unityId
+	 * @return id of the new application
+	 * @throws IllegalArgumentException with message "Application cannot be created." if there is issue constructing application
+	 */
+	private int addApplication(Position position, String firstName, String surname, String unityId) {
+		int id;
+		long start = metrics.start();
+		position.getLock().writeLock().lock();
+		try {
+			id = position.addApplication(firstName, surname, unityId);
+			CommandJournal current = journal;
+			if (current != null) {
+				current.appendAddApplication(position.getPositionName(), position.getApplicationById(id));
+			}
+		} finally {
+			position.getLock().writeLock().unlock();
+			WolfHireMetrics.stop(metrics.addApplication, start);
+		}
+		compactIfNeeded();
+		return id;
+	}
+	
 	/**
 	 * Executes a command to a given application by application id
 	 * @param id if of application that is being issued the command
@@ -227,16 +716,204 @@ public class WolfHire {
 	 */
 	public void executeCommand(int id, Command c) {
 		// check if activePosition is null
-		if (activePosition == null) {
+		Position position = activePosition;
+		if (position == null) {
 			return;
 		}
-		// check if there exists application with given id in activePosition
-		if (activePosition.getApplicationById(id) == null) {
+		executeCommand(position, id, c);
+	}
+	
+	/**
+	 * Executes a command to an application in the position with the given name
+	 * @param positionName name of position
+	 * @param id id of application that is being issued the command
+	 * @param c command that is being issued to application
+	 * @throws IllegalArgumentException with message "Position not available." if there is no position with the given name,
+	 * or with message "Invalid information." if id is invalid.
+	 * @throws UnsupportedOperationException with message "Invalid command." if command initiates invalid transition.
+	 */
+	public void executeCommand(String positionName, int id, Command c) {
+		executeCommand(getPosition(positionName), id, c);
+	}
+	
+	/**
+	 * Executes a command to an application in a position
+	 * @param position position of the application
+	 * @param id id of application that is being issued the command
+	 * @param c command that is being issued to application
+	 * @throws IllegalArgumentException with message "Invalid information." if id is invalid.
+	 */
+	private void executeCommand(Position position, int id, Command c) {
+		long start = metrics.start();
+		position.getLock().writeLock().lock();
+		try {
+			// check if there exists application with given id in position
+			if (position.getApplicationById(id) == null) {
+				throw new IllegalArgumentException("Invalid information.");
+			}
+			
+			// execute command through the position so that it can track the application's new state
+			position.executeCommand(id, c);
+			CommandJournal current = journal;
+			if (current != null) {
+				current.appendCommand(position.getPositionName(), id, c);
+			}
+		} finally {
+			position.getLock().writeLock().unlock();
+			if (c != null) {
+				WolfHireMetrics.stop(metrics.executeCommand(c.getCommand()), start);
+			}
+		}
+		compactIfNeeded();
+	}
+	
+	/**
+	 * Executes a batch of commands, each addressed to an application by position name and id, in order.
+	 * Each position name is looked up once for the whole batch, and an operation that fails does not throw: its result says why.
+	 * 
+	 * In all-or-nothing mode the batch is first tried out on copies of the applications it touches. If any operation would fail,
+	 * nothing is changed: the failing operations get their reason and every other operation gets NOT_EXECUTED.
+	 * The trial run is not recorded as state transitions, so each executed command records one transition event.
+	 * Otherwise operations that fail are skipped and the rest of the batch is still executed.
+	 * 
+	 * @param operations operations being executed
+	 * @param allOrNothing true if no command should be executed unless every command can be
+	 * @return result of each operation, in the same order as operations
+	 * @throws IllegalArgumentException with message "Invalid information." if operations is null
+	 */
+	public BatchOperation.Result[] executeCommands(List<BatchOperation> operations, boolean allOrNothing) {
+		if (operations == null) {
 			throw new IllegalArgumentException("Invalid information.");
 		}
 		
-		// execute command
-		activePosition.getApplicationById(id).update(c);
+		// look up each position once for the whole batch, and write-lock every position it touches for the whole batch
+		Position[] targets = new Position[operations.size()];
+		ArrayList<Position> locked = lockTargets(operations, targets);
+		while (locked == null) {
+			// the positions were replaced before they were locked, so they are looked up again
+			locked = lockTargets(operations, targets);
+		}
+		BatchOperation.Result[] results;
+		try {
+			results = executeLocked(operations, targets, allOrNothing);
+		} finally {
+			for (int i = locked.size() - 1; i >= 0; i--) {
+				locked.get(i).getLock().writeLock().unlock();
+			}
+		}
+		compactIfNeeded();
+		
+		return results;
+	}
+	
+	/**
+	 * Looks up the position of each operation and takes the write lock of every position found, in list order.
+	 * The positions are looked up in the list they are locked in while holding structureLock, so every position found is
+	 * locked; once they are locked, they are checked to still be the positions with their names, since the positions may
+	 * have been replaced (i.e. by recoverPositions() or reloadPositionsFromFile()) before they were locked.
+	 * @param operations operations of the batch
+	 * @param targets receives the position of each operation, or null if there is no position with its name
+	 * @return positions locked, in the order they were locked, or null if the positions were replaced and nothing is locked
+	 */
+	private ArrayList<Position> lockTargets(List<BatchOperation> operations, Position[] targets) {
+		List<Position> list;
+		IdentityHashMap<Position, Boolean> touched = new IdentityHashMap<Position, Boolean>();
+		synchronized (structureLock) {
+			list = positions;
+			for (int i = 0; i < targets.length; i++) {
+				targets[i] = findPosition(operations.get(i).getPositionName());
+				if (targets[i] != null) {
+					touched.put(targets[i], Boolean.TRUE);
+				}
+			}
+		}
+		
+		ArrayList<Position> locked = new ArrayList<Position>(touched.size());
+		for (int i = 0; i < list.size(); i++) {
+			if (touched.containsKey(list.get(i))) {
+				list.get(i).getLock().writeLock().lock();
+				locked.add(list.get(i));
+			}
+		}
+		for (int i = 0; i < targets.length; i++) {
+			if (targets[i] != findPosition(operations.get(i).getPositionName())) {
+				for (int j = locked.size() - 1; j >= 0; j--) {
+					locked.get(j).getLock().writeLock().unlock();
+				}
+				return null;
+			}
+		}
+		return locked;
+	}
+	
+	/**
+	 * Executes a batch of commands while holding the write lock of every position it touches
+	 * @param operations operations being executed
+	 * @param targets position of each operation, or null if there is no position with its name
+	 * @param allOrNothing true if no command should be executed unless every command can be
+	 * @return result of each operation, in the same order as operations
+	 */
+	private BatchOperation.Result[] executeLocked(List<BatchOperation> operations, Position[] targets, boolean allOrNothing) {
+		BatchOperation.Result[] results = new BatchOperation.Result[operations.size()];
+		if (allOrNothing) {
+			// try the batch out on copies of the applications so that nothing changes if any command fails
+			HashMap<Application, Application> copies = new HashMap<Application, Application>();
+			boolean failed = false;
+			for (int i = 0; i < results.length; i++) {
+				results[i] = execute(targets[i], operations.get(i).getId(), operations.get(i).getCommand(), copies);
+				failed |= results[i] != BatchOperation.Result.EXECUTED;
+			}
+			
+			if (failed) {
+				for (int i = 0; i < results.length; i++) {
+					if (results[i] == BatchOperation.Result.EXECUTED) {
+						results[i] = BatchOperation.Result.NOT_EXECUTED;
+					}
+				}
+				return results;
+			}
+		}
+		
+		CommandJournal current = journal;
+		for (int i = 0; i < results.length; i++) {
+			BatchOperation operation = operations.get(i);
+			results[i] = execute(targets[i], operation.getId(), operation.getCommand(), null);
+			if (results[i] == BatchOperation.Result.EXECUTED && current != null) {
+				current.appendCommand(operation.getPositionName(), operation.getId(), operation.getCommand());
+			}
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * Executes one command of a batch
+	 * @param position position of the application, or null if there is no position with the operation's name
+	 * @param id id of the application
+	 * @param c command being executed
+	 * @param copies copies of applications the command is executed on instead, or null to execute it on the application itself
+	 * @return result of executing the command
+	 */
+	private static BatchOperation.Result execute(Position position, int id, Command c, HashMap<Application, Application> copies) {
+		if (position == null) {
+			return BatchOperation.Result.NO_POSITION;
+		}
+		Application application = position.getApplicationById(id);
+		if (application == null) {
+			return BatchOperation.Result.NO_APPLICATION;
+		}
+		
+		try {
+			if (copies == null) {
+				position.executeCommand(id, c);
+			} else {
+				// a trial run is not a transition, so it is not recorded
+				copies.computeIfAbsent(application, Application::new).update(c, false);
+			}
+			return BatchOperation.Result.EXECUTED;
+		} catch (UnsupportedOperationException | IllegalArgumentException e) {
+			return BatchOperation.Result.INVALID_COMMAND;
+		}
 	}
 	
 	/**
@@ -246,203 +923,185 @@ public class WolfHire {
 	 */
 	public void deleteApplicationById(int id) {
 		// check if activePosition is null - if so, nothing should happen
-		if (activePosition == null) {
+		Position position = activePosition;
+		if (position == null) {
 			return;
 		}
-		
-		activePosition.getApplications().remove(getApplicationById(id));
+		deleteApplicationById(position, id);
+	}
+	
+	/**
+	 * Deletes an application from the position with the given name. Nothing happens if there is no application with the id.
+	 * @param positionName name of position
+	 * @param id id of application being deleted.
+	 * @throws IllegalArgumentException with message "Position not available." if there is no position with the given name.
+	 */
+	public void deleteApplicationById(String positionName, int id) {
+		deleteApplicationById(getPosition(positionName), id);
+	}
+	
+	/**
+	 * Deletes an application from a position. Nothing happens if there is no application with the id.
+	 * @param position position of the application
+	 * @param id id of application being deleted.
+	 */
+	private void deleteApplicationById(Position position, int id) {
+		position.getLock().writeLock().lock();
+		try {
+			if (position.getApplicationById(id) == null) {
+				return;
+			}
+			
+			position.deleteApplicationById(id);
+			CommandJournal current = journal;
+			if (current != null) {
+				current.appendDeleteApplication(position.getPositionName(), id);
+			}
+		} finally {
+			position.getLock().writeLock().unlock();
+		}
+		compactIfNeeded();
 	}
 	
 	/**
 	 * Displays application list as 2D String array list.
 	 * Format: a row for every application in activePosition, 4 columns (id, state, unityId, reviewer)
+	 * The rows are cached by the position, so the returned array and its rows are shared with every other caller and must not
+	 * be modified; copy them to change them. They are never changed once returned: a later change to the applications makes
+	 * a new array, so the returned array can be kept as a snapshot of the applications.
 	 * @param filter string that represents what item the arrays need to be filtered by (either *State option, or All which lists all information).
 	 * @return 2D String array list of applications filtered by either their state, of filter value is *State, or by listing all information if filter value is "All"
 	 * Or null if there is no activePosition
 	 */
 	public String[][] getApplicationsAsArray(String filter) {
 		// null check for activePosition
-		if (activePosition == null) {
+		Position position = activePosition;
+		if (position == null) {
 			return null;
 		}
-		
-		// keep count of how many times a state is listed
-		int submittedCount = 0;
-		int rejectedCount = 0;
-		int interviewingCount = 0;
-		int processingCount = 0;
-		int reviewingCount = 0;
-		int hiredCount = 0;
-		int inactiveCount = 0;
-		
-		// update counters and populate potential list for ALL filter
-		String[][] all = new String[activePosition.getApplications().size()][4];
-		for (int i = 0; i < all.length; i++) {
-			Application a = activePosition.getApplications().get(i);
-			all[i][0] = a.getId() + "";
-			all[i][1] = a.getState();
-			all[i][2] = a.getUnityId();
-			all[i][3] = a.getReviewer();
-			
-			// update state counters
-			if ("Submitted".equals(a.getState())) {
-				submittedCount++;
-			} else if ("Rejected".equals(a.getState())) {
-				rejectedCount++;
-			} else if ("Reviewing".equals(a.getState())) {
-				reviewingCount++;
-			} else if ("Interviewing".equals(a.getState())) {
-				interviewingCount++;
-			} else if ("Processing".equals(a.getState())) {
-				processingCount++;
-			} else if ("Hired".equals(a.getState())) {
-				hiredCount++;
-			} else if ("Inactive".equals(a.getState())) {
-				inactiveCount++;
-			}
+		return getApplicationsAsArray(position, filter);
+	}
+	
+	/**
+	 * Displays the applications of the position with the given name as 2D String array list, in the same format as
+	 * getApplicationsAsArray(String). As there, the returned array is shared, must not be modified, and is never changed.
+	 * @param positionName name of position
+	 * @param filter "All" or the name of the state the applications are filtered by
+	 * @return 2D String array list of the position's applications
+	 * @throws IllegalArgumentException with message "Position not available." if there is no position with the given name.
+	 */
+	public String[][] getApplicationsAsArray(String positionName, String filter) {
+		return getApplicationsAsArray(getPosition(positionName), filter);
+	}
+	
+	/**
+	 * Displays the applications of a position as 2D String array list
+	 * @param position position whose applications are listed
+	 * @param filter "All" or the name of the state the applications are filtered by
+	 * @return 2D String array list of the position's applications
+	 */
+	private String[][] getApplicationsAsArray(Position position, String filter) {
+		StateValue state = StateValue.fromStateName(filter);
+		long start = metrics.start();
+		position.getLock().readLock().lock();
+		try {
+			// list every application for the ALL filter, or only the applications in the filter state,
+			// from the rows the position has cached since they last changed
+			return position.getApplicationRows(state);
+		} finally {
+			position.getLock().readLock().unlock();
+			WolfHireMetrics.stop(metrics.applicationsAsArray(state), start);
 		}
-		
-		// create lists using counters for correct filter, or return previous ALL list if filter is ALL
-		int k = 0;
-		switch(filter) {
-		
-			case "Submitted":
-				String[][] submitted = new String[submittedCount][4];
-				for (int i = 0; i < all.length; i++) {
-					Application a = activePosition.getApplications().get(i);
-					if ("Submitted".equals(a.getState())) {
-						submitted[k][0] = a.getId() + "";
-						submitted[k][1] = a.getState();
-						submitted[k][2] = a.getUnityId();
-						submitted[k][3] = a.getReviewer();
-						k++;
-					}
-				}	
-				
-				if (k == 0) {
-					return new String[0][0];
-				} else {
-					return submitted;
-				}
-			
-			case "Rejected":
-				String[][] rejected = new String[rejectedCount][4];
-				for (int i = 0; i < activePosition.getApplications().size(); i++) {
-					Application a = activePosition.getApplications().get(i);
-					if ("Rejected".equals(a.getState())) {
-						rejected[k][0] = a.getId() + "";
-						rejected[k][1] = a.getState();
-						rejected[k][2] = a.getUnityId();
-						rejected[k][3] = a.getReviewer();
-						k++;
-					}
-				}	
-				
-				if (k == 0) {
-					return new String[0][0];
-				} else {
-					return rejected;
-				}
-			
-			case "Reviewing":
-				String[][] reviewing = new String[reviewingCount][4];
-				for (int i = 0; i < activePosition.getApplications().size(); i++) {
-					Application a = activePosition.getApplications().get(i);
-					if ("Reviewing".equals(a.getState())) {
-						reviewing[k][0] = a.getId() + "";
-						reviewing[k][1] = a.getState();
-						reviewing[k][2] = a.getUnityId();
-						reviewing[k][3] = a.getReviewer();
-						k++;
-					}
-				}	
-				
-				if (k == 0) {
-					return new String[0][0];
-				} else {
-					return reviewing;
-				}
-			
-			case "Interviewing":
-				String[][] interviewing = new String[interviewingCount][4];
-				for (int i = 0; i < activePosition.getApplications().size(); i++) {
-					Application a = activePosition.getApplications().get(i);
-					if ("Interviewing".equals(a.getState())) {
-						interviewing[k][0] = a.getId() + "";
-						interviewing[k][1] = a.getState();
-						interviewing[k][2] = a.getUnityId();
-						interviewing[k][3] = a.getReviewer();
-						k++;
-					}
-				}	
-				
-				if (k == 0) {
-					return new String[0][0];
-				} else {
-					return interviewing;
-				}
-				
-			case "Processing":
-				String[][] processing = new String[processingCount][4];
-				for (int i = 0; i < activePosition.getApplications().size(); i++) {
-					Application a = activePosition.getApplications().get(i);
-					if ("Processing".equals(a.getState())) {
-						processing[k][0] = a.getId() + "";
-						processing[k][1] = a.getState();
-						processing[k][2] = a.getUnityId();
-						processing[k][3] = a.getReviewer();
-						k++;
-					}
-				}	
-				
-				if (k == 0) {
-					return new String[0][0];
-				} else {
-					return processing;
-				}
-				
-			case "Hired":
-				String[][] hired = new String[hiredCount][4];
-				for (int i = 0; i < activePosition.getApplications().size(); i++) {
-					Application a = activePosition.getApplications().get(i);
-					if ("Hired".equals(a.getState())) {
-						hired[k][0] = a.getId() + "";
-						hired[k][1] = a.getState();
-						hired[k][2] = a.getUnityId();
-						hired[k][3] = a.getReviewer();
-						k++;
-					}
-				}	
-				
-				if (k == 0) {
-					return new String[0][0];
-				} else {
-					return hired;
-				}
-				
-			case "Inactive":
-				String[][] inactive = new String[inactiveCount][4];
-				for (int i = 0; i < activePosition.getApplications().size(); i++) {
-					Application a = activePosition.getApplications().get(i);
-					if ("Inactive".equals(a.getState())) {
-						inactive[k][0] = a.getId() + "";
-						inactive[k][1] = a.getState();
-						inactive[k][2] = a.getUnityId();
-						inactive[k][3] = a.getReviewer();
-						k++;
-					}
-				}	
-				
-				if (k == 0) {
-					return new String[0][0];
-				} else {
-					return inactive;
-				}
-				
-			default:
-				return all;
+	}
+	
+	/**
+	 * Gets the number of rows getApplicationsAsArray() lists for activePosition, for views that read rows one at a time
+	 * @param filter "All" or the name of the state the applications are filtered by
+	 * @return number of rows, or 0 if there is no activePosition
+	 */
+	public int getApplicationCount(String filter) {
+		Position position = activePosition;
+		if (position == null) {
+			return 0;
+		}
+		position.getLock().readLock().lock();
+		try {
+			StateValue state = StateValue.fromStateName(filter);
+			return state == null ? position.getApplications().size() : position.getApplicationsByState(state).size();
+		} finally {
+			position.getLock().readLock().unlock();
+		}
+	}
+	
+	/**
+	 * Gets one row of getApplicationsAsArray() for activePosition without building the whole array
+	 * @param filter "All" or the name of the state the applications are filtered by
+	 * @param index index of the row
+	 * @return row of id, state, unityId, and reviewer, which must not be modified, or null if there is no activePosition
+	 * or no row at the index
+	 */
+	public String[] getApplicationRow(String filter, int index) {
+		Position position = activePosition;
+		if (position == null) {
+			return null;
+		}
+		position.getLock().readLock().lock();
+		try {
+			return position.getApplicationRow(StateValue.fromStateName(filter), index);
+		} finally {
+			position.getLock().readLock().unlock();
+		}
+	}
+	
+	/**
+	 * Finds the row of an application in getApplicationsAsArray() for activePosition
+	 * @param filter "All" or the name of the state the applications are filtered by
+	 * @param id id of the application
+	 * @return index of the application's row, or -1 if there is no activePosition or the application is not listed
+	 */
+	public int getApplicationRowIndex(String filter, int id) {
+		Position position = activePosition;
+		if (position == null) {
+			return -1;
+		}
+		position.getLock().readLock().lock();
+		try {
+			return position.getApplicationRowIndex(StateValue.fromStateName(filter), id);
+		} finally {
+			position.getLock().readLock().unlock();
+		}
+	}
+	
+	/**
+	 * Gets the number of changes made to the applications of activePosition, which views reading rows one at a time use
+	 * to tell whether their rows are out of date
+	 * @return number of applications added, changed, or deleted so far, or -1 if there is no activePosition
+	 */
+	public long getModificationCount() {
+		Position position = activePosition;
+		return position == null ? -1 : position.getModificationCount();
+	}
+	
+	/**
+	 * Gets the rows of getApplicationsAsArray() for activePosition that were inserted, deleted, or updated between two
+	 * modification counts, see Position.getApplicationRowChanges()
+	 * @param filter "All" or the name of the state the applications are filtered by
+	 * @param since getModificationCount() when the rows were last read
+	 * @param until getModificationCount() the rows are brought up to
+	 * @return rows inserted, deleted, and updated, in the order the changes were made, or null if there is no
+	 * activePosition or the changes are no longer known
+	 */
+	public RowChange[] getApplicationRowChanges(String filter, long since, long until) {
+		Position position = activePosition;
+		if (position == null) {
+			return null;
+		}
+		position.getLock().readLock().lock();
+		try {
+			return position.getApplicationRowChanges(StateValue.fromStateName(filter), since, until);
+		} finally {
+			position.getLock().readLock().unlock();
 		}
-		
 	}
 	
 	/**
@@ -452,19 +1111,39 @@ public class WolfHire {
 	 */
 	public Application getApplicationById(int id) {
 		// check if activePosition is null
-		if (activePosition == null) {
+		Position position = activePosition;
+		if (position == null) {
 			return null;
 		}
 		
-		// look through activePosition's application list for application with matching id
-		for (int i = 0; i < activePosition.getApplications().size(); i++) {
-			if (activePosition.getApplications().get(i).getId() == id) {
-				return activePosition.getApplications().get(i);
-			}
+		// look up application with matching id in activePosition, null if there is no match
+		return getApplicationById(position, id);
+	}
+	
+	/**
+	 * Locates an application from the position with the given name using given id and returns it
+	 * @param positionName name of position
+	 * @param id id of potential application in the position
+	 * @return application that matches given id, or null if there is no application with the given id in the position
+	 * @throws IllegalArgumentException with message "Position not available." if there is no position with the given name.
+	 */
+	public Application getApplicationById(String positionName, int id) {
+		return getApplicationById(getPosition(positionName), id);
+	}
+	
+	/**
+	 * Locates an application in a position using given id
+	 * @param position position being searched
+	 * @param id id of potential application in the position
+	 * @return application that matches given id, or null if there is none
+	 */
+	private static Application getApplicationById(Position position, int id) {
+		position.getLock().readLock().lock();
+		try {
+			return position.getApplicationById(id);
+		} finally {
+			position.getLock().readLock().unlock();
 		}
-		
-		// if no match is found return null
-		return null;
 	}
 	
 	/**
@@ -472,9 +1151,14 @@ public class WolfHire {
 	 * Intended for testing purposes only.
 	 */
 	protected void resetManager() {
-		this.positions = new ArrayList<Position>();
+		closeJournal();
+		synchronized (structureLock) {
+			setPositions(new ArrayList<Position>());
+		}
 		this.activePosition = null;
-		singleton = null;
+		synchronized (WolfHire.class) {
+			singleton = null;
+		}
 //		getInstance();
 	}
 }
@@ -0,0 +1,367 @@
+package edu.ncsu.csc216.wolf_hire.model.manager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.ncsu.csc216.wolf_hire.model.application.Application.StateValue;
+import edu.ncsu.csc216.wolf_hire.model.command.Command.CommandValue;
+
+/**
+ * Counts and times the operations of WolfHire that are on its hot paths: loading and saving files, executing each kind of
+ * command, adding applications, and listing applications with each filter.
+ *
+ * Each operation has a Timer, which counts calls and total time with LongAdders, so threads recording at the same time do not
+ * contend, and keeps a histogram of latencies in buckets like HdrHistogram's: every power of two is split into eight equal
+ * buckets, so a percentile is within an eighth of the true value from a nanosecond up to hours. Operations are timed
+ * whether they succeed or throw.
+ *
+ * Metrics are disabled until setEnabled(true) is called. While disabled an operation only reads the enabled flag, and does not
+ * read the clock or record anything. snapshot() copies every timer, so it can be called while operations are running.
+ *
+ * @author hmreese2
+ *
+ */
+public class WolfHireMetrics {
+
+	/** Start time returned by start() while metrics are disabled */
+	private static final long DISABLED = Long.MIN_VALUE;
+	/** Name of the metric for loading files */
+	public static final String LOAD = "loadPositionsFromFile";
+	/** Name of the metric for saving files */
+	public static final String SAVE = "savePositionsToFile";
+	/** Name of the metric for adding applications */
+	public static final String ADD_APPLICATION = "addApplicationToPosition";
+	/** Prefix of the names of the metrics for executing commands, followed by the CommandValue */
+	public static final String EXECUTE_COMMAND = "executeCommand.";
+	/** Prefix of the names of the metrics for listing applications, followed by the filter */
+	public static final String APPLICATIONS_AS_ARRAY = "getApplicationsAsArray.";
+	/** Filter that lists every application */
+	private static final String ALL_FILTER = "All";
+
+	/** Whether operations are recorded */
+	private volatile boolean enabled;
+	/** Timer of loading files */
+	final Timer load = new Timer();
+	/** Timer of saving files */
+	final Timer save = new Timer();
+	/** Timer of adding applications */
+	final Timer addApplication = new Timer();
+	/** Timers of executing commands indexed by CommandValue ordinal */
+	private final Timer[] executeCommand = new Timer[CommandValue.values().length];
+	/** Timers of listing applications, for the All filter and then each state indexed by StateValue ordinal + 1 */
+	private final Timer[] applicationsAsArray = new Timer[StateValue.values().length + 1];
+
+	/**
+	 * Constructs disabled metrics
+	 */
+	public WolfHireMetrics() {
+		for (int i = 0; i < executeCommand.length; i++) {
+			executeCommand[i] = new Timer();
+		}
+		for (int i = 0; i < applicationsAsArray.length; i++) {
+			applicationsAsArray[i] = new Timer();
+		}
+	}
+
+	/**
+	 * Sets whether operations are recorded. Recorded metrics are kept when they are disabled.
+	 * @param enabled true to record operations
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Gets whether operations are recorded
+	 * @return true if operations are recorded
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Clears every metric
+	 */
+	public void reset() {
+		load.reset();
+		save.reset();
+		addApplication.reset();
+		for (Timer t : executeCommand) {
+			t.reset();
+		}
+		for (Timer t : applicationsAsArray) {
+			t.reset();
+		}
+	}
+
+	/**
+	 * Copies every metric
+	 * @return metrics by name, in a fixed order, including the ones that have not been recorded
+	 */
+	public Map<String, Snapshot> snapshot() {
+		LinkedHashMap<String, Snapshot> snapshots = new LinkedHashMap<String, Snapshot>();
+		snapshots.put(LOAD, load.snapshot(LOAD));
+		snapshots.put(SAVE, save.snapshot(SAVE));
+		snapshots.put(ADD_APPLICATION, addApplication.snapshot(ADD_APPLICATION));
+		for (CommandValue command : CommandValue.values()) {
+			String name = EXECUTE_COMMAND + command;
+			snapshots.put(name, executeCommand[command.ordinal()].snapshot(name));
+		}
+		String name = APPLICATIONS_AS_ARRAY + ALL_FILTER;
+		snapshots.put(name, applicationsAsArray[0].snapshot(name));
+		for (StateValue state : StateValue.values()) {
+			name = APPLICATIONS_AS_ARRAY + state.getStateName();
+			snapshots.put(name, applicationsAsArray[state.ordinal() + 1].snapshot(name));
+		}
+		return Collections.unmodifiableMap(snapshots);
+	}
+
+	/**
+	 * Starts timing an operation
+	 * @return start time to pass to stop(), which is ignored if metrics are disabled
+	 */
+	long start() {
+		return enabled ? System.nanoTime() : DISABLED;
+	}
+
+	/**
+	 * Stops timing an operation and records it, unless metrics were disabled when it started
+	 * @param timer timer of the operation
+	 * @param start start time returned by start()
+	 */
+	static void stop(Timer timer, long start) {
+		if (start != DISABLED) {
+			timer.record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Gets the timer of executing a command
+	 * @param command command being executed
+	 * @return timer of the command
+	 */
+	Timer executeCommand(CommandValue command) {
+		return executeCommand[command.ordinal()];
+	}
+
+	/**
+	 * Gets the timer of listing applications with a filter
+	 * @param state state of the filter, or null for the All filter
+	 * @return timer of the filter
+	 */
+	Timer applicationsAsArray(StateValue state) {
+		return applicationsAsArray[state == null ? 0 : state.ordinal() + 1];
+	}
+
+	/**
+	 * Count, total time, and histogram of the latencies of one operation.
+	 *
+	 * @author hmreese2
+	 *
+	 */
+	static class Timer {
+
+		/** Number of bits of a latency kept below its highest bit, i.e. each power of two is split into 2^3 buckets */
+		private static final int SUB_BUCKET_BITS = 3;
+		/** Number of buckets per power of two */
+		private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+		/** Number of buckets, enough for any positive long */
+		static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+		/** Number of operations */
+		private final LongAdder count = new LongAdder();
+		/** Total nanoseconds of the operations */
+		private final LongAdder totalNanos = new LongAdder();
+		/** Longest operation in nanoseconds */
+		private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+		/** Number of operations in each bucket */
+		private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+		/**
+		 * Records an operation
+		 * @param nanos nanoseconds the operation took
+		 */
+		void record(long nanos) {
+			nanos = Math.max(nanos, 0);
+			count.increment();
+			totalNanos.add(nanos);
+			maxNanos.accumulate(nanos);
+			buckets.incrementAndGet(bucket(nanos));
+		}
+
+		/**
+		 * Clears the timer
+		 */
+		void reset() {
+			count.reset();
+			totalNanos.reset();
+			maxNanos.reset();
+			for (int i = 0; i < BUCKETS; i++) {
+				buckets.set(i, 0);
+			}
+		}
+
+		/**
+		 * Copies the timer
+		 * @param name name of the metric
+		 * @return copy of the timer
+		 */
+		Snapshot snapshot(String name) {
+			long[] counts = new long[BUCKETS];
+			for (int i = 0; i < BUCKETS; i++) {
+				counts[i] = buckets.get(i);
+			}
+			return new Snapshot(name, count.sum(), totalNanos.sum(), maxNanos.get(), counts);
+		}
+
+		/**
+		 * Gets the bucket of a latency
+		 * @param nanos latency, not negative
+		 * @return index of the bucket
+		 */
+		static int bucket(long nanos) {
+			if (nanos < SUB_BUCKETS) {
+				return (int) nanos;
+			}
+			// bucket by the highest bit, then by the bits just below it
+			int shift = 63 - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS;
+			int sub = (int) (nanos >>> shift) & (SUB_BUCKETS - 1);
+			return (shift + 1) * SUB_BUCKETS + sub;
+		}
+
+		/**
+		 * Gets the highest latency in a bucket
+		 * @param bucket index of the bucket
+		 * @return highest latency in nanoseconds
+		 */
+		static long highestInBucket(int bucket) {
+			if (bucket < SUB_BUCKETS) {
+				return bucket;
+			}
+			int shift = bucket / SUB_BUCKETS - 1;
+			long next = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS + 1) << shift;
+			// the highest bucket ends at Long.MAX_VALUE, where next overflows
+			return next < 0 ? Long.MAX_VALUE : next - 1;
+		}
+	}
+
+	/**
+	 * Copy of the metrics of one operation.
+	 *
+	 * @author hmreese2
+	 *
+	 */
+	public static class Snapshot {
+
+		/** Name of the metric */
+		private final String name;
+		/** Number of operations */
+		private final long count;
+		/** Total nanoseconds of the operations */
+		private final long totalNanos;
+		/** Longest operation in nanoseconds */
+		private final long maxNanos;
+		/** Number of operations in each bucket */
+		private final long[] buckets;
+
+		/**
+		 * Constructs a snapshot
+		 * @param name name of the metric
+		 * @param count number of operations
+		 * @param totalNanos total nanoseconds of the operations
+		 * @param maxNanos longest operation in nanoseconds
+		 * @param buckets number of operations in each bucket
+		 */
+		Snapshot(String name, long count, long totalNanos, long maxNanos, long[] buckets) {
+			this.name = name;
+			this.count = count;
+			this.totalNanos = totalNanos;
+			this.maxNanos = maxNanos;
+			this.buckets = buckets;
+		}
+
+		/**
+		 * Gets the name of the metric
+		 * @return name of the metric
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Gets the number of operations
+		 * @return number of operations
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * Gets the total time of the operations
+		 * @return total nanoseconds
+		 */
+		public long getTotalNanos() {
+			return totalNanos;
+		}
+
+		/**
+		 * Gets the mean time of an operation
+		 * @return mean nanoseconds, or 0 if there were no operations
+		 */
+		public long getMeanNanos() {
+			return count == 0 ? 0 : totalNanos / count;
+		}
+
+		/**
+		 * Gets the time of the longest operation
+		 * @return longest nanoseconds, or 0 if there were no operations
+		 */
+		public long getMaxNanos() {
+			return maxNanos;
+		}
+
+		/**
+		 * Gets a percentile of the time of the operations, to within an eighth of its value
+		 * @param percentile percentile from 0 to 100, e.g. 99 for the time 99% of the operations took at most
+		 * @return nanoseconds of the percentile, or 0 if there were no operations
+		 * @throws IllegalArgumentException with message "Invalid information." if percentile is not from 0 to 100
+		 */
+		public long getPercentileNanos(double percentile) {
+			if (!(percentile >= 0 && percentile <= 100)) {
+				throw new IllegalArgumentException("Invalid information.");
+			}
+			long total = 0;
+			for (long c : buckets) {
+				total += c;
+			}
+			if (total == 0) {
+				return 0;
+			}
+
+			// find the bucket holding the operation at the percentile, counting from the fastest
+			long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+			long seen = 0;
+			for (int i = 0; i < buckets.length; i++) {
+				seen += buckets[i];
+				if (seen >= rank) {
+					return Math.min(Timer.highestInBucket(i), maxNanos);
+				}
+			}
+			return maxNanos;
+		}
+
+		/**
+		 * Describes the metric
+		 * @return name, count, mean, 99th percentile, and longest time of the metric
+		 */
+		@Override
+		public String toString() {
+			return name + ": count=" + count + ", mean=" + getMeanNanos() + "ns, p99=" + getPercentileNanos(99) + "ns, max="
+					+ maxNanos + "ns";
+		}
+	}
+}
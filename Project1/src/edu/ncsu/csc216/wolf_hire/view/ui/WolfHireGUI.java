@@ -12,10 +12,16 @@ import java.awt.event.ActionListener;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
+import javax.swing.JDialog;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -24,10 +30,12 @@ import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingWorker;
 import javax.swing.border.Border;
 import javax.swing.border.EtchedBorder;
 import javax.swing.border.TitledBorder;
@@ -35,6 +43,9 @@ import javax.swing.table.AbstractTableModel;
 
 import edu.ncsu.csc216.wolf_hire.model.application.Application;
 import edu.ncsu.csc216.wolf_hire.model.command.Command;
+import edu.ncsu.csc216.wolf_hire.model.io.IOProgress;
+import edu.ncsu.csc216.wolf_hire.model.manager.Position;
+import edu.ncsu.csc216.wolf_hire.model.manager.RowChange;
 import edu.ncsu.csc216.wolf_hire.model.manager.WolfHire;
 
 /**
@@ -132,7 +143,8 @@ public class WolfHireGUI extends JFrame implements ActionListener {
 		setSize(500, 700);
 		setLocation(50, 50);
 		setTitle(APP_TITLE);
-		setDefaultCloseOperation(EXIT_ON_CLOSE);
+		// the window is closed once the positions have been saved in the background
+		setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
 		setUpMenuBar();
 		
 		//Create JPanel that will hold rest of GUI information.
@@ -166,13 +178,12 @@ public class WolfHireGUI extends JFrame implements ActionListener {
 			 */
 			@Override
 			public void windowClosing(WindowEvent e) {
-				WolfHire model = WolfHire.getInstance();
 				try {
-					model.savePositionsToFile(getFileName(false));
-				} catch (IllegalArgumentException exp) {
-					JOptionPane.showMessageDialog(WolfHireGUI.this, exp.getMessage());
+					// the GUI closes whether or not the save works
+					new FileTask(false, getFileName(false), null, () -> quit()).start();
 				} catch (IllegalStateException exp) {
 					//Don't do anything - user canceled (or error)
+					quit();
 				}
 			}
 			
@@ -216,8 +227,6 @@ public class WolfHireGUI extends JFrame implements ActionListener {
 	 * @param e user event that triggers an action.
 	 */
 	public void actionPerformed(ActionEvent e) {
-		//Use singleton to create/get the sole instance.
-		WolfHire model = WolfHire.getInstance();
 		if (e.getSource() == itemAddPosition) {
 			//Create a new position
 			try {
@@ -228,33 +237,33 @@ public class WolfHireGUI extends JFrame implements ActionListener {
 				JOptionPane.showMessageDialog(this, exp.getMessage());
 			}
 		} else if (e.getSource() == itemLoadPosition) {
-			//Load an existing position list
+			//Load an existing position list in the background, then add the positions all at once
 			try {
-				model.loadPositionsFromFile(getFileName(true));
-				itemSavePosition.setEnabled(true);
-				pnlPositionList.updatePosition();
-				cardLayout.show(panel, POSITION_LIST_PANEL);
-				validate();
-				repaint();
+				new FileTask(true, getFileName(true), () -> {
+					itemSavePosition.setEnabled(true);
+					pnlPositionList.updatePosition();
+					cardLayout.show(panel, POSITION_LIST_PANEL);
+					validate();
+					repaint();
+				}, null).start();
 			} catch (IllegalArgumentException exp) {
 				JOptionPane.showMessageDialog(this, exp.getMessage());
 			} catch (IllegalStateException exp) {
 				//Don't do anything - user canceled (or error)
 			}
 		} else if (e.getSource() == itemSavePosition) {
-			//Save positions and applications
+			//Save positions and applications in the background
 			try {
-				model.savePositionsToFile(getFileName(false));
+				new FileTask(false, getFileName(false), null, null).start();
 			} catch (IllegalArgumentException exp) {
 				JOptionPane.showMessageDialog(this, exp.getMessage());
 			} catch (IllegalStateException exp) {
 				//Don't do anything - user canceled (or error)
 			}
 		} else if (e.getSource() == itemQuit) {
-			//Quit the program
+			//Quit the program once the positions are saved
 			try {
-				model.savePositionsToFile(getFileName(false));
-				System.exit(0);  //Ignore SpotBugs warning here - this is the only place to quit the program!
+				new FileTask(false, getFileName(false), () -> quit(), null).start();
 			} catch (IllegalArgumentException exp) {
 				JOptionPane.showMessageDialog(this, exp.getMessage());
 			} catch (IllegalStateException exp) {
@@ -263,6 +272,120 @@ public class WolfHireGUI extends JFrame implements ActionListener {
 		}
 	}
 	
+	/**
+	 * Quits the program.
+	 */
+	private void quit() {
+		System.exit(0);  //Ignore SpotBugs warning here - this is the only place to quit the program!
+	}
+	
+	/**
+	 * Loads or saves a positions file on a background thread, so that the GUI keeps responding during large loads
+	 * and saves. A dialog shows the progress reported by the reader or writer, and its Cancel button stops the task.
+	 * A load only adds its positions to the WolfHire system once the whole file is read, so a cancelled or failed load
+	 * changes nothing; a cancelled save leaves the file untouched.
+	 */
+	private class FileTask extends SwingWorker<List<Position>, Void> {
+		
+		/** True if loading a file, false if saving */
+		private boolean load;
+		/** Name of file being loaded or saved */
+		private String fileName;
+		/** Run on the event dispatch thread once the task succeeds, or null */
+		private Runnable onSuccess;
+		/** Run on the event dispatch thread once the task is over however it ended, or null */
+		private Runnable onFinish;
+		/** Dialog showing the progress of the task */
+		private JDialog dialog;
+		
+		/**
+		 * Constructs a FileTask
+		 * @param load true if loading a file, false if saving
+		 * @param fileName name of file being loaded or saved
+		 * @param onSuccess run once the task succeeds, or null
+		 * @param onFinish run once the task is over however it ended, or null
+		 */
+		FileTask(boolean load, String fileName, Runnable onSuccess, Runnable onFinish) {
+			this.load = load;
+			this.fileName = fileName;
+			this.onSuccess = onSuccess;
+			this.onFinish = onFinish;
+		}
+		
+		/**
+		 * Starts the task and shows its progress dialog until the task is over
+		 */
+		public void start() {
+			JProgressBar progressBar = new JProgressBar(0, 100);
+			progressBar.setStringPainted(true);
+			addPropertyChangeListener(e -> {
+				if ("progress".equals(e.getPropertyName())) {
+					progressBar.setValue((Integer) e.getNewValue());
+				}
+			});
+			JButton btnCancel = new JButton("Cancel");
+			btnCancel.addActionListener(e -> cancel(false));
+			
+			dialog = new JDialog(WolfHireGUI.this, load ? "Loading " + fileName : "Saving " + fileName, true);
+			dialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+			dialog.getContentPane().add(progressBar, BorderLayout.CENTER);
+			dialog.getContentPane().add(btnCancel, BorderLayout.SOUTH);
+			dialog.pack();
+			dialog.setLocationRelativeTo(WolfHireGUI.this);
+			
+			execute();
+			// blocks until done() disposes of the dialog, while still handling events
+			dialog.setVisible(true);
+		}
+		
+		/**
+		 * Loads or saves the file on a background thread
+		 * @return positions that were loaded, or null if saving
+		 */
+		@Override
+		protected List<Position> doInBackground() {
+			IOProgress progress = (done, total) -> {
+				if (total > 0) {
+					setProgress((int) Math.min(100, done * 100 / total));
+				}
+				return !isCancelled();
+			};
+			if (load) {
+				return WolfHire.getInstance().readPositionsFromFile(fileName, progress);
+			}
+			WolfHire.getInstance().savePositionsToFile(fileName, progress);
+			return null;
+		}
+		
+		/**
+		 * Adds loaded positions, or reports why the task failed, on the event dispatch thread
+		 */
+		@Override
+		protected void done() {
+			dialog.dispose();
+			try {
+				List<Position> loaded = get();
+				if (load) {
+					WolfHire.getInstance().addPositions(loaded);
+				}
+				if (onSuccess != null) {
+					onSuccess.run();
+				}
+			} catch (CancellationException e) {
+				//Don't do anything - user canceled
+			} catch (ExecutionException e) {
+				if (!(e.getCause() instanceof CancellationException)) {
+					JOptionPane.showMessageDialog(WolfHireGUI.this, e.getCause().getMessage());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (onFinish != null) {
+				onFinish.run();
+			}
+		}
+	}
+	
 	/**
 	 * Returns a file name generated through interactions with a JFileChooser
 	 * object.
@@ -518,16 +641,38 @@ public class WolfHireGUI extends JFrame implements ActionListener {
 		/**
 		 * ApplicationTableModel is the object underlying the JTable object that displays
 		 * the list of applications to the user.
+		 * 
+		 * Rows are read from WolfHire one at a time as the table renders them, and only the most
+		 * recently rendered rows are kept, so the table does not copy every application of the position.
+		 * When the applications change, the table is told which rows were inserted, deleted, or updated.
 		 * @author Dr. Sarah Heckman (sarah_heckman@ncsu.edu)
 		 */
 		private class ApplicationTableModel extends AbstractTableModel {
 			
 			/** ID number used for object serialization. */
 			private static final long serialVersionUID = 1L;
+			/** Number of rendered rows kept */
+			private static final int WINDOW_SIZE = 256;
 			/** Column names for the table */
 			private String [] columnNames = {"ID", "State", "Unity ID", "Reviewer"};
-			/** Data stored in the table */
-			private Object [][] data;
+			/** Position whose applications are shown, compared by identity to tell when another position is loaded */
+			private Object position;
+			/** Name of state the applications are filtered on */
+			private String filter;
+			/** Number of changes made to the position's applications when the rows were last read */
+			private long modificationCount;
+			/** Number of rows in the table */
+			private int rowCount;
+			/** Most recently rendered rows by index, the least recently used row is dropped first */
+			private LinkedHashMap<Integer, Object[]> window = new LinkedHashMap<Integer, Object[]>(WINDOW_SIZE, 0.75f, true) {
+				/** ID number used for object serialization. */
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Integer, Object[]> eldest) {
+					return size() > WINDOW_SIZE;
+				}
+			};
 			
 			/**
 			 * Constructs the ApplicationTableModel by requesting the latest information
@@ -550,9 +695,7 @@ public class WolfHireGUI extends JFrame implements ActionListener {
 			 * @return the number of rows in the table.
 			 */
 			public int getRowCount() {
-				if (data == null) 
-					return 0;
-				return data.length;
+				return rowCount;
 			}
 			
 			/**
@@ -571,9 +714,10 @@ public class WolfHireGUI extends JFrame implements ActionListener {
 			 * @return the data at the given location.
 			 */
 			public Object getValueAt(int row, int col) {
+				Object[] data = getRow(row);
 				if (data == null)
 					return null;
-				return data[row][col];
+				return data[col];
 			}
 			
 			/**
@@ -583,17 +727,83 @@ public class WolfHireGUI extends JFrame implements ActionListener {
 			 * @param col the column index
 			 */
 			public void setValueAt(Object value, int row, int col) {
-				data[row][col] = value;
-				fireTableCellUpdated(row, col);
+				Object[] data = getRow(row);
+				if (data != null) {
+					// rows from WolfHire are shared, so the row is copied before it is changed
+					data = data.clone();
+					data[col] = value;
+					window.put(row, data);
+					fireTableCellUpdated(row, col);
+				}
+			}
+			
+			/**
+			 * Gets a row, reading it from the WolfHire system if it was not rendered recently
+			 * @param row the row index
+			 * @return the row, or null if there is no row at the index
+			 */
+			private Object[] getRow(int row) {
+				Object[] data = window.get(row);
+				if (data == null) {
+					data = WolfHire.getInstance().getApplicationRow(filter, row);
+					if (data != null) {
+						window.put(row, data);
+					}
+				}
+				return data;
 			}
 			
 			/**
 			 * Updates the given model with application information from the WolfHire system.
+			 * Nothing is read if the applications have not changed. Otherwise the table is told exactly which rows
+			 * each change since the last update inserted, deleted, or updated, as logged by the position; all of the
+			 * rows are only read again if another position or filter is shown or the changes are no longer logged.
 			 * @param stateName name of state to filter on. 
 			 */
 			private void updateData(String stateName) {
 				WolfHire m = WolfHire.getInstance();
-				data = m.getApplicationsAsArray(stateName);
+				Object current = m.getActivePosition();
+				long count = m.getModificationCount();
+				boolean sameView = current == position && stateName.equals(filter);
+				if (sameView && count == modificationCount) {
+					return;
+				}
+				
+				RowChange[] changes = sameView ? m.getApplicationRowChanges(filter, modificationCount, count) : null;
+				position = current;
+				filter = stateName;
+				modificationCount = count;
+				if (changes == null) {
+					rowCount = m.getApplicationCount(filter);
+					window.clear();
+					fireTableDataChanged();
+					return;
+				}
+				
+				// each row change is told to the table as its own table event, and the row count follows them,
+				// so the table sees the count each event leaves it with
+				for (int i = 0; i < changes.length; i++) {
+					int row = changes[i].getIndex();
+					switch (changes[i].getType()) {
+					case UPDATED:
+						window.remove(row);
+						fireTableRowsUpdated(row, row);
+						break;
+					case INSERTED:
+						// rendered rows after the change have moved, so they are read again when they are next rendered
+						window.clear();
+						rowCount++;
+						fireTableRowsInserted(row, row);
+						break;
+					case DELETED:
+						window.clear();
+						rowCount--;
+						fireTableRowsDeleted(row, row);
+						break;
+					default:
+						break;
+					}
+				}
 			}
 		}
 	}
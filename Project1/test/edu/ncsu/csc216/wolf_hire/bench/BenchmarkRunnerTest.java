@@ -0,0 +1,72 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.wolf_hire.bench;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_hire.bench.BenchmarkRunner.Result;
+
+/**
+ * Tests that BenchmarkRunner measures a benchmark, and combines the measurements forks send it.
+ *
+ * @author hmreese2
+ *
+ */
+public class BenchmarkRunnerTest {
+
+	/**
+	 * Tests running a benchmark in the current JVM
+	 * @throws Exception if the benchmark fails
+	 */
+	@Test
+	public void testRun() throws Exception {
+		Benchmark benchmark = new Benchmark("Sum") {
+			@Override
+			public int run() {
+				long sum = 0;
+				for (int i = 0; i < 1000; i++) {
+					sum += i;
+				}
+				consume(sum);
+				return 1000;
+			}
+		};
+		Result result = new BenchmarkRunner(1, 4).run(benchmark, 10);
+		assertEquals("Sum", result.getName());
+		assertEquals(10, result.getSize());
+		assertTrue(result.getNanosPerOp() > 0);
+		assertTrue(result.getError() >= 0);
+		assertTrue(result.toString().startsWith("Sum"));
+	}
+
+	/**
+	 * Tests that a result survives being sent by a fork, and that the iterations of several forks are combined
+	 */
+	@Test
+	public void testCombine() {
+		Result first = new Result("Bench", 100, 200, 2000, 800, 1, 3, new double[] {9, 11});
+		Result second = Result.decode(new Result("Bench", 100, 200, 2000, 800, 0, 2, new double[] {9, 11}).encode());
+		assertEquals(first.encode().replace("\t1\t3\t", "\t0\t2\t"), second.encode());
+
+		List<Result> forks = new ArrayList<Result>();
+		forks.add(first);
+		forks.add(second);
+		Result combined = Result.combine(forks);
+		assertEquals(10.0, combined.getNanosPerOp(), 0);
+		assertEquals(4.0, combined.getBytesPerOp(), 0);
+		// half-width of the 99.9% confidence interval of 9, 11, 9, 11, with t = 12.924 at 3 degrees of freedom
+		assertEquals(12.924 * Math.sqrt(4.0 / 3 / 4), combined.getError(), 1e-9);
+		assertTrue(combined.toString().startsWith("Bench"));
+
+		// bytes that one fork cannot count cannot be counted for the combination
+		forks.add(new Result("Bench", 100, 200, 2000, -1, 0, 0, new double[] {10, 10}));
+		assertTrue(Double.isNaN(Result.combine(forks).getBytesPerOp()));
+	}
+}
@@ -0,0 +1,137 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.wolf_hire.bench;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_hire.bench.PositionFileGenerator.Summary;
+import edu.ncsu.csc216.wolf_hire.model.application.Application;
+import edu.ncsu.csc216.wolf_hire.model.application.Application.StateValue;
+import edu.ncsu.csc216.wolf_hire.model.io.PositionReader;
+import edu.ncsu.csc216.wolf_hire.model.io.PositionWriter;
+import edu.ncsu.csc216.wolf_hire.model.manager.Position;
+
+/**
+ * Tests that PositionFileGenerator generates the same file from the same seed, and that the readers load exactly the
+ * positions and applications it says are valid, at sizes larger than the hand-written test files.
+ *
+ * @author hmreese2
+ *
+ */
+public class PositionFileGeneratorTest {
+
+	/**
+	 * Tests that a seed always generates the same file, and different seeds different files
+	 */
+	@Test
+	public void testSeed() {
+		try {
+			assertEquals(generate(1), generate(1));
+			assertNotEquals(generate(1), generate(2));
+		} catch (IOException e) {
+			fail("Error generating files.");
+		}
+	}
+
+	/**
+	 * Tests that every application of a valid file is read, in the states of the mix
+	 */
+	@Test
+	public void testValidFile() {
+		PositionFileGenerator generator = new PositionFileGenerator(216);
+		generator.setPositions(5);
+		generator.setApplications(2000);
+		generator.setStateWeight(StateValue.HIRED, 0);
+		generator.setReviewers(3, 0);
+
+		try {
+			Path file = Files.createTempFile("generated", ".txt");
+			Summary summary = generator.generate(file.toString());
+			assertEquals(5, summary.getValidPositions());
+			assertEquals(10000, summary.getValidApplications());
+			assertEquals(0, summary.getCorruptLines());
+
+			ArrayList<Position> positions = PositionReader.readPositionFile(file.toString());
+			assertEquals(5, positions.size());
+			for (Position p : positions) {
+				assertEquals(2000, p.getApplications().size());
+				assertEquals(0, p.getApplicationsByState(StateValue.HIRED).size());
+				assertTrue(p.getApplicationsByState(StateValue.SUBMITTED).size() > 0);
+				for (Application a : p.getApplicationsByState(StateValue.REVIEWING)) {
+					assertTrue(a.getReviewer().matches("reviewer[0-2]"));
+				}
+			}
+
+			// writing the positions back gives the same file
+			String generated = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+			PositionWriter.writePositionsToFile(file.toString(), positions);
+			assertEquals(generated, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+			Files.delete(file);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+	}
+
+	/**
+	 * Tests that every reader skips exactly the corrupted positions and applications
+	 */
+	@Test
+	public void testCorruptFile() {
+		PositionFileGenerator generator = new PositionFileGenerator(2016);
+		generator.setPositions(40);
+		generator.setApplications(500);
+		generator.setCorruptionRate(0.1);
+
+		try {
+			Path file = Files.createTempFile("generated", ".txt");
+			Summary summary = generator.generate(file.toString());
+			assertTrue(summary.getCorruptLines() > 0);
+			assertTrue(summary.getValidPositions() < summary.getPositions());
+
+			List<List<Position>> loaded = new ArrayList<List<Position>>();
+			loaded.add(PositionReader.readPositionFile(file.toString()));
+			loaded.add(PositionReader.readMappedPositionFile(file.toString()));
+			loaded.add(PositionReader.readParallelPositionFile(file.toString()));
+			for (List<Position> positions : loaded) {
+				assertEquals(summary.getValidPositions(), positions.size());
+				long applications = 0;
+				for (Position p : positions) {
+					applications += p.getApplications().size();
+				}
+				assertEquals(summary.getValidApplications(), applications);
+			}
+			Files.delete(file);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+	}
+
+	/**
+	 * Generates a small file with corrupted lines
+	 * @param seed seed of the file
+	 * @return contents of the file
+	 * @throws IOException if the file cannot be generated
+	 */
+	private static String generate(long seed) throws IOException {
+		PositionFileGenerator generator = new PositionFileGenerator(seed);
+		generator.setPositions(3);
+		generator.setCorruptionRate(0.2);
+		StringWriter writer = new StringWriter();
+		generator.generate(writer);
+		return writer.toString();
+	}
+}
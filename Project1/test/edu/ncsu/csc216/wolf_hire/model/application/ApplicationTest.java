@@ -4,14 +4,25 @@
 package edu.ncsu.csc216.wolf_hire.model.application;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.fail;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.jupiter.api.Test;
 
+import edu.ncsu.csc216.wolf_hire.model.application.Application.StateValue;
 import edu.ncsu.csc216.wolf_hire.model.command.Command;
 import edu.ncsu.csc216.wolf_hire.model.command.Command.CommandValue;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 /**
  * Tests that Application is being constructed correctly and that WolfHire's FSM is running accordingly.
@@ -766,4 +777,133 @@ public class ApplicationTest {
 		Application aaaa = new Application("Rebecca", "Black", "rblack");
 		assertEquals(5, aaaa.getId());
 	}
+	
+	
+	/**
+	 * Tests getting the state of an application as a StateValue
+	 */
+	@Test
+	public void testStateValue() {
+		Application a = new Application(1, "Submitted", "Cailin", "Roach", "cvroach", null, null);
+		assertEquals(StateValue.SUBMITTED, a.getStateValue());
+		a.update(new Command(CommandValue.ASSIGN, "tnmacnei"));
+		assertEquals(StateValue.REVIEWING, a.getStateValue());
+		a.update(new Command(CommandValue.REJECT, Application.DUPLICATE_REJECTION));
+		assertEquals(StateValue.REJECTED, a.getStateValue());
+		
+		// each StateValue has the name of its state
+		for (StateValue state : StateValue.values()) {
+			assertEquals(state, StateValue.fromStateName(state.getStateName()));
+		}
+		assertEquals("Inactive", StateValue.INACTIVE.getStateName());
+		assertNull(StateValue.fromStateName("All"));
+		assertNull(StateValue.fromStateName(null));
+	}
+	
+	
+	/**
+	 * Tests that an application of a position is checked like any other, but does not raise the counter
+	 */
+	@Test
+	public void testForPosition() {
+		Application.setCounter(0);
+		Application a = Application.forPosition(7, "Reviewing", "Cailin", "Roach", "cvroach", "tnmacnei", null);
+		assertEquals("* 7,Reviewing,Cailin,Roach,cvroach,tnmacnei,", a.toString());
+		assertEquals(1, new Application("Clinton", "Armstrong", "carmstr").getId());
+		
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> Application.forPosition(0, "Submitted", "Cailin", "Roach", "cvroach", null, null));
+		assertEquals("Application cannot be created.", e.getMessage());
+		e = assertThrows(IllegalArgumentException.class,
+				() -> Application.forPosition(7, "Reviewing", "Cailin", "Roach", "cvroach", null, null));
+		assertEquals("Application cannot be created.", e.getMessage());
+	}
+	
+	/**
+	 * Tests that a copy of an application can be changed without changing the original
+	 */
+	@Test
+	public void testCopy() {
+		Application a = new Application(3, "Reviewing", "Cailin", "Roach", "cvroach", "tnmacnei", null);
+		Application.setCounter(1);
+		Application copy = new Application(a);
+		assertEquals(a.toString(), copy.toString());
+		
+		// copying does not change the counter
+		assertEquals(1, new Application("Clinton", "Armstrong", "carmstr").getId());
+		
+		copy.update(new Command(CommandValue.REJECT, Application.QUALIFICATIONS_REJECTION));
+		assertEquals("Rejected", copy.getState());
+		assertEquals("Reviewing", a.getState());
+		assertEquals("tnmacnei", a.getReviewer());
+	}
+	
+	/**
+	 * Tests that commands that move an application record a Flight Recorder event with the states, and invalid commands do not
+	 */
+	@Test
+	public void testTransitionEvent() {
+		Application a = new Application(5, "Submitted", "Jay", "Fox", "jfox", null, null);
+		List<RecordedEvent> events = null;
+		try (Recording recording = new Recording()) {
+			recording.enable(StateTransitionEvent.NAME);
+			recording.start();
+			a.update(new Command(CommandValue.ASSIGN, "sesmith5"));
+			assertThrows(UnsupportedOperationException.class, () -> a.update(new Command(CommandValue.HIRE, null)));
+			a.update(new Command(CommandValue.SCHEDULE, null));
+			recording.stop();
+			
+			Path dump = Files.createTempFile("recording", ".jfr");
+			recording.dump(dump);
+			events = RecordingFile.readAllEvents(dump);
+			Files.delete(dump);
+		} catch (IOException e) {
+			fail("Error reading recording.");
+		}
+		
+		assertEquals(2, events.size());
+		events.sort((e1, e2) -> e1.getStartTime().compareTo(e2.getStartTime()));
+		assertEquals(5, events.get(0).getInt("applicationId"));
+		assertEquals("ASSIGN", events.get(0).getString("command"));
+		assertEquals("Submitted", events.get(0).getString("fromState"));
+		assertEquals("Reviewing", events.get(0).getString("toState"));
+		assertEquals("SCHEDULE", events.get(1).getString("command"));
+		assertEquals("Reviewing", events.get(1).getString("fromState"));
+		assertEquals("Interviewing", events.get(1).getString("toState"));
+	}
+	
+	/**
+	 * Tests that validate() accepts exactly the fields the constructor accepts
+	 */
+	@Test
+	public void testValidate() {
+		int[] ids = {0, 1};
+		String[] states = {"Submitted", "Reviewing", "Interviewing", "Processing", "Rejected", "Inactive", "Hired", "Unknown"};
+		String[] names = {null, "", "Jay"};
+		String[] reviewers = {null, "", "sesmith5"};
+		String[] notes = {null, "", Application.QUALIFICATIONS_REJECTION, Application.COMPLETED_TERMINATION, "note"};
+		for (int id : ids) {
+			for (String state : states) {
+				for (String name : names) {
+					for (String reviewer : reviewers) {
+						for (String note : notes) {
+							String reason = Application.validate(id, state, name, "Fox", "jfox", reviewer, note);
+							boolean created;
+							try {
+								new Application(id, state, name, "Fox", "jfox", reviewer, note);
+								created = true;
+							} catch (IllegalArgumentException e) {
+								created = false;
+							}
+							assertEquals(state + "," + name + "," + reviewer + "," + note, created, reason == null);
+						}
+					}
+				}
+			}
+		}
+		
+		assertNull(Application.validate(1, "Rejected", "Jay", "Fox", "jfox", null, Application.DUPLICATE_REJECTION));
+		assertEquals("Missing reviewer.", Application.validate(1, "Reviewing", "Jay", "Fox", "jfox", null, null));
+		assertEquals("Invalid termination reason.", Application.validate(1, "Inactive", "Jay", "Fox", "jfox", "sesmith5", "note"));
+	}
 }
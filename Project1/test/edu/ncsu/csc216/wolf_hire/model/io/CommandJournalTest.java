@@ -0,0 +1,306 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.wolf_hire.model.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_hire.model.application.Application;
+import edu.ncsu.csc216.wolf_hire.model.command.Command;
+import edu.ncsu.csc216.wolf_hire.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_hire.model.io.PositionWriter.Durability;
+import edu.ncsu.csc216.wolf_hire.model.manager.Position;
+
+/**
+ * Tests that CommandJournal correctly records changes to positions and replays them on top of a snapshot.
+ *
+ * @author hmreese2
+ *
+ */
+public class CommandJournalTest {
+
+	/** Valid file used as the snapshot */
+	private String validFile = "test-files/positions2.txt";
+
+	/**
+	 * Tests that appended records are replayed in order after the journal is reopened
+	 */
+	@Test
+	public void testReplay() {
+		try {
+			Path directory = Files.createTempDirectory("journal");
+			Path snapshot = directory.resolve("positions.txt");
+			Path journalFile = directory.resolve("positions.journal");
+			Files.copy(Path.of(validFile), snapshot);
+
+			// make changes to the positions while journaling them
+			ArrayList<Position> expected = PositionReader.readPositionFile(snapshot.toString());
+			try (CommandJournal journal = new CommandJournal(journalFile.toString(), snapshot.toString(), Durability.NONE)) {
+				assertEquals(0, journal.size());
+				Position grader = expected.get(0);
+
+				Command reject = new Command(CommandValue.REJECT, Application.INCOMPLETE_REJECTION);
+				grader.executeCommand(1, reject);
+				journal.appendCommand(grader.getPositionName(), 1, reject);
+
+				Command resubmit = new Command(CommandValue.RESUBMIT, null);
+				grader.executeCommand(2, resubmit);
+				journal.appendCommand(grader.getPositionName(), 2, resubmit);
+
+				grader.deleteApplicationById(7);
+				journal.appendDeleteApplication(grader.getPositionName(), 7);
+
+				Position tutor = new Position("Tutor", 8, 12);
+				expected.add(tutor);
+				journal.appendAddPosition(tutor);
+				Application added = new Application(40, Application.SUBMITTED_NAME, "Ada", "Lovelace", "alovela", null, null);
+				tutor.addApplication(added);
+				journal.appendAddApplication(tutor.getPositionName(), added);
+
+				assertEquals(5, journal.size());
+			}
+
+			// reopen the journal and replay it on top of the snapshot
+			ArrayList<Position> actual = PositionReader.readPositionFile(snapshot.toString());
+			try (CommandJournal journal = new CommandJournal(journalFile.toString(), snapshot.toString(), Durability.FSYNC)) {
+				assertEquals(5, journal.size());
+				assertEquals(5, journal.replay(actual));
+			}
+			assertEquals(expected.size(), actual.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).toString(), actual.get(i).toString());
+			}
+			assertNull(actual.get(0).getApplicationById(7));
+
+			deleteDirectory(directory);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+	}
+
+	/**
+	 * Tests that a record cut short by a crash is dropped, and that new records are appended after the last complete record
+	 */
+	@Test
+	public void testTornRecord() {
+		try {
+			Path directory = Files.createTempDirectory("journal");
+			Path snapshot = directory.resolve("positions.txt");
+			Path journalFile = directory.resolve("positions.journal");
+			Files.copy(Path.of(validFile), snapshot);
+
+			try (CommandJournal journal = new CommandJournal(journalFile.toString(), snapshot.toString(), Durability.NONE)) {
+				journal.appendCommand("CSC 116 Grader", 1, new Command(CommandValue.REJECT, Application.DUPLICATE_REJECTION));
+				journal.appendCommand("CSC 116 Grader", 2, new Command(CommandValue.RESUBMIT, null));
+			}
+
+			// cut the last record short
+			try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+				channel.truncate(channel.size() - 3);
+			}
+
+			try (CommandJournal journal = new CommandJournal(journalFile.toString(), snapshot.toString(), Durability.NONE)) {
+				assertEquals(1, journal.size());
+				journal.appendDeleteApplication("CSC 116 Grader", 5);
+			}
+
+			ArrayList<Position> positions = PositionReader.readPositionFile(snapshot.toString());
+			try (CommandJournal journal = new CommandJournal(journalFile.toString(), snapshot.toString(), Durability.NONE)) {
+				assertEquals(2, journal.size());
+				assertEquals(2, journal.replay(positions));
+			}
+			assertEquals(Application.REJECTED_NAME, positions.get(0).getApplicationById(1).getState());
+			assertEquals(Application.DUPLICATE_REJECTION, positions.get(0).getApplicationById(1).getNote());
+			assertEquals(Application.REJECTED_NAME, positions.get(0).getApplicationById(2).getState());
+			assertNull(positions.get(0).getApplicationById(5));
+
+			deleteDirectory(directory);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+	}
+
+	/**
+	 * Tests that compaction folds the journal into the snapshot, and that a journal left over from before a compaction is ignored
+	 */
+	@Test
+	public void testCompact() {
+		try {
+			Path directory = Files.createTempDirectory("journal");
+			Path snapshot = directory.resolve("positions.txt");
+			Path journalFile = directory.resolve("positions.journal");
+			Path oldJournal = directory.resolve("old.journal");
+
+			// journal for a snapshot that does not exist yet
+			ArrayList<Position> positions = new ArrayList<Position>();
+			try (CommandJournal journal = new CommandJournal(journalFile.toString(), snapshot.toString(), Durability.FSYNC_DIRECTORY)) {
+				Position tutor = new Position("Tutor", 8, 12);
+				positions.add(tutor);
+				journal.appendAddPosition(tutor);
+				Application added = new Application(3, Application.SUBMITTED_NAME, "Ada", "Lovelace", "alovela", null, null);
+				tutor.addApplication(added);
+				journal.appendAddApplication(tutor.getPositionName(), added);
+				Files.copy(journalFile, oldJournal);
+
+				journal.compact(positions);
+				assertEquals(0, journal.size());
+			}
+			// the compaction snapshot is binary
+			byte[] bytes = Files.readAllBytes(snapshot);
+			assertEquals("WHS1", new String(bytes, 0, 4, "US-ASCII"));
+			assertEquals(positions.get(0).toString(), PositionReader.readPositionFile(snapshot.toString()).get(0).toString());
+			// the journal's header holds the length and CRC32 of the snapshot, computed while it was written
+			CRC32 crc = new CRC32();
+			crc.update(bytes, 0, bytes.length);
+			ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(journalFile));
+			header.getInt();
+			assertEquals(bytes.length, header.getLong());
+			assertEquals(crc.getValue(), header.getLong());
+
+			try (CommandJournal journal = new CommandJournal(journalFile.toString(), snapshot.toString(), Durability.NONE)) {
+				assertEquals(0, journal.size());
+			}
+
+			// a crash after the snapshot was written but before the journal was reset leaves the old journal behind
+			Files.move(oldJournal, journalFile, StandardCopyOption.REPLACE_EXISTING);
+			ArrayList<Position> recovered = PositionReader.readPositionFile(snapshot.toString());
+			try (CommandJournal journal = new CommandJournal(journalFile.toString(), snapshot.toString(), Durability.NONE)) {
+				assertEquals(0, journal.size());
+				assertEquals(0, journal.replay(recovered));
+			}
+			assertEquals(1, recovered.size());
+			assertEquals(positions.get(0).toString(), recovered.get(0).toString());
+
+			deleteDirectory(directory);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+
+		Exception e1 = assertThrows(IllegalArgumentException.class,
+				() -> new CommandJournal(null, validFile, Durability.NONE));
+		assertEquals("Unable to load file null", e1.getMessage());
+	}
+
+	/**
+	 * Tests that positions without applications, which the snapshot does not keep, survive a compaction and a restart
+	 */
+	@Test
+	public void testCompactEmptyPosition() {
+		try {
+			Path directory = Files.createTempDirectory("journal");
+			Path snapshot = directory.resolve("positions.txt");
+			Path journalFile = directory.resolve("positions.journal");
+			Files.copy(Path.of(validFile), snapshot);
+
+			ArrayList<Position> positions = PositionReader.readPositionFile(snapshot.toString());
+			try (CommandJournal journal = new CommandJournal(journalFile.toString(), snapshot.toString(), Durability.NONE)) {
+				Position tutor = new Position("Tutor", 8, 12);
+				positions.add(tutor);
+				journal.appendAddPosition(tutor);
+				journal.compact(positions);
+				// the carried record does not count towards the next compaction
+				assertEquals(0, journal.size());
+			}
+
+			ArrayList<Position> recovered = PositionReader.readPositionFile(snapshot.toString());
+			assertEquals(positions.size() - 1, recovered.size());
+			try (CommandJournal journal = new CommandJournal(journalFile.toString(), snapshot.toString(), Durability.NONE)) {
+				assertEquals(1, journal.replay(recovered));
+				Application added = new Application(1, Application.SUBMITTED_NAME, "Ada", "Lovelace", "alovela", null, null);
+				recovered.get(recovered.size() - 1).addApplication(added);
+				journal.appendAddApplication("Tutor", added);
+				journal.compact(recovered);
+			}
+
+			recovered = PositionReader.readPositionFile(snapshot.toString());
+			assertEquals(positions.size(), recovered.size());
+			assertEquals("Tutor", recovered.get(recovered.size() - 1).getPositionName());
+			try (CommandJournal journal = new CommandJournal(journalFile.toString(), snapshot.toString(), Durability.NONE)) {
+				assertEquals(0, journal.replay(recovered));
+			}
+
+			deleteDirectory(directory);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+	}
+
+	/**
+	 * Deletes a temporary directory and the files in it
+	 * @param directory directory being deleted
+	 * @throws IOException if the directory cannot be deleted
+	 */
+	private static void deleteDirectory(Path directory) throws IOException {
+		for (String name : directory.toFile().list()) {
+			Files.delete(directory.resolve(name));
+		}
+		Files.delete(directory);
+	}
+	
+	/**
+	 * Tests that records appended while a compaction is in progress are carried over into the new journal, including after a
+	 * crash between renaming the snapshot and renaming the new journal
+	 */
+	@Test
+	public void testCompactWhileAppending() {
+		try {
+			Path directory = Files.createTempDirectory("journal");
+			Path snapshot = directory.resolve("positions.txt");
+			Path journalFile = directory.resolve("positions.journal");
+			Path oldJournal = directory.resolve("old.journal");
+			Files.copy(Path.of(validFile), snapshot);
+
+			ArrayList<Position> positions = PositionReader.readPositionFile(snapshot.toString());
+			String name = positions.get(0).getPositionName();
+			try (CommandJournal journal = new CommandJournal(journalFile.toString(), snapshot.toString(), Durability.NONE)) {
+				journal.appendDeleteApplication(name, 1);
+				try (CommandJournal.Compaction compaction = journal.beginCompaction(positions)) {
+					// a change made after the positions were written out
+					Application added = new Application(99, Application.SUBMITTED_NAME, "Ada", "Lovelace", "alovela", null, null);
+					positions.get(0).addApplication(added);
+					journal.appendAddApplication(name, added);
+					Files.copy(journalFile, oldJournal);
+					journal.finishCompaction(compaction);
+				}
+				assertEquals(1, journal.size());
+			}
+
+			ArrayList<Position> recovered = PositionReader.readPositionFile(snapshot.toString());
+			assertNull(recovered.get(0).getApplicationById(99));
+			try (CommandJournal journal = new CommandJournal(journalFile.toString(), snapshot.toString(), Durability.NONE)) {
+				assertEquals(1, journal.replay(recovered));
+			}
+			assertEquals(positions.get(0).toString(), recovered.get(0).toString());
+
+			// crash after the snapshot was renamed, but before the new journal was
+			Files.move(journalFile, directory.resolve("positions.journal.next"));
+			Files.move(oldJournal, journalFile);
+			recovered = PositionReader.readPositionFile(snapshot.toString());
+			try (CommandJournal journal = new CommandJournal(journalFile.toString(), snapshot.toString(), Durability.NONE)) {
+				assertEquals(1, journal.replay(recovered));
+			}
+			assertEquals(positions.get(0).toString(), recovered.get(0).toString());
+			assertFalse(Files.exists(directory.resolve("positions.journal.next")));
+
+			deleteDirectory(directory);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+	}
+}
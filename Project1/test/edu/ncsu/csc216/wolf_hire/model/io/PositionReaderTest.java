@@ -4,15 +4,29 @@
 package edu.ncsu.csc216.wolf_hire.model.io;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.Test;
 
 import edu.ncsu.csc216.wolf_hire.model.manager.Position;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 /**
  * Tests that PositionReader class is correctly taking, reading, processing, and constructing 
@@ -431,5 +445,315 @@ public class PositionReaderTest {
 			fail(e.getMessage());
 		}
 	}
-
+	
+	/**
+	 * Tests streaming a valid file with multiple positions, where each completed position is handed off in file order
+	 */
+	@Test
+	public void testStreamingMultiplePositions() {
+		ArrayList<Position> positions = new ArrayList<Position>();
+		PositionReader.readPositionFile(validFile2, positions::add);
+		
+		// check that every position was handed off in order with its applications
+		assertEquals(validList2.length, positions.size());
+		for (int i = 0; i < validList2.length; i++) {
+			assertEquals(validList2[i], positions.get(i).toString());
+		}
+		
+		// check that a position with no applications is never handed off
+		positions.clear();
+		PositionReader.readPositionFile(validFile3, positions::add);
+		assertEquals(0, positions.size());
+		
+		// check that a file that does not exist still throws
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> PositionReader.readPositionFile(invalidFile1, p -> fail()));
+		assertEquals("Unable to load file " + invalidFile1, e.getMessage());
+	}
+	
+	/**
+	 * Tests that reading a memory-mapped file gives the same positions as reading it as text, for valid and invalid files
+	 */
+	@Test
+	public void testMappedMatchesText() {
+		String[] files = { validFile1, validFile2, validFile3, invalidFile2, invalidFile4, invalidFile5, invalidFile10,
+				invalidFile11, invalidFile14, invalidFile17, invalidFile26 };
+		for (String file : files) {
+			ArrayList<Position> expected = PositionReader.readPositionFile(file);
+			ArrayList<Position> actual = PositionReader.readMappedPositionFile(file);
+			assertEquals(expected.size(), actual.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).toString(), actual.get(i).toString());
+			}
+		}
+		
+		// check that a file that does not exist throws
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> PositionReader.readMappedPositionFile(invalidFile1));
+		assertEquals("Unable to load file " + invalidFile1, e.getMessage());
+	}
+	
+	/**
+	 * Tests that reading a file in parallel gives the same positions, in the same order, as reading it serially
+	 */
+	@Test
+	public void testParallelMatchesSerial() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		String[] files = { validFile1, validFile2, validFile3, invalidFile2, invalidFile5, invalidFile26 };
+		for (String file : files) {
+			ArrayList<Position> expected = PositionReader.readPositionFile(file);
+			ArrayList<Position> actual = PositionReader.readParallelPositionFile(file, pool);
+			assertEquals(expected.size(), actual.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).toString(), actual.get(i).toString());
+			}
+		}
+		pool.shutdown();
+		
+		// check that a file that does not exist throws
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> PositionReader.readParallelPositionFile(invalidFile1));
+		assertEquals("Unable to load file " + invalidFile1, e.getMessage());
+	}
+	
+	
+	/**
+	 * Tests that reading reports the number of bytes read, and that a cancelled read stops
+	 */
+	@Test
+	public void testReadProgress() {
+		long size = new File(validFile2).length();
+		long[] last = new long[2];
+		ArrayList<Position> positions = new ArrayList<Position>();
+		PositionReader.readPositionFile(validFile2, positions::add, (done, total) -> {
+			last[0] = done;
+			last[1] = total;
+			return true;
+		});
+		assertEquals(PositionReader.readPositionFile(validFile2).size(), positions.size());
+		assertEquals(size, last[0]);
+		assertEquals(size, last[1]);
+		
+		assertThrows(CancellationException.class, () -> PositionReader.readPositionFile(validFile2, p -> { }, (done, total) -> false));
+	}
+	
+	/**
+	 * Tests that reading a file records a Flight Recorder event with its counts of read and skipped records
+	 */
+	@Test
+	public void testLoadEvent() {
+		try {
+			Path file = Files.createTempFile("positions", ".txt");
+			Files.write(file, ("# P1,10,10\n* 1,Submitted,Jay,Fox,jfox,,\n* x,Submitted,Harry,Smith,hsmith,,\n"
+					+ "# ,10,10\n* 2,Submitted,Cailin,Roach,cvroach,,\n"
+					+ "# P2,10,10\n* 3,Submitted,Carol,Schmidt,cschmid,,\nstray text\n").getBytes(StandardCharsets.UTF_8));
+			
+			List<RecordedEvent> events;
+			try (Recording recording = new Recording()) {
+				recording.enable(PositionLoadEvent.NAME);
+				recording.start();
+				assertEquals(1, PositionReader.readPositionFile(file.toString()).size());
+				recording.stop();
+				events = readEvents(recording);
+			}
+			
+			assertEquals(1, events.size());
+			RecordedEvent event = events.get(0);
+			assertEquals(file.toString(), event.getString("fileName"));
+			assertEquals(Files.size(file), event.getLong("bytes"));
+			assertFalse(event.getBoolean("snapshot"));
+			assertEquals(1, event.getInt("positions"));
+			assertEquals(1, event.getLong("applications"));
+			assertEquals(2, event.getInt("skippedPositions"));
+			assertEquals(3, event.getLong("skippedApplications"));
+			assertTrue(event.getBoolean("completed"));
+			Files.delete(file);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+	}
+	
+	/**
+	 * Tests that reading a file with diagnostics reports the line number and kind of every skipped line
+	 */
+	@Test
+	public void testDiagnostics() {
+		try {
+			Path file = Files.createTempFile("positions", ".txt");
+			Files.write(file, ("# P1,10,10\n* 1,Submitted,Jay,Fox,jfox,,\n* x,Submitted,Harry,Smith,hsmith,,\n"
+					+ "* 1,Submitted,Harry,Smith,hsmith,,\n* 2,Submitted,Harry\n* 3,Rejected,Harry,Smith,hsmith,,\n"
+					+ "# ,10,10\n* 4,Submitted,Cailin,Roach,cvroach,,\n"
+					+ "# P2,10,10\n* 5,Submitted,Carol,Schmidt,cschmid,,\nstray text\n").getBytes(StandardCharsets.UTF_8));
+			
+			PositionReadResult result = PositionReader.readPositionFileWithDiagnostics(file.toString());
+			assertEquals(1, result.getPositions().size());
+			assertEquals("P1", result.getPositions().get(0).getPositionName());
+			assertEquals(1, result.getPositions().get(0).getApplications().size());
+			
+			List<ParseDiagnostic> diagnostics = result.getDiagnostics();
+			assertEquals(8, diagnostics.size());
+			assertEquals(8, result.getTotalCount());
+			assertFalse(result.isTruncated());
+			long[] lineNumbers = {3, 4, 5, 6, 7, 8, 11, 9};
+			ParseDiagnostic.Kind[] kinds = {ParseDiagnostic.Kind.INVALID_ID, ParseDiagnostic.Kind.DUPLICATE_ID,
+					ParseDiagnostic.Kind.MISSING_FIELDS, ParseDiagnostic.Kind.INVALID_APPLICATION,
+					ParseDiagnostic.Kind.INVALID_POSITION, ParseDiagnostic.Kind.NO_POSITION,
+					ParseDiagnostic.Kind.STRAY_TEXT, ParseDiagnostic.Kind.EMPTY_POSITION};
+			for (int i = 0; i < kinds.length; i++) {
+				assertEquals(lineNumbers[i], diagnostics.get(i).getLineNumber());
+				assertEquals(kinds[i], diagnostics.get(i).getKind());
+				assertEquals(1, result.getCount(kinds[i]));
+			}
+			assertEquals("Missing note.", diagnostics.get(3).getMessage());
+			assertEquals("stray text", diagnostics.get(6).getLine());
+			assertEquals("Line 3: INVALID_ID - Application id must be a number.", diagnostics.get(0).toString());
+			
+			// reading without diagnostics gives the same positions
+			assertEquals(1, PositionReader.readPositionFile(file.toString()).size());
+			
+			// a file that does not start with a position line is reported once
+			Files.write(file, "* 1,Submitted,Jay,Fox,jfox,,\n".getBytes(StandardCharsets.UTF_8));
+			result = PositionReader.readPositionFileWithDiagnostics(file.toString());
+			assertEquals(0, result.getPositions().size());
+			assertEquals(1, result.getCount(ParseDiagnostic.Kind.NOT_POSITION_FILE));
+			Files.delete(file);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+	}
+	
+	/**
+	 * Tests that only the first MAX_DIAGNOSTICS diagnostics are kept, while every problem is counted
+	 */
+	@Test
+	public void testDiagnosticsTruncated() {
+		try {
+			Path file = Files.createTempFile("positions", ".txt");
+			StringBuilder text = new StringBuilder("# P1,10,10\n* 1,Submitted,Jay,Fox,jfox,,\n");
+			int invalid = PositionReadResult.MAX_DIAGNOSTICS + 500;
+			for (int i = 0; i < invalid; i++) {
+				text.append("* x,Submitted,Harry,Smith,hsmith,,\n");
+			}
+			Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+			
+			PositionReadResult result = PositionReader.readPositionFileWithDiagnostics(file.toString());
+			assertEquals(1, result.getPositions().size());
+			assertEquals(PositionReadResult.MAX_DIAGNOSTICS, result.getDiagnostics().size());
+			assertEquals(invalid, result.getCount(ParseDiagnostic.Kind.INVALID_ID));
+			assertTrue(result.isTruncated());
+			assertEquals(PositionReadResult.MAX_DIAGNOSTICS + 2, result.getDiagnostics().get(PositionReadResult.MAX_DIAGNOSTICS - 1).getLineNumber());
+			Files.delete(file);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+	}
+	
+	/**
+	 * Tests that reading changed positions fingerprints every block and only parses the blocks that changed, even when
+	 * unchanged blocks move
+	 */
+	@Test
+	public void testReadChangedPositions() {
+		try {
+			Path file = Files.createTempFile("positions", ".txt");
+			String p1 = "# P1,10,10\r\n* 1,Submitted,Jay,Fox,jfox,,\r\n";
+			String p2 = "# P2,10,10\n* 1,Submitted,Harry,Smith,hsmith,,\n";
+			String invalid = "# ,10,10\n* 1,Submitted,Cailin,Roach,cvroach,,\n";
+			Files.write(file, (p1 + invalid + p2).getBytes(StandardCharsets.UTF_8));
+			
+			List<Position> changed = new ArrayList<Position>();
+			PositionBlockIndex index = PositionReader.readChangedPositions(file.toString(), null, changed::add);
+			assertEquals(3, index.getBlocks().size());
+			assertEquals(3, index.getChangedCount());
+			assertEquals(2, changed.size());
+			assertEquals(List.of("P1", "P2"), new ArrayList<String>(index.getPositionNames()));
+			PositionBlockIndex.Block block = index.getBlocks().get(2);
+			assertEquals(p1.length() + invalid.length(), block.getOffset());
+			assertEquals(p2.length(), block.getLength());
+			assertEquals("P2", block.getPositionName());
+			assertTrue(block.isChanged());
+			assertNull(index.getBlocks().get(1).getPositionName());
+			
+			// a block inserted at the start moves the others, which are still unchanged
+			String p3 = "# P3,10,10\n* 1,Submitted,Carol,Schmidt,cschmid,,\n";
+			String p1Changed = "# P1,10,10\r\n* 1,Submitted,Jay,Fox,jfox,,\r\n* 2,Submitted,Harry,Smith,hsmith,,\r\n";
+			Files.write(file, (p3 + p1Changed + invalid + p2).getBytes(StandardCharsets.UTF_8));
+			changed.clear();
+			index = PositionReader.readChangedPositions(file.toString(), index, changed::add);
+			assertEquals(4, index.getBlocks().size());
+			assertEquals(2, index.getChangedCount());
+			assertEquals(2, changed.size());
+			assertEquals("P3", changed.get(0).getPositionName());
+			assertEquals(2, changed.get(1).getApplications().size());
+			assertEquals(List.of("P3", "P1", "P2"), new ArrayList<String>(index.getPositionNames()));
+			block = index.getBlocks().get(3);
+			assertEquals(p3.length() + p1Changed.length() + invalid.length(), block.getOffset());
+			assertEquals("P2", block.getPositionName());
+			assertFalse(block.isChanged());
+			
+			// changed blocks give the same positions as reading the whole file
+			changed.clear();
+			PositionReader.readChangedPositions(file.toString(), null, changed::add);
+			ArrayList<Position> all = PositionReader.readPositionFile(file.toString());
+			assertEquals(all.size(), changed.size());
+			for (int i = 0; i < all.size(); i++) {
+				assertEquals(all.get(i).toString(), changed.get(i).toString());
+			}
+			
+			// a file that does not start with a position line has no blocks
+			Files.write(file, ("\n" + p1).getBytes(StandardCharsets.UTF_8));
+			index = PositionReader.readChangedPositions(file.toString(), index, changed::add);
+			assertEquals(0, index.getBlocks().size());
+			assertEquals(0, index.getPositionNames().size());
+			Files.delete(file);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+	}
+	
+	/**
+	 * Tests that readChangedPositions() parses a block whose edit keeps its length
+	 */
+	@Test
+	public void testReadChangedPositionsSameLength() {
+		try {
+			Path file = Files.createTempFile("positions", ".txt");
+			String p1 = "# P1,10,10\n* 1,Submitted,Jay,Fox,jfox,,\n";
+			String p2 = "# P2,10,10\n* 1,Submitted,Harry,Smith,hsmith,,\n";
+			Files.write(file, (p1 + p2).getBytes(StandardCharsets.UTF_8));
+			
+			List<Position> changed = new ArrayList<Position>();
+			PositionBlockIndex index = PositionReader.readChangedPositions(file.toString(), null, changed::add);
+			assertEquals(32, index.getBlocks().get(0).getDigest().length);
+			
+			// the edit keeps every block the same length, so only the digest tells them apart
+			String p1Edited = p1.replace("Jay,Fox,jfox", "Kay,Cox,kcox");
+			assertEquals(p1.length(), p1Edited.length());
+			Files.write(file, (p1Edited + p2).getBytes(StandardCharsets.UTF_8));
+			changed.clear();
+			index = PositionReader.readChangedPositions(file.toString(), index, changed::add);
+			assertEquals(1, index.getChangedCount());
+			assertEquals(1, changed.size());
+			assertEquals("kcox", changed.get(0).getApplicationById(1).getUnityId());
+			assertTrue(index.getBlocks().get(0).isChanged());
+			assertFalse(index.getBlocks().get(1).isChanged());
+			Files.delete(file);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+	}
+	
+	/**
+	 * Reads the events of a stopped recording
+	 * @param recording stopped recording
+	 * @return events of the recording
+	 * @throws IOException if the recording cannot be read
+	 */
+	private static List<RecordedEvent> readEvents(Recording recording) throws IOException {
+		Path dump = Files.createTempFile("recording", ".jfr");
+		recording.dump(dump);
+		List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+		Files.delete(dump);
+		return events;
+	}
 }
@@ -0,0 +1,93 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_hire.model.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_hire.model.manager.Position;
+
+/**
+ * Tests that PositionSnapshotReader correctly reads snapshots written by PositionSnapshotWriter,
+ * and that PositionReader detects snapshots.
+ * 
+ * @author hmreese2
+ *
+ */
+public class PositionSnapshotReaderTest {
+	
+	/** Text files that are written to snapshots and read back */
+	private final String[] files = { "test-files/positions1.txt", "test-files/positions2.txt", "test-files/positions3.txt",
+			"test-files/positions6.txt", "test-files/positions12.txt" };
+	
+	/**
+	 * Tests that a snapshot reads back the same positions as the text file it was written from, with every reader
+	 */
+	@Test
+	public void testRoundTrip() {
+		try {
+			Path snapshot = Files.createTempFile("positions", ".snapshot");
+			for (String file : files) {
+				ArrayList<Position> expected = PositionReader.readPositionFile(file);
+				PositionSnapshotWriter.writeSnapshot(snapshot.toString(), expected);
+				
+				assertPositions(expected, PositionSnapshotReader.readSnapshot(snapshot.toString()));
+				assertPositions(expected, PositionReader.readPositionFile(snapshot.toString()));
+				assertPositions(expected, PositionReader.readMappedPositionFile(snapshot.toString()));
+				assertPositions(expected, PositionReader.readParallelPositionFile(snapshot.toString()));
+			}
+			Files.delete(snapshot);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+	}
+	
+	/**
+	 * Tests that files that are not snapshots, or are damaged, cannot be read as snapshots
+	 */
+	@Test
+	public void testInvalidSnapshot() {
+		Exception e1 = assertThrows(IllegalArgumentException.class,
+				() -> PositionSnapshotReader.readSnapshot("test-files/positions0.txt"));
+		assertEquals("Unable to load file test-files/positions0.txt", e1.getMessage());
+		Exception e2 = assertThrows(IllegalArgumentException.class,
+				() -> PositionSnapshotReader.readSnapshot("test-files/positions1.txt"));
+		assertEquals("Unable to load file test-files/positions1.txt", e2.getMessage());
+		
+		try {
+			// cut a snapshot short
+			Path snapshot = Files.createTempFile("positions", ".snapshot");
+			PositionSnapshotWriter.writeSnapshot(snapshot.toString(), PositionReader.readPositionFile("test-files/positions2.txt"));
+			byte[] bytes = Files.readAllBytes(snapshot);
+			Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 10));
+			Exception e3 = assertThrows(IllegalArgumentException.class,
+					() -> PositionReader.readPositionFile(snapshot.toString()));
+			assertEquals("Unable to load file " + snapshot, e3.getMessage());
+			Files.delete(snapshot);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+	}
+	
+	/**
+	 * Checks that two lists of positions hold the same positions
+	 * @param expected expected positions
+	 * @param actual actual positions
+	 */
+	private static void assertPositions(ArrayList<Position> expected, ArrayList<Position> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).toString(), actual.get(i).toString());
+		}
+	}
+}
@@ -0,0 +1,95 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_hire.model.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_hire.model.io.PositionWriter.Durability;
+import edu.ncsu.csc216.wolf_hire.model.manager.Position;
+
+/**
+ * Tests that PositionSnapshotWriter correctly writes positions to a binary snapshot.
+ * 
+ * @author hmreese2
+ *
+ */
+public class PositionSnapshotWriterTest {
+	
+	/**
+	 * Tests writing a snapshot, including skipping positions without applications and sharing repeated Strings
+	 */
+	@Test
+	public void testWriteSnapshot() {
+		try {
+			Path snapshot = Files.createTempFile("positions", ".snapshot");
+			ArrayList<Position> positions = PositionReader.readPositionFile("test-files/positions2.txt");
+			positions.add(1, new Position("Empty", 10, 10));
+			PositionSnapshotWriter.writeSnapshot(snapshot.toString(), positions);
+			
+			byte[] bytes = Files.readAllBytes(snapshot);
+			// header starts with the magic number and version
+			assertEquals("WHS1", new String(bytes, 0, 4, "US-ASCII"));
+			assertEquals(0, bytes[4]);
+			assertEquals(1, bytes[5]);
+			
+			ArrayList<Position> actual = PositionSnapshotReader.readSnapshot(snapshot.toString());
+			assertEquals(positions.size() - 1, actual.size());
+			assertEquals(positions.get(0).toString(), actual.get(0).toString());
+			assertEquals(positions.get(2).toString(), actual.get(1).toString());
+			
+			// repeated Strings (e.g. reviewers) are only stored once
+			assertSame(actual.get(0).getApplicationById(1).getReviewer(), actual.get(0).getApplicationById(5).getReviewer());
+			Files.delete(snapshot);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+		
+		Exception e1 = assertThrows(IllegalArgumentException.class,
+				() -> PositionSnapshotWriter.writeSnapshot(null, new ArrayList<Position>()));
+		assertEquals("Unable to save file.", e1.getMessage());
+		Exception e2 = assertThrows(IllegalArgumentException.class,
+				() -> PositionSnapshotWriter.writeSnapshot("test-files/missing/positions.snapshot", new ArrayList<Position>()));
+		assertEquals("Unable to save file.", e2.getMessage());
+	}
+	
+	/**
+	 * Tests that a snapshot replaces the old file atomically, leaving no temporary file behind
+	 */
+	@Test
+	public void testWriteSnapshotAtomically() {
+		try {
+			Path directory = Files.createTempDirectory("snapshot");
+			Path snapshot = directory.resolve("positions.snapshot");
+			Files.writeString(snapshot, "old contents");
+			ArrayList<Position> positions = PositionReader.readPositionFile("test-files/positions2.txt");
+			PositionSnapshotWriter.writeSnapshotAtomically(snapshot.toString(), positions, Durability.FSYNC_DIRECTORY);
+			
+			assertEquals(1, directory.toFile().list().length);
+			ArrayList<Position> actual = PositionReader.readPositionFile(snapshot.toString());
+			assertEquals(positions.size(), actual.size());
+			for (int i = 0; i < positions.size(); i++) {
+				assertEquals(positions.get(i).toString(), actual.get(i).toString());
+			}
+			
+			Files.delete(snapshot);
+			Files.delete(directory);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+		
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> PositionSnapshotWriter.writeSnapshotAtomically("positions.snapshot", new ArrayList<Position>(), null));
+		assertEquals("Unable to save file.", e.getMessage());
+	}
+}
@@ -5,19 +5,30 @@ package edu.ncsu.csc216.wolf_hire.model.io;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CancellationException;
 
 import org.junit.jupiter.api.Test;
 
 import edu.ncsu.csc216.wolf_hire.model.application.Application;
+import edu.ncsu.csc216.wolf_hire.model.io.PositionWriter.Durability;
 import edu.ncsu.csc216.wolf_hire.model.manager.Position;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 /**
  * Tests that PositionWriter class is correctly writing data to the file given by the user.
@@ -259,4 +270,159 @@ public class PositionWriterTest {
 		checkFiles(expPositions, "test-files/actual.txt");
 		// If this test fails, create a local copy so you can compare the actual output generated
 	}
+	
+	/**
+	 * Tests that writing positions read from a file gives the same text as each Position's toString()
+	 */
+	@Test
+	public void testWriteMatchesToString() {
+		ArrayList<Position> positions = PositionReader.readPositionFile("test-files/positions2.txt");
+		assertEquals(4, positions.size());
+		positions.add(new Position("Position C", 10, 10));
+		
+		String expected = "";
+		for (int i = 0; i < positions.size(); i++) {
+			expected += positions.get(i).toString();
+		}
+		try {
+			Path actual = Files.createTempFile("actual_positions", ".txt");
+			PositionWriter.writePositionsToFile(actual.toString(), positions);
+			assertEquals(expected, new String(Files.readAllBytes(actual), StandardCharsets.UTF_8));
+			Files.delete(actual);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+	}
+	
+	/**
+	 * Tests saving positions atomically with each durability level, and that a failed save leaves no temporary file behind
+	 */
+	@Test
+	public void testAtomicWrite() {
+		ArrayList<Position> positions = PositionReader.readPositionFile("test-files/positions2.txt");
+		String expected = "";
+		for (int i = 0; i < positions.size(); i++) {
+			expected += positions.get(i).toString();
+		}
+		
+		try {
+			Path directory = Files.createTempDirectory("atomic");
+			Path actual = directory.resolve("actual_positions.txt");
+			Files.write(actual, "old contents".getBytes(StandardCharsets.UTF_8));
+			
+			// check that each durability level replaces the old contents
+			for (Durability durability : Durability.values()) {
+				PositionWriter.writePositionsToFileAtomically(actual.toString(), positions, durability);
+				assertEquals(expected, new String(Files.readAllBytes(actual), StandardCharsets.UTF_8));
+				assertEquals(1, directory.toFile().list().length);
+			}
+			
+			// check that invalid parameters throw and leave the file alone
+			Exception e1 = assertThrows(IllegalArgumentException.class,
+					() -> PositionWriter.writePositionsToFileAtomically(null, positions, Durability.FSYNC));
+			assertEquals("Unable to save file.", e1.getMessage());
+			Exception e2 = assertThrows(IllegalArgumentException.class,
+					() -> PositionWriter.writePositionsToFileAtomically(actual.toString(), null, Durability.FSYNC));
+			assertEquals("Unable to save file.", e2.getMessage());
+			Exception e3 = assertThrows(IllegalArgumentException.class,
+					() -> PositionWriter.writePositionsToFileAtomically(actual.toString(), positions, null));
+			assertEquals("Unable to save file.", e3.getMessage());
+			Exception e4 = assertThrows(IllegalArgumentException.class,
+					() -> PositionWriter.writePositionsToFileAtomically(directory.resolve("missing").resolve("file.txt").toString(), positions, Durability.NONE));
+			assertEquals("Unable to save file.", e4.getMessage());
+			assertEquals(expected, new String(Files.readAllBytes(actual), StandardCharsets.UTF_8));
+			assertEquals(1, directory.toFile().list().length);
+			
+			Files.delete(actual);
+			Files.delete(directory);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+	}
+	
+	
+	/**
+	 * Tests that saving reports the number of applications written, and that a cancelled save leaves the file untouched
+	 */
+	@Test
+	public void testWriteProgress() {
+		ArrayList<Position> positions = PositionReader.readPositionFile("test-files/positions2.txt");
+		int total = 0;
+		for (int i = 0; i < positions.size(); i++) {
+			total += positions.get(i).getApplications().size();
+		}
+		
+		try {
+			Path directory = Files.createTempDirectory("progress");
+			Path actual = directory.resolve("actual_positions.txt");
+			Files.write(actual, "old contents".getBytes(StandardCharsets.UTF_8));
+			
+			long[] last = new long[2];
+			PositionWriter.writePositionsToFileAtomically(actual.toString(), positions, Durability.NONE, (done, all) -> {
+				last[0] = done;
+				last[1] = all;
+				return true;
+			});
+			assertEquals(total, last[0]);
+			assertEquals(total, last[1]);
+			
+			Files.write(actual, "old contents".getBytes(StandardCharsets.UTF_8));
+			assertThrows(CancellationException.class,
+					() -> PositionWriter.writePositionsToFileAtomically(actual.toString(), positions, Durability.NONE, (done, all) -> false));
+			assertEquals("old contents", new String(Files.readAllBytes(actual), StandardCharsets.UTF_8));
+			assertEquals(1, directory.toFile().list().length);
+			
+			Files.delete(actual);
+			Files.delete(directory);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+	}
+	
+	/**
+	 * Tests that saving a file records a Flight Recorder event with the counts of what was written
+	 */
+	@Test
+	public void testSaveEvent() {
+		ArrayList<Position> positions = PositionReader.readPositionFile("test-files/positions2.txt");
+		positions.add(new Position("Position C", 10, 10));
+		long applications = 0;
+		for (Position p : positions) {
+			applications += p.getApplications().size();
+		}
+		
+		try {
+			Path directory = Files.createTempDirectory("positions");
+			Path actual = directory.resolve("actual_positions.txt");
+			List<RecordedEvent> events;
+			try (Recording recording = new Recording()) {
+				recording.enable(PositionSaveEvent.NAME);
+				recording.start();
+				PositionWriter.writePositionsToFile(actual.toString(), positions);
+				PositionWriter.writePositionsToFileAtomically(actual.toString(), positions, Durability.NONE);
+				recording.stop();
+				
+				Path dump = directory.resolve("recording.jfr");
+				recording.dump(dump);
+				events = RecordingFile.readAllEvents(dump);
+				Files.delete(dump);
+			}
+			
+			assertEquals(2, events.size());
+			assertNull(events.get(0).getString("durability"));
+			assertEquals("NONE", events.get(1).getString("durability"));
+			for (RecordedEvent event : events) {
+				assertEquals(actual.toString(), event.getString("fileName"));
+				assertEquals(Files.size(actual), event.getLong("bytes"));
+				assertEquals(positions.size() - 1, event.getInt("positions"));
+				assertEquals(applications, event.getLong("applications"));
+				assertEquals(1, event.getInt("skippedPositions"));
+				assertTrue(event.getBoolean("completed"));
+			}
+			Files.delete(actual);
+			Files.delete(directory);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+	}
 }
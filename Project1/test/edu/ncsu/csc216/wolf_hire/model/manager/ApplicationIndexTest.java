@@ -0,0 +1,83 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_hire.model.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_hire.model.application.Application;
+
+/**
+ * Tests that ApplicationIndex correctly adds, finds, and removes applications by id.
+ * 
+ * @author hmreese2
+ *
+ */
+public class ApplicationIndexTest {
+	
+	/**
+	 * Tests adding, finding, replacing, and removing applications
+	 */
+	@Test
+	public void testIndex() {
+		ApplicationIndex index = new ApplicationIndex();
+		assertEquals(0, index.size());
+		assertNull(index.get(1));
+		assertNull(index.get(0));
+		assertNull(index.remove(1));
+		
+		Application a1 = new Application(1, "Submitted", "Cailin", "Roach", "cvroach", null, null);
+		Application a2 = new Application(2, "Submitted", "Clinton", "Armstrong", "carmstr", null, null);
+		index.put(a1);
+		index.put(a2);
+		assertEquals(2, index.size());
+		assertSame(a1, index.get(1));
+		assertSame(a2, index.get(2));
+		
+		// replacing an application with the same id does not change the size
+		Application other = new Application(2, "Submitted", "Craig", "Armstrong", "carmstr", null, null);
+		index.put(other);
+		assertEquals(2, index.size());
+		assertSame(other, index.get(2));
+		
+		assertSame(a1, index.remove(1));
+		assertNull(index.get(1));
+		assertEquals(1, index.size());
+	}
+	
+	/**
+	 * Tests the index against a HashMap through many random adds and removes, which grow the index and shift entries back
+	 */
+	@Test
+	public void testRandomOperations() {
+		ApplicationIndex index = new ApplicationIndex();
+		HashMap<Integer, Application> expected = new HashMap<Integer, Application>();
+		Application[] applications = new Application[2000];
+		for (int i = 0; i < applications.length; i++) {
+			applications[i] = new Application(i + 1, "Submitted", "First", "Last", "unity", null, null);
+		}
+		
+		Random random = new Random(216);
+		for (int i = 0; i < 20000; i++) {
+			Application a = applications[random.nextInt(applications.length)];
+			if (random.nextInt(3) == 0) {
+				assertSame(expected.remove(a.getId()), index.remove(a.getId()));
+			} else {
+				expected.put(a.getId(), a);
+				index.put(a);
+			}
+			assertEquals(expected.size(), index.size());
+		}
+		
+		for (int id = 1; id <= applications.length; id++) {
+			assertSame(expected.get(id), index.get(id));
+		}
+	}
+}
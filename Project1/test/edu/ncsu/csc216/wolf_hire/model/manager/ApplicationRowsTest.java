@@ -0,0 +1,214 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.wolf_hire.model.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_hire.model.application.Application;
+import edu.ncsu.csc216.wolf_hire.model.application.Application.StateValue;
+import edu.ncsu.csc216.wolf_hire.model.command.Command;
+import edu.ncsu.csc216.wolf_hire.model.command.Command.CommandValue;
+
+/**
+ * Tests that ApplicationRows caches the rows of a Position's applications and only patches the rows that change.
+ *
+ * @author hmreese2
+ *
+ */
+public class ApplicationRowsTest {
+
+	/**
+	 * Tests that rows are cached until an application in them is added, changed, or deleted
+	 */
+	@Test
+	public void testRows() {
+		Position p = new Position("CSC 216 PTF", 10, 15);
+		p.addApplication("Jay", "Fox", "jfox");
+		p.addApplication("Harry", "Smith", "hsmith");
+		p.addApplication("Cailin", "Roach", "cvroach");
+
+		String[][] all = p.getApplicationRows(null);
+		assertEquals(3, all.length);
+		assertEquals("2", all[1][0]);
+		assertEquals("Submitted", all[1][1]);
+		assertEquals("hsmith", all[1][2]);
+		assertEquals("", all[1][3]);
+		String[][] submitted = p.getApplicationRows(StateValue.SUBMITTED);
+		String[][] reviewing = p.getApplicationRows(StateValue.REVIEWING);
+		assertEquals(0, reviewing.length);
+
+		// nothing changed, so the same arrays are returned
+		assertSame(all, p.getApplicationRows(null));
+		assertSame(submitted, p.getApplicationRows(StateValue.SUBMITTED));
+
+		// a command only formats the changed row again, and leaves arrays handed out before unchanged
+		p.executeCommand(2, new Command(CommandValue.ASSIGN, "sesmith5"));
+		String[][] changed = p.getApplicationRows(null);
+		assertNotSame(all, changed);
+		assertEquals("Submitted", all[1][1]);
+		assertEquals("Reviewing", changed[1][1]);
+		assertEquals("sesmith5", changed[1][3]);
+		assertSame(all[0], changed[0]);
+		assertSame(all[2], changed[2]);
+		assertEquals(2, p.getApplicationRows(StateValue.SUBMITTED).length);
+		assertEquals(1, p.getApplicationRows(StateValue.REVIEWING).length);
+		assertSame(p.getApplicationRows(StateValue.HIRED), p.getApplicationRows(StateValue.HIRED));
+
+		// adding and deleting patch the arrays the application is in
+		p.addApplication("Clinton", "Armstrong", "carmstr");
+		assertEquals(4, p.getApplicationRows(null).length);
+		assertEquals(3, p.getApplicationRows(StateValue.SUBMITTED).length);
+		p.deleteApplicationById(1);
+		String[][] deleted = p.getApplicationRows(null);
+		assertEquals(3, deleted.length);
+		assertEquals("2", deleted[0][0]);
+		assertEquals(2, p.getApplicationRows(StateValue.SUBMITTED).length);
+	}
+
+	/**
+	 * Tests that patching the rows after random changes lists the same rows as formatting them again, and never changes
+	 * an array that was handed out
+	 */
+	@Test
+	public void testPatchedRows() {
+		Command[] commands = {new Command(CommandValue.ASSIGN, "sesmith5"), new Command(CommandValue.REJECT, Application.QUALIFICATIONS_REJECTION),
+				new Command(CommandValue.RESUBMIT, null), new Command(CommandValue.RETURN, null), new Command(CommandValue.SCHEDULE, null),
+				new Command(CommandValue.PROCESS, null), new Command(CommandValue.HIRE, null),
+				new Command(CommandValue.TERMINATE, Application.COMPLETED_TERMINATION)};
+		Random random = new Random(216);
+		Position p = new Position("CSC 216 PTF", 10, 15);
+		ArrayList<String[][]> handedOut = new ArrayList<String[][]>();
+		ArrayList<String> handedOutText = new ArrayList<String>();
+
+		for (int i = 0; i < 2000; i++) {
+			int size = p.getApplications().size();
+			int operation = random.nextInt(10);
+			if (operation < 3 || size == 0) {
+				p.addApplication("First", "Last", "unity" + i);
+			} else if (operation < 4) {
+				p.deleteApplicationById(p.getApplications().get(random.nextInt(size)).getId());
+			} else {
+				int id = p.getApplications().get(random.nextInt(size)).getId();
+				try {
+					p.executeCommand(id, commands[random.nextInt(commands.length)]);
+				} catch (UnsupportedOperationException e) {
+					// command does not apply in the application's state
+				}
+			}
+
+			// list a random array now and then, so some arrays are changed many times before they are listed again
+			if (random.nextInt(4) == 0) {
+				StateValue state = random.nextBoolean() ? null : StateValue.values()[random.nextInt(StateValue.values().length)];
+				String[][] rows = p.getApplicationRows(state);
+				assertEquals(expectedRows(state == null ? p.getApplications() : p.getApplicationsByState(state)), Arrays.deepToString(rows));
+				handedOut.add(rows);
+				handedOutText.add(Arrays.deepToString(rows));
+				if (rows.length > 0) {
+					assertSame(rows[0], p.getApplicationRow(state, 0));
+				}
+			}
+		}
+
+		for (int i = 0; i < handedOut.size(); i++) {
+			assertEquals(handedOutText.get(i), Arrays.deepToString(handedOut.get(i)));
+		}
+	}
+
+	/**
+	 * Tests that replaying the row changes of getApplicationRowChanges() onto rows read earlier gives the rows listed now,
+	 * and that changes that are no longer logged give null
+	 */
+	@Test
+	public void testRowChanges() {
+		Command[] commands = {new Command(CommandValue.ASSIGN, "sesmith5"), new Command(CommandValue.REJECT, Application.QUALIFICATIONS_REJECTION),
+				new Command(CommandValue.RESUBMIT, null), new Command(CommandValue.SCHEDULE, null), new Command(CommandValue.HIRE, null)};
+		Random random = new Random(216);
+		Position p = new Position("CSC 216 PTF", 10, 15);
+		StateValue[] states = StateValue.values();
+		// a view of every application, then one per state, as rows last read at counts
+		ArrayList<ArrayList<String>> views = new ArrayList<ArrayList<String>>();
+		long[] counts = new long[states.length + 1];
+		for (int v = 0; v <= states.length; v++) {
+			views.add(new ArrayList<String>());
+		}
+
+		for (int i = 0; i < 1000; i++) {
+			int size = p.getApplications().size();
+			int operation = random.nextInt(10);
+			if (operation < 3 || size == 0) {
+				p.addApplication("First", "Last", "unity" + i);
+			} else if (operation < 4) {
+				p.deleteApplicationById(p.getApplications().get(random.nextInt(size)).getId());
+			} else {
+				try {
+					p.executeCommand(p.getApplications().get(random.nextInt(size)).getId(), commands[random.nextInt(commands.length)]);
+				} catch (UnsupportedOperationException e) {
+					// command does not apply in the application's state
+				}
+			}
+
+			// bring a random view up to date: inserted and updated rows are read again, every other row must not have moved
+			int v = random.nextInt(views.size());
+			StateValue state = v == 0 ? null : states[v - 1];
+			ArrayList<String> view = views.get(v);
+			long count = p.getModificationCount();
+			RowChange[] changes = p.getApplicationRowChanges(state, counts[v], count);
+			for (int j = 0; j < changes.length; j++) {
+				if (changes[j].getType() == RowChange.Type.INSERTED) {
+					view.add(changes[j].getIndex(), null);
+				} else if (changes[j].getType() == RowChange.Type.DELETED) {
+					view.remove(changes[j].getIndex());
+				} else {
+					view.set(changes[j].getIndex(), null);
+				}
+			}
+			String[][] rows = p.getApplicationRows(state);
+			assertEquals(rows.length, view.size());
+			for (int j = 0; j < rows.length; j++) {
+				if (view.get(j) == null) {
+					view.set(j, Arrays.toString(rows[j]));
+				}
+				assertEquals(Arrays.toString(rows[j]), view.get(j));
+			}
+			counts[v] = count;
+		}
+
+		// a view with nothing to catch up on gets no row changes
+		assertEquals(0, p.getApplicationRowChanges(null, p.getModificationCount(), p.getModificationCount()).length);
+		// changes older than the log are no longer known
+		for (int i = 0; i < 1100; i++) {
+			p.addApplication("First", "Last", "more" + i);
+		}
+		assertNull(p.getApplicationRowChanges(null, 0, p.getModificationCount()));
+		assertNull(p.getApplicationRowChanges(null, p.getModificationCount(), p.getModificationCount() + 1));
+		// replacing every application cannot be told row by row
+		long merged = p.getModificationCount();
+		p.mergeFrom(new Position("CSC 216 PTF", 10, 15));
+		assertNull(p.getApplicationRowChanges(null, merged, p.getModificationCount()));
+	}
+
+	/**
+	 * Formats the rows of applications the way getApplicationRows() lists them
+	 * @param applications applications being listed
+	 * @return text of the rows
+	 */
+	private static String expectedRows(List<Application> applications) {
+		String[][] rows = new String[applications.size()][];
+		for (int i = 0; i < rows.length; i++) {
+			Application a = applications.get(i);
+			rows[i] = new String[] {Integer.toString(a.getId()), a.getState(), a.getUnityId(), a.getReviewer()};
+		}
+		return Arrays.deepToString(rows);
+	}
+}
@@ -0,0 +1,38 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_hire.model.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_hire.model.command.Command;
+import edu.ncsu.csc216.wolf_hire.model.command.Command.CommandValue;
+
+/**
+ * Tests that BatchOperation is constructed correctly.
+ * 
+ * @author hmreese2
+ *
+ */
+public class BatchOperationTest {
+	
+	/**
+	 * Tests constructing valid and invalid operations
+	 */
+	@Test
+	public void testBatchOperation() {
+		Command c = new Command(CommandValue.ASSIGN, "tnmacnei");
+		BatchOperation operation = new BatchOperation("CSC 116 Grader", 4, c);
+		assertEquals("CSC 116 Grader", operation.getPositionName());
+		assertEquals(4, operation.getId());
+		assertEquals(c, operation.getCommand());
+		
+		Exception e1 = assertThrows(IllegalArgumentException.class, () -> new BatchOperation(null, 4, c));
+		assertEquals("Invalid information.", e1.getMessage());
+		Exception e2 = assertThrows(IllegalArgumentException.class, () -> new BatchOperation("CSC 116 Grader", 4, null));
+		assertEquals("Invalid information.", e2.getMessage());
+	}
+}
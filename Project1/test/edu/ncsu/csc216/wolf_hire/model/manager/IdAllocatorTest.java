@@ -0,0 +1,79 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.wolf_hire.model.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that IdAllocator hands out every id once.
+ *
+ * @author hmreese2
+ *
+ */
+public class IdAllocatorTest {
+
+	/**
+	 * Tests allocating, releasing, and observing ids
+	 */
+	@Test
+	public void testAllocate() {
+		IdAllocator allocator = new IdAllocator();
+		assertEquals(1, allocator.peek());
+		assertEquals(1, allocator.allocate());
+		assertEquals(2, allocator.allocate());
+
+		// only the last id can be given back
+		allocator.release(1);
+		assertEquals(3, allocator.peek());
+		allocator.release(2);
+		assertEquals(2, allocator.allocate());
+
+		// observed ids raise the next id, lower ones do not change it
+		allocator.observe(10);
+		assertEquals(11, allocator.peek());
+		allocator.observe(4);
+		assertEquals(11, allocator.allocate());
+	}
+
+	/**
+	 * Tests that threads allocating and observing at the same time never get the same id
+	 */
+	@Test
+	public void testConcurrentAllocate() {
+		IdAllocator allocator = new IdAllocator();
+		ConcurrentHashMap<Integer, Boolean> allocated = new ConcurrentHashMap<Integer, Boolean>();
+		AtomicInteger duplicates = new AtomicInteger();
+		ArrayList<Thread> threads = new ArrayList<Thread>();
+		int count = 10000;
+		for (int i = 0; i < 4; i++) {
+			int seed = i;
+			threads.add(new Thread(() -> {
+				for (int j = 0; j < count; j++) {
+					if (j % 100 == seed) {
+						allocator.observe(allocator.peek() + seed);
+					}
+					// putIfAbsent returns the old value if the id was already handed out
+					if (allocated.putIfAbsent(allocator.allocate(), Boolean.TRUE) != null) {
+						duplicates.incrementAndGet();
+					}
+				}
+			}));
+		}
+		for (Thread t : threads) {
+			t.start();
+		}
+		for (Thread t : threads) {
+			assertDoesNotThrow(() -> t.join());
+		}
+		assertEquals(0, duplicates.get());
+		assertEquals(4 * count, allocated.size());
+	}
+}
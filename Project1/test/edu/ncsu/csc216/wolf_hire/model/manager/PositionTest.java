@@ -6,9 +6,14 @@ package edu.ncsu.csc216.wolf_hire.model.manager;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 import edu.ncsu.csc216.wolf_hire.model.application.Application;
@@ -469,4 +474,123 @@ public class PositionTest {
 		// List of Application has a length of 2
 		assertEquals(2, p.getApplications().size());
 	}
+	
+	
+	/**
+	 * Tests that many applications added out of order end up sorted by id, and that deleting keeps them sorted
+	 */
+	@Test
+	public void testAddManyApplications() {
+		Position p = new Position("Grader", 10, 10);
+		ArrayList<Integer> ids = new ArrayList<Integer>();
+		for (int i = 1; i <= 5000; i++) {
+			ids.add(i);
+		}
+		Collections.shuffle(ids, new Random(216));
+		for (int i = 0; i < ids.size(); i++) {
+			p.addApplication(new Application(ids.get(i), "Submitted", "First", "Last", "unity", null, null));
+		}
+		
+		for (int i = 0; i < 2500; i++) {
+			p.deleteApplicationById(ids.get(i));
+		}
+		
+		assertEquals(2500, p.getApplications().size());
+		for (int i = 1; i < p.getApplications().size(); i++) {
+			assertTrue(p.getApplications().get(i - 1).getId() < p.getApplications().get(i).getId());
+		}
+	}
+	
+	
+	/**
+	 * Tests that applications are grouped by state as they are added, updated, and deleted
+	 */
+	@Test
+	public void testApplicationsByState() {
+		Position p = new Position("Grader", 10, 10);
+		p.addApplication(new Application(3, "Submitted", "Cailin", "Roach", "cvroach", null, null));
+		p.addApplication(new Application(1, "Reviewing", "Clinton", "Armstrong", "carmstr", "tnmacnei", null));
+		p.addApplication(new Application(2, "Submitted", "Craig", "Armstrong", "carmstr", null, null));
+		assertEquals(2, p.getApplicationCount("Submitted"));
+		assertEquals(1, p.getApplicationCount("Reviewing"));
+		assertEquals(0, p.getApplicationCount("Hired"));
+		assertEquals(0, p.getApplicationCount("All"));
+		assertEquals(2, p.getApplicationsByState("Submitted").get(0).getId());
+		assertEquals(3, p.getApplicationsByState("Submitted").get(1).getId());
+		
+		// executing a command moves the application to its new state
+		p.executeCommand(2, new Command(CommandValue.ASSIGN, "jdyoung2"));
+		assertEquals(1, p.getApplicationCount("Submitted"));
+		assertEquals(2, p.getApplicationCount("Reviewing"));
+		assertEquals(1, p.getApplicationsByState("Reviewing").get(0).getId());
+		assertEquals(2, p.getApplicationsByState("Reviewing").get(1).getId());
+		
+		// invalid commands leave the application where it is
+		assertThrows(UnsupportedOperationException.class, () -> p.executeCommand(3, new Command(CommandValue.HIRE, null)));
+		assertEquals(1, p.getApplicationCount("Submitted"));
+		
+		p.deleteApplicationById(1);
+		assertEquals(1, p.getApplicationCount("Reviewing"));
+		assertEquals(2, p.getApplicationsByState("Reviewing").get(0).getId());
+		assertThrows(UnsupportedOperationException.class, () -> p.getApplicationsByState("Reviewing").clear());
+	}
+	
+	
+	/**
+	 * Tests that each position numbers its own applications and never reuses a deleted id
+	 */
+	@Test
+	public void testApplicationIds() {
+		Application.setCounter(50);
+		Position p1 = new Position("CSC 116 Grader", 10, 15);
+		Position p2 = new Position("CSC 216 PTF", 10, 15);
+		
+		// positions start at 1 whatever the shared counter is
+		assertEquals(1, p1.addApplication("Jay", "Fox", "jfox"));
+		assertEquals(1, p2.addApplication("Jay", "Fox", "jfox"));
+		assertEquals(2, p1.addApplication("Harry", "Smith", "hsmith"));
+		
+		// an invalid application does not use up an id
+		assertThrows(IllegalArgumentException.class, () -> p1.addApplication(null, "Smith", "hsmith"));
+		assertEquals(3, p1.addApplication("Cailin", "Roach", "cvroach"));
+		
+		// added applications raise the next id, deleted ones are not reused
+		p1.addApplication(new Application(10, "Submitted", "Clinton", "Armstrong", "carmstr", null, null));
+		p1.deleteApplicationById(10);
+		assertEquals(11, p1.addApplication("Jay", "Fox", "jfox"));
+		assertEquals(2, p2.addApplication("Harry", "Smith", "hsmith"));
+		assertEquals(4, p1.getApplications().size());
+		assertEquals(4, p1.getApplicationCount("Submitted"));
+		
+		// positions never touch the shared counter
+		assertEquals(51, new Application("Jay", "Fox", "jfox").getId());
+		
+		Application.setCounter(0);
+	}
+	
+	/**
+	 * Tests that validate() accepts exactly the fields the constructor accepts
+	 */
+	@Test
+	public void testValidate() {
+		String[] names = {null, "", "CSC 216 PTF"};
+		for (String name : names) {
+			for (int hoursPerWeek = 3; hoursPerWeek <= 22; hoursPerWeek++) {
+				for (int payRate = 5; payRate <= 37; payRate++) {
+					boolean created;
+					try {
+						new Position(name, hoursPerWeek, payRate);
+						created = true;
+					} catch (IllegalArgumentException e) {
+						created = false;
+					}
+					assertEquals(created, Position.validate(name, hoursPerWeek, payRate) == null);
+				}
+			}
+		}
+		
+		assertEquals("Missing position name.", Position.validate("", 10, 10));
+		assertEquals("Hours per week must be from 5 to 20.", Position.validate("CSC 216 PTF", 21, 10));
+		assertEquals("Pay rate must be from 7 to 35.", Position.validate("CSC 216 PTF", 10, 6));
+	}
 }
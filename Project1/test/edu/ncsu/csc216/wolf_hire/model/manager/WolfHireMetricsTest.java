@@ -0,0 +1,105 @@
+/**
+ *
+ */
+package edu.ncsu.csc216.wolf_hire.model.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_hire.model.command.Command;
+import edu.ncsu.csc216.wolf_hire.model.command.Command.CommandValue;
+
+/**
+ * Tests that WolfHireMetrics records latencies into histograms, and that WolfHire only records operations while it is enabled.
+ *
+ * @author hmreese2
+ *
+ */
+public class WolfHireMetricsTest {
+
+	/**
+	 * Tests the buckets of the histogram and the percentiles read from them
+	 */
+	@Test
+	public void testHistogram() {
+		// every latency is within an eighth of the highest value of its bucket
+		for (long nanos : new long[] {0, 1, 7, 8, 9, 15, 16, 17, 1000, 123456789, Long.MAX_VALUE}) {
+			int bucket = WolfHireMetrics.Timer.bucket(nanos);
+			assertTrue(bucket < WolfHireMetrics.Timer.BUCKETS);
+			long highest = WolfHireMetrics.Timer.highestInBucket(bucket);
+			assertTrue(highest >= nanos);
+			assertTrue(highest - nanos <= nanos / 8);
+		}
+
+		WolfHireMetrics.Timer timer = new WolfHireMetrics.Timer();
+		for (int i = 1; i <= 100; i++) {
+			timer.record(i * 1000L);
+		}
+		WolfHireMetrics.Snapshot s = timer.snapshot("test");
+		assertEquals(100, s.getCount());
+		assertEquals(50500, s.getMeanNanos());
+		assertEquals(100000, s.getMaxNanos());
+		assertEquals(100000, s.getPercentileNanos(100));
+		assertTrue(Math.abs(s.getPercentileNanos(50) - 50000) <= 50000 / 8);
+		assertTrue(Math.abs(s.getPercentileNanos(99) - 99000) <= 99000 / 8);
+		assertThrows(IllegalArgumentException.class, () -> s.getPercentileNanos(101));
+
+		timer.reset();
+		assertEquals(0, timer.snapshot("test").getCount());
+		assertEquals(0, timer.snapshot("test").getPercentileNanos(50));
+	}
+
+	/**
+	 * Tests that WolfHire records its operations by name only while metrics are enabled
+	 */
+	@Test
+	public void testWolfHire() {
+		WolfHire.getInstance().resetManager();
+		WolfHire instance = WolfHire.getInstance();
+		WolfHireMetrics metrics = instance.getMetrics();
+		assertFalse(metrics.isEnabled());
+
+		// nothing is recorded while disabled
+		instance.loadPositionsFromFile("test-files/positions1.txt");
+		instance.getApplicationsAsArray("All");
+		for (WolfHireMetrics.Snapshot s : metrics.snapshot().values()) {
+			assertEquals(0, s.getCount());
+		}
+
+		metrics.setEnabled(true);
+		String name = instance.getActivePositionName();
+		instance.loadPositionsFromFile("test-files/positions1.txt");
+		int id = instance.addApplicationToPosition(name, "Jay", "Fox", "jfox");
+		instance.executeCommand(name, id, new Command(CommandValue.ASSIGN, "sesmith5"));
+		instance.executeCommand(name, id, new Command(CommandValue.RETURN, null));
+		instance.executeCommand(name, id, new Command(CommandValue.ASSIGN, "sesmith5"));
+		assertThrows(UnsupportedOperationException.class, () -> instance.executeCommand(name, id, new Command(CommandValue.HIRE, null)));
+		instance.getApplicationsAsArray(name, "All");
+		instance.getApplicationsAsArray(name, "All");
+		instance.getApplicationsAsArray(name, "Reviewing");
+
+		Map<String, WolfHireMetrics.Snapshot> snapshot = metrics.snapshot();
+		assertEquals(3 + CommandValue.values().length + 8, snapshot.size());
+		assertEquals(1, snapshot.get(WolfHireMetrics.LOAD).getCount());
+		assertEquals(0, snapshot.get(WolfHireMetrics.SAVE).getCount());
+		assertEquals(1, snapshot.get(WolfHireMetrics.ADD_APPLICATION).getCount());
+		assertEquals(2, snapshot.get(WolfHireMetrics.EXECUTE_COMMAND + "ASSIGN").getCount());
+		assertEquals(1, snapshot.get(WolfHireMetrics.EXECUTE_COMMAND + "RETURN").getCount());
+		// failed commands are timed too
+		assertEquals(1, snapshot.get(WolfHireMetrics.EXECUTE_COMMAND + "HIRE").getCount());
+		assertEquals(2, snapshot.get(WolfHireMetrics.APPLICATIONS_AS_ARRAY + "All").getCount());
+		assertEquals(1, snapshot.get(WolfHireMetrics.APPLICATIONS_AS_ARRAY + "Reviewing").getCount());
+		assertEquals(0, snapshot.get(WolfHireMetrics.APPLICATIONS_AS_ARRAY + "Hired").getCount());
+		assertTrue(snapshot.get(WolfHireMetrics.LOAD).getTotalNanos() > 0);
+
+		metrics.reset();
+		assertEquals(0, metrics.snapshot().get(WolfHireMetrics.LOAD).getCount());
+		instance.resetManager();
+	}
+}
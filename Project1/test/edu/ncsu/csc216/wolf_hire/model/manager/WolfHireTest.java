@@ -3,14 +3,23 @@
  */
 package edu.ncsu.csc216.wolf_hire.model.manager;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.fail;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 import org.junit.Before;
@@ -19,6 +28,12 @@ import org.junit.jupiter.api.Test;
 import edu.ncsu.csc216.wolf_hire.model.application.Application;
 import edu.ncsu.csc216.wolf_hire.model.command.Command;
 import edu.ncsu.csc216.wolf_hire.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_hire.model.io.IOProgress;
+import edu.ncsu.csc216.wolf_hire.model.io.PositionReader;
+import edu.ncsu.csc216.wolf_hire.model.io.PositionWriter.Durability;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 /**
  * Tests that WolfHire is correctly maintaining Position lists and handling GUI commands.
@@ -1090,4 +1105,535 @@ public class WolfHireTest {
 		assertEquals(1, instance.getApplicationsAsArray("Inactive").length);
 	}
 	
+	/**
+	 * Tests setting how durable saves are
+	 */
+	@Test
+	public void testSaveDurability() {
+		// saves are forced to disk by default
+		assertEquals(Durability.FSYNC, instance.getSaveDurability());
+		
+		instance.setSaveDurability(Durability.NONE);
+		assertEquals(Durability.NONE, instance.getSaveDurability());
+		
+		// test null durability
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> instance.setSaveDurability(null));
+		assertEquals("Invalid information.", e.getMessage());
+		assertEquals(Durability.NONE, instance.getSaveDurability());
+		
+		// test saving to a file that cannot be written
+		instance.addNewPosition("Position 1", 12, 12);
+		instance.addApplicationToPosition("Cailin", "Roach", "cvroach");
+		Exception e2 = assertThrows(IllegalArgumentException.class,
+				() -> instance.savePositionsToFile("test-files/missing/actual_positions.txt"));
+		assertEquals("Unable to save file.", e2.getMessage());
+		
+		// reset manager for testing purposes
+		instance.resetManager();
+	}
+	
+	
+	/**
+	 * Tests recovering positions from a snapshot and journal, and journaling changes
+	 */
+	@Test
+	public void testRecoverPositions() {
+		try {
+			Path directory = Files.createTempDirectory("recover");
+			String snapshot = directory.resolve("positions.txt").toString();
+			String journal = directory.resolve("positions.journal").toString();
+			Files.copy(Path.of(positions2), Path.of(snapshot));
+			
+			// make changes that are only recorded in the journal
+			instance.setSaveDurability(Durability.NONE);
+			instance.recoverPositions(snapshot, journal);
+			assertEquals(4, instance.getPositionList().length);
+			instance.executeCommand(1, new Command(CommandValue.REJECT, Application.POSITIONS_REJECTION));
+			instance.deleteApplicationById(2);
+			instance.addNewPosition("Tutor", 8, 12);
+			instance.addApplicationToPosition("Ada", "Lovelace", "alovela");
+			String expected = instance.getActivePosition().toString();
+			instance.closeJournal();
+			instance.resetManager();
+			
+			// recover the changes
+			WolfHire recovered = WolfHire.getInstance();
+			recovered.setSaveDurability(Durability.NONE);
+			recovered.recoverPositions(snapshot, journal);
+			assertEquals(5, recovered.getPositionList().length);
+			recovered.loadPosition("Tutor");
+			assertEquals(expected, recovered.getActivePosition().toString());
+			recovered.loadPosition("CSC 116 Grader");
+			assertEquals("Rejected", recovered.getApplicationById(1).getState());
+			assertNull(recovered.getApplicationById(2));
+			
+			// compaction folds every change into the snapshot
+			recovered.setCompactionThreshold(1);
+			recovered.executeCommand(5, new Command(CommandValue.TERMINATE, Application.COMPLETED_TERMINATION));
+			recovered.resetManager();
+			WolfHire compacted = WolfHire.getInstance();
+			compacted.loadPositionsFromFile(snapshot);
+			compacted.loadPosition("Tutor");
+			assertEquals(expected, compacted.getActivePosition().toString());
+			compacted.loadPosition("CSC 116 Grader");
+			assertEquals("Inactive", compacted.getApplicationById(5).getState());
+			compacted.resetManager();
+			
+			Exception e = assertThrows(IllegalArgumentException.class,
+					() -> WolfHire.getInstance().setCompactionThreshold(0));
+			assertEquals("Invalid information.", e.getMessage());
+			
+			for (String name : directory.toFile().list()) {
+				Files.delete(directory.resolve(name));
+			}
+			Files.delete(directory);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+		
+		// reset manager for testing purposes
+		WolfHire.getInstance().resetManager();
+	}
+	
+	
+	/**
+	 * Tests executing batches of commands, with and without all-or-nothing mode
+	 */
+	@Test
+	public void testExecuteCommands() {
+		instance.loadPositionsFromFile(positions2);
+		ArrayList<BatchOperation> batch = new ArrayList<BatchOperation>();
+		batch.add(new BatchOperation("CSC 116 Grader", 1, new Command(CommandValue.SCHEDULE, null)));
+		batch.add(new BatchOperation("CSC 216 PTF", 2, new Command(CommandValue.ASSIGN, "sesmith5")));
+		batch.add(new BatchOperation("CSC 216 PTF", 2, new Command(CommandValue.HIRE, null)));
+		batch.add(new BatchOperation("Missing", 1, new Command(CommandValue.HIRE, null)));
+		batch.add(new BatchOperation("CSC 216 PTF", 99, new Command(CommandValue.HIRE, null)));
+		
+		// all-or-nothing batch with failures changes nothing
+		BatchOperation.Result[] results = instance.executeCommands(batch, true);
+		assertEquals(BatchOperation.Result.NOT_EXECUTED, results[0]);
+		assertEquals(BatchOperation.Result.NOT_EXECUTED, results[1]);
+		assertEquals(BatchOperation.Result.INVALID_COMMAND, results[2]);
+		assertEquals(BatchOperation.Result.NO_POSITION, results[3]);
+		assertEquals(BatchOperation.Result.NO_APPLICATION, results[4]);
+		instance.loadPosition("CSC 116 Grader");
+		assertEquals("Reviewing", instance.getApplicationById(1).getState());
+		instance.loadPosition("CSC 216 PTF");
+		assertEquals("Submitted", instance.getApplicationById(2).getState());
+		
+		// without all-or-nothing the valid commands are executed
+		results = instance.executeCommands(batch, false);
+		assertEquals(BatchOperation.Result.EXECUTED, results[0]);
+		assertEquals(BatchOperation.Result.EXECUTED, results[1]);
+		assertEquals(BatchOperation.Result.INVALID_COMMAND, results[2]);
+		assertEquals(BatchOperation.Result.NO_POSITION, results[3]);
+		assertEquals(BatchOperation.Result.NO_APPLICATION, results[4]);
+		assertEquals("Reviewing", instance.getApplicationById(2).getState());
+		assertEquals(1, instance.getApplicationsAsArray("Reviewing").length);
+		instance.loadPosition("CSC 116 Grader");
+		assertEquals("Interviewing", instance.getApplicationById(1).getState());
+		
+		// all-or-nothing batch where every command is valid, including several commands for one application
+		batch.clear();
+		batch.add(new BatchOperation("CSC 116 Grader", 1, new Command(CommandValue.PROCESS, null)));
+		batch.add(new BatchOperation("CSC 116 Grader", 1, new Command(CommandValue.HIRE, null)));
+		results = instance.executeCommands(batch, true);
+		assertEquals(BatchOperation.Result.EXECUTED, results[0]);
+		assertEquals(BatchOperation.Result.EXECUTED, results[1]);
+		assertEquals("Hired", instance.getApplicationById(1).getState());
+		
+		Exception e = assertThrows(IllegalArgumentException.class, () -> instance.executeCommands(null, false));
+		assertEquals("Invalid information.", e.getMessage());
+		
+		// reset manager for testing purposes
+		instance.resetManager();
+	}
+	
+	
+	/**
+	 * Tests operations addressed by position name from several threads at once
+	 */
+	@Test
+	public void testConcurrentPositions() {
+		String[] names = {"CSC 116 Grader", "CSC 216 PTF", "CSC 226 TA", "CSC 316 TA"};
+		for (int i = 0; i < names.length; i++) {
+			instance.addNewPosition(names[i], 10, 15);
+		}
+		int count = 200;
+		
+		// one writer per position, plus a reader going over every position
+		ArrayList<Thread> threads = new ArrayList<Thread>();
+		ArrayList<Throwable> errors = new ArrayList<Throwable>();
+		for (int i = 0; i < names.length; i++) {
+			String name = names[i];
+			threads.add(new Thread(() -> {
+				for (int j = 0; j < count; j++) {
+					int id = instance.addApplicationToPosition(name, "First", "Last", "unity" + j);
+					instance.executeCommand(name, id, new Command(CommandValue.ASSIGN, "reviewer"));
+				}
+			}));
+		}
+		threads.add(new Thread(() -> {
+			for (int j = 0; j < count; j++) {
+				for (int k = 0; k < names.length; k++) {
+					String[][] rows = instance.getApplicationsAsArray(names[k], "All");
+					for (int r = 1; r < rows.length; r++) {
+						assertEquals(Integer.parseInt(rows[r - 1][0]) + 1, Integer.parseInt(rows[r][0]));
+					}
+				}
+			}
+		}));
+		for (Thread t : threads) {
+			t.setUncaughtExceptionHandler((thread, e) -> {
+				synchronized (errors) {
+					errors.add(e);
+				}
+			});
+			t.start();
+		}
+		for (Thread t : threads) {
+			assertDoesNotThrow(() -> t.join());
+		}
+		assertEquals(0, errors.size());
+		
+		// every position has its own applications, numbered in order
+		for (int i = 0; i < names.length; i++) {
+			String[][] rows = instance.getApplicationsAsArray(names[i], "Reviewing");
+			assertEquals(count, rows.length);
+			for (int j = 0; j < count; j++) {
+				assertEquals(j + 1 + "", rows[j][0]);
+				assertEquals("reviewer", rows[j][3]);
+			}
+			assertEquals("unity0", instance.getApplicationById(names[i], 1).getUnityId());
+		}
+		instance.deleteApplicationById(names[0], 1);
+		assertNull(instance.getApplicationById(names[0], 1));
+		
+		Exception e = assertThrows(IllegalArgumentException.class, () -> instance.getApplicationsAsArray("Missing", "All"));
+		assertEquals("Position not available.", e.getMessage());
+		e = assertThrows(IllegalArgumentException.class, () -> instance.executeCommand(names[1], 999, new Command(CommandValue.HIRE, null)));
+		assertEquals("Invalid information.", e.getMessage());
+		
+		// reset manager for testing purposes
+		instance.resetManager();
+	}
+	
+	
+	/**
+	 * Tests that a position added while positions are being saved does not break the save or leave positions locked
+	 */
+	@Test
+	public void testAddPositionDuringSave() {
+		try {
+			Path file = Files.createTempFile("positions", ".txt");
+			instance.addNewPosition("CSC 216 PTF", 10, 15);
+			instance.addApplicationToPosition("CSC 216 PTF", "Jay", "Fox", "jfox");
+			instance.addApplicationToPosition("CSC 216 PTF", "Harry", "Smith", "hsmith");
+			
+			// the position added by the progress callback is not part of the save
+			instance.savePositionsToFile(file.toString(), (done, total) -> {
+				if (instance.getPositionList().length == 1) {
+					instance.addNewPosition("CSC 316 TA", 10, 15);
+				}
+				return true;
+			});
+			assertEquals(2, instance.getPositionList().length);
+			assertEquals(1, PositionReader.readPositionFile(file.toString()).size());
+			
+			// every read lock taken by the save was released, so writers on another thread do not wait on it
+			Thread writer = new Thread(() -> {
+				instance.addApplicationToPosition("CSC 216 PTF", "Cailin", "Roach", "cvroach");
+				instance.addApplicationToPosition("CSC 316 TA", "Carol", "Schmidt", "cschmid");
+			});
+			writer.start();
+			assertDoesNotThrow(() -> writer.join(5000));
+			assertFalse(writer.isAlive());
+			assertEquals(3, instance.getApplicationsAsArray("CSC 216 PTF", "All").length);
+			assertEquals(1, instance.getApplicationsAsArray("CSC 316 TA", "All").length);
+			Files.delete(file);
+		} catch (IOException e) {
+			fail("Error with temp file.");
+		}
+		
+		// reset manager for testing purposes
+		instance.resetManager();
+	}
+	
+	/**
+	 * Tests finding positions by name and listing their names with many positions loaded
+	 */
+	@Test
+	public void testPositionIndex() {
+		int count = 2000;
+		for (int i = 0; i < count; i++) {
+			instance.addNewPosition("Position " + i, 10, 15);
+		}
+		String[] names = instance.getPositionList();
+		assertEquals(count, names.length);
+		assertEquals("Position 1234", names[1234]);
+		
+		// each caller gets its own copy of the names, so changing one does not change what other callers see
+		assertNotSame(names, instance.getPositionList());
+		names[1234] = "Changed";
+		assertEquals("Position 1234", instance.getPositionList()[1234]);
+		instance.loadPosition("Position 17");
+		assertEquals("Position 17", instance.getActivePositionName());
+		
+		Exception e = assertThrows(IllegalArgumentException.class, () -> instance.addNewPosition("Position 1999", 10, 15));
+		assertEquals("Position cannot be created.", e.getMessage());
+		e = assertThrows(IllegalArgumentException.class, () -> instance.loadPosition("Position 2000"));
+		assertEquals("Position not available.", e.getMessage());
+		
+		instance.addNewPosition("Position 2000", 10, 15);
+		assertEquals(count + 1, instance.getPositionList().length);
+		assertEquals("Position 2000", instance.getPositionList()[count]);
+		assertEquals("Position 2000", instance.getActivePositionName());
+		
+		// reset manager for testing purposes
+		instance.resetManager();
+		assertEquals(0, instance.getPositionList().length);
+	}
+	
+	
+	/**
+	 * Tests reading the rows of activePosition one at a time
+	 */
+	@Test
+	public void testApplicationRow() {
+		assertEquals(0, instance.getApplicationCount("All"));
+		assertNull(instance.getApplicationRow("All", 0));
+		assertEquals(-1, instance.getApplicationRowIndex("All", 1));
+		assertEquals(-1, instance.getModificationCount());
+		
+		instance.addNewPosition("CSC 216 PTF", 10, 15);
+		long count = instance.getModificationCount();
+		instance.addApplicationToPosition("Jay", "Fox", "jfox");
+		instance.addApplicationToPosition("Harry", "Smith", "hsmith");
+		instance.addApplicationToPosition("Cailin", "Roach", "cvroach");
+		assertEquals(count + 3, instance.getModificationCount());
+		assertEquals(3, instance.getApplicationCount("All"));
+		assertEquals("hsmith", instance.getApplicationRow("All", 1)[2]);
+		assertNull(instance.getApplicationRow("All", 3));
+		
+		// rows match getApplicationsAsArray() for every filter
+		instance.executeCommand(2, new Command(CommandValue.ASSIGN, "sesmith5"));
+		assertEquals(count + 4, instance.getModificationCount());
+		assertEquals(1, instance.getApplicationCount("Reviewing"));
+		assertEquals(2, instance.getApplicationCount("Submitted"));
+		String[][] rows = instance.getApplicationsAsArray("Submitted");
+		for (int i = 0; i < rows.length; i++) {
+			assertArrayEquals(rows[i], instance.getApplicationRow("Submitted", i));
+		}
+		assertEquals(0, instance.getApplicationRowIndex("Reviewing", 2));
+		assertEquals(-1, instance.getApplicationRowIndex("Submitted", 2));
+		assertEquals(1, instance.getApplicationRowIndex("Submitted", 3));
+		assertEquals(2, instance.getApplicationRowIndex("All", 3));
+		
+		instance.deleteApplicationById(1);
+		assertEquals(count + 5, instance.getModificationCount());
+		assertEquals(0, instance.getApplicationRowIndex("Submitted", 3));
+		
+		// reset manager for testing purposes
+		instance.resetManager();
+	}
+	
+	
+	/**
+	 * Tests reading positions separately from adding them to the system
+	 */
+	@Test
+	public void testReadAndAddPositions() {
+		long[] read = new long[1];
+		List<Position> list = instance.readPositionsFromFile(positions2, (done, total) -> {
+			read[0] = done;
+			return true;
+		});
+		assertEquals(new File(positions2).length(), read[0]);
+		int count = list.size();
+		assertEquals(PositionReader.readPositionFile(positions2).size(), count);
+		// nothing is added until addPositions() is called
+		assertEquals(0, instance.getPositionList().length);
+		assertNull(instance.getActivePositionName());
+		
+		instance.addPositions(list);
+		assertEquals(count, instance.getPositionList().length);
+		assertEquals(list.get(0).getPositionName(), instance.getActivePositionName());
+		instance.addPositions(new ArrayList<Position>());
+		assertEquals(count, instance.getPositionList().length);
+		
+		Exception e = assertThrows(IllegalArgumentException.class, () -> instance.readPositionsFromFile("test-files/missing.txt", IOProgress.NONE));
+		assertEquals("Unable to load file test-files/missing.txt", e.getMessage());
+		
+		// reset manager for testing purposes
+		instance.resetManager();
+	}
+	
+	/**
+	 * Tests that reloading a file merges the positions of changed blocks by name, removes positions no longer in the file,
+	 * and leaves positions of unchanged blocks alone
+	 */
+	@Test
+	public void testReloadPositionsFromFile() {
+		try {
+			Path file = Files.createTempFile("positions", ".txt");
+			Files.writeString(file, "# P1,10,10\n* 1,Submitted,Jay,Fox,jfox,,\n"
+					+ "# P2,10,10\n* 1,Submitted,Harry,Smith,hsmith,,\n* 2,Submitted,Cailin,Roach,cvroach,,\n"
+					+ "# P3,10,10\n* 1,Submitted,Carol,Schmidt,cschmid,,\n");
+			String fileName = file.toString();
+			
+			// first reload parses every block
+			assertEquals(3, instance.reloadPositionsFromFile(fileName).getChangedCount());
+			assertArrayEquals(new String[] {"P1", "P2", "P3"}, instance.getPositionList());
+			assertEquals("P1", instance.getActivePositionName());
+			instance.loadPosition("P2");
+			Position p2 = instance.getActivePosition();
+			Application kept = p2.getApplicationById(1);
+			
+			// reloading the same file parses nothing and changes nothing
+			assertEquals(0, instance.reloadPositionsFromFile(fileName).getChangedCount());
+			assertArrayEquals(new String[] {"P1", "P2", "P3"}, instance.getPositionList());
+			
+			// change made in the system to a position whose block does not change is kept
+			instance.executeCommand("P1", 1, new Command(CommandValue.ASSIGN, "sesmith5"));
+			
+			// P2 changes, P3 is removed, and P4 is new
+			Files.writeString(file, "# P4,12,12\n* 1,Submitted,Jay,Fox,jfox,,\n"
+					+ "# P1,10,10\n* 1,Submitted,Jay,Fox,jfox,,\n"
+					+ "# P2,12,15\n* 1,Submitted,Harry,Smith,hsmith,,\n* 2,Reviewing,Cailin,Roach,cvroach,sesmith5,\n"
+					+ "* 5,Submitted,Clinton,Armstrong,carmstr,,\n");
+			assertEquals(2, instance.reloadPositionsFromFile(fileName).getChangedCount());
+			assertArrayEquals(new String[] {"P1", "P2", "P4"}, instance.getPositionList());
+			assertEquals("Reviewing", instance.getApplicationById("P1", 1).getState());
+			
+			// P2 is merged into the same position, keeping the application that did not change
+			assertEquals("P2", instance.getActivePositionName());
+			assertSame(p2, instance.getActivePosition());
+			assertEquals(12, p2.getHoursPerWeek());
+			assertEquals(15, p2.getPayRate());
+			assertEquals(3, p2.getApplications().size());
+			assertSame(kept, p2.getApplicationById(1));
+			assertEquals("Reviewing", p2.getApplicationById(2).getState());
+			assertEquals(1, instance.getApplicationCount("Reviewing"));
+			assertEquals(6, instance.addApplicationToPosition("P2", "Jay", "Fox", "jfox"));
+			
+			// removing the active position makes the first position in the file active
+			Files.writeString(file, "# P4,12,12\n* 1,Submitted,Jay,Fox,jfox,,\n# P1,10,10\n* 1,Submitted,Jay,Fox,jfox,,\n");
+			assertEquals(0, instance.reloadPositionsFromFile(fileName).getChangedCount());
+			assertArrayEquals(new String[] {"P1", "P4"}, instance.getPositionList());
+			assertEquals("P4", instance.getActivePositionName());
+			
+			Files.delete(file);
+			Exception e = assertThrows(IllegalArgumentException.class, () -> instance.reloadPositionsFromFile(fileName));
+			assertEquals("Unable to load file " + fileName, e.getMessage());
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+		
+		// reset manager for testing purposes
+		instance.resetManager();
+	}
+	
+	/**
+	 * Tests that compactions started by a full journal, which run in the background, lose no changes made by several threads
+	 */
+	@Test
+	public void testBackgroundCompaction() {
+		try {
+			Path directory = Files.createTempDirectory("recover");
+			String snapshot = directory.resolve("positions.txt").toString();
+			String journal = directory.resolve("positions.journal").toString();
+			Files.copy(Path.of(positions2), Path.of(snapshot));
+			
+			instance.setSaveDurability(Durability.NONE);
+			instance.setCompactionThreshold(5);
+			instance.recoverPositions(snapshot, journal);
+			String[] names = instance.getPositionList();
+			
+			// one writer per position, each compacting the journal many times over
+			ArrayList<Thread> threads = new ArrayList<Thread>();
+			for (int i = 0; i < names.length; i++) {
+				String name = names[i];
+				threads.add(new Thread(() -> {
+					for (int j = 0; j < 50; j++) {
+						int id = instance.addApplicationToPosition(name, "First", "Last", "unity" + j);
+						instance.executeCommand(name, id, new Command(CommandValue.ASSIGN, "reviewer"));
+					}
+				}));
+			}
+			for (Thread t : threads) {
+				t.start();
+			}
+			for (Thread t : threads) {
+				assertDoesNotThrow(() -> t.join());
+			}
+			String[] expected = new String[names.length];
+			for (int i = 0; i < names.length; i++) {
+				instance.loadPosition(names[i]);
+				expected[i] = instance.getActivePosition().toString();
+			}
+			instance.closeJournal();
+			instance.resetManager();
+			
+			// the snapshot is binary once compacted, and with the journal holds every change
+			assertEquals("WHS1", new String(Files.readAllBytes(Path.of(snapshot)), 0, 4, StandardCharsets.US_ASCII));
+			WolfHire recovered = WolfHire.getInstance();
+			recovered.setSaveDurability(Durability.NONE);
+			recovered.recoverPositions(snapshot, journal);
+			for (int i = 0; i < names.length; i++) {
+				recovered.loadPosition(names[i]);
+				assertEquals(expected[i], recovered.getActivePosition().toString());
+			}
+			recovered.resetManager();
+			
+			for (String name : directory.toFile().list()) {
+				Files.delete(directory.resolve(name));
+			}
+			Files.delete(directory);
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+		
+		// reset manager for testing purposes
+		WolfHire.getInstance().resetManager();
+	}
+	
+	/**
+	 * Tests that an all-or-nothing batch records a Flight Recorder transition event for each command it executes, and none for
+	 * the trial run on copies or for a batch that fails
+	 */
+	@Test
+	public void testExecuteCommandsTransitionEvents() {
+		instance.loadPositionsFromFile(positions2);
+		ArrayList<BatchOperation> failing = new ArrayList<BatchOperation>();
+		failing.add(new BatchOperation("CSC 116 Grader", 1, new Command(CommandValue.SCHEDULE, null)));
+		failing.add(new BatchOperation("CSC 216 PTF", 2, new Command(CommandValue.HIRE, null)));
+		ArrayList<BatchOperation> batch = new ArrayList<BatchOperation>();
+		batch.add(new BatchOperation("CSC 116 Grader", 1, new Command(CommandValue.SCHEDULE, null)));
+		batch.add(new BatchOperation("CSC 216 PTF", 2, new Command(CommandValue.ASSIGN, "sesmith5")));
+		
+		List<RecordedEvent> events = null;
+		try (Recording recording = new Recording()) {
+			recording.enable("edu.ncsu.csc216.wolf_hire.StateTransition");
+			recording.start();
+			assertEquals(BatchOperation.Result.INVALID_COMMAND, instance.executeCommands(failing, true)[1]);
+			assertEquals(BatchOperation.Result.EXECUTED, instance.executeCommands(batch, true)[1]);
+			recording.stop();
+			
+			Path dump = Files.createTempFile("recording", ".jfr");
+			recording.dump(dump);
+			events = RecordingFile.readAllEvents(dump);
+			Files.delete(dump);
+		} catch (IOException e) {
+			fail("Error reading recording.");
+		}
+		
+		assertEquals(2, events.size());
+		events.sort((e1, e2) -> e1.getStartTime().compareTo(e2.getStartTime()));
+		assertEquals("SCHEDULE", events.get(0).getString("command"));
+		assertEquals("ASSIGN", events.get(1).getString("command"));
+		
+		// reset manager for testing purposes
+		instance.resetManager();
+	}
 }